@@ -0,0 +1,47 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    Runs the benchmark suite with the GC profiler (so
+ *    every benchmark also reports its allocation rate and
+ *    bytes per operation) and saves the results as JSON
+ *    under benchmarks/results, named after the label given
+ *    (eg. the commit), so two commits can be diffed:
+ *
+ *       java BenchmarkMain $(git rev-parse --short HEAD) [JMH options]
+ *
+ *    Any JMH option can follow the label, eg. a benchmark
+ *    regex or -p mechanics=3 to run less.
+ *
+ * Last Edited: October 2026
+ */
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.io.File;
+import java.util.Arrays;
+
+public class BenchmarkMain
+{
+   public static void main(String[] args) throws Exception
+   {
+      String label = args.length > 0 ? args[0] : "latest";
+      String[] jmhArgs = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : new String[0];
+
+      File results = new File("benchmarks/results");
+      results.mkdirs();
+
+      Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(jmhArgs))
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(new File(results, label + ".json").getPath())
+            .build();
+
+      new Runner(options).run();
+   }
+}
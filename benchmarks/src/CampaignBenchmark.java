@@ -0,0 +1,50 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    A full campaign of 1000 replications, end to end
+ *    (executor, merging and statistics), timed once per
+ *    iteration.  The result cache is off, so every
+ *    replication is simulated.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CampaignBenchmark
+{
+   private static final int REPLICATIONS = 1000;
+
+   @Param({"PROCESS", "EVENT", "KERNEL"})
+   public ReplicationModel.Engine engine;
+
+   @Param({"1", "8"})
+   public int workers;
+
+   @Benchmark
+   public ReplicationCampaign campaign(ShopParams params)
+   {
+      ReplicationCampaign campaign = new ReplicationCampaign(params.config(), engine,
+            ReplicationModel.SEED, REPLICATIONS, workers);
+      if (!campaign.run(result -> { }, observation -> { }))
+         throw new IllegalStateException("A replication did not run correctly.");
+      return campaign;
+   }
+}
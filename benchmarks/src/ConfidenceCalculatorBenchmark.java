@@ -0,0 +1,111 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    The cost of aggregating a campaign's results: 1000
+ *    observations of every Metric go into a DESMO-J
+ *    ConfidenceCalculator each, and the confidence interval
+ *    is read back, as the ReplicationModel does.  The same
+ *    is done with SampleStatistics for comparison.  The
+ *    observations are real replication results of the
+ *    shop settings being benchmarked.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.concurrent.TimeUnit;
+import desmoj.core.simulator.Experiment;
+import desmoj.core.simulator.Model;
+import desmoj.core.statistic.ConfidenceCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfidenceCalculatorBenchmark
+{
+   private static final int OBSERVATIONS = 1000;
+
+   private double[][] observations;
+   private Experiment experiment;
+   private ConfidenceCalculator[] calculators;
+
+   @Setup
+   public void setup(ShopParams params)
+   {
+      // Real replication results to aggregate (kernel, so setup is quick).
+      ShopConfig config = params.config();
+      Metric[] metrics = Metric.values();
+      observations = new double[metrics.length][OBSERVATIONS];
+      for (int i = 0; i < OBSERVATIONS; i++)
+      {
+         ReplicationResult result = ReplicationModel.simulate(ReplicationModel.Engine.KERNEL,
+               config, ReplicationModel.SEED, i + 1);
+         for (Metric metric : metrics)
+            observations[metric.ordinal()][i] = metric.of(result);
+      }
+
+      // A ConfidenceCalculator needs a model connected to an experiment.
+      experiment = new Experiment("Confidence Calculator Benchmark");
+      experiment.setSilent(true);
+      Model model = new ReplicationModel(null, "Benchmark", false, false);
+      model.connectToExperiment(experiment);
+
+      // Made once and reset, or every invocation would add more to the report.
+      calculators = new ConfidenceCalculator[metrics.length];
+      for (Metric metric : metrics)
+         calculators[metric.ordinal()] = new ConfidenceCalculator(model, metric.getTitle(), false, false);
+   }
+
+   @TearDown
+   public void tearDown()
+   {
+      experiment.finish();
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(OBSERVATIONS)
+   public void confidenceCalculator(Blackhole blackhole)
+   {
+      for (int i = 0; i < observations.length; i++)
+      {
+         ConfidenceCalculator cc = calculators[i];
+         cc.reset();
+         for (double value : observations[i])
+            cc.update(value);
+
+         blackhole.consume(cc.getConfidenceIntervalOfMeanLowerBound());
+         blackhole.consume(cc.getConfidenceIntervalOfMeanUpperBound());
+      }
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(OBSERVATIONS)
+   public void sampleStatistics(Blackhole blackhole)
+   {
+      for (double[] values : observations)
+      {
+         SampleStatistics stats = new SampleStatistics();
+         for (double value : values)
+            stats.update(value);
+
+         blackhole.consume(stats.getConfidenceIntervalOfMeanLowerBound());
+         blackhole.consume(stats.getConfidenceIntervalOfMeanUpperBound());
+      }
+   }
+}
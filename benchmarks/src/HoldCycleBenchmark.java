@@ -0,0 +1,120 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    The Mechanic's hold / reactivate cycle on its own:
+ *    one Mechanic works through a line of CARS customers
+ *    that is already full when it starts.  Each cycle is
+ *    take the first car, hold for its fix time and
+ *    reactivate the customer (who then leaves), so the
+ *    time per operation is one hold cycle, with no
+ *    arrivals, balks, referrals or specialists mixed in.
+ *
+ *    Filling the line (starting and passivating every
+ *    customer) happens before each invocation and is not
+ *    measured: the experiment is stopped just before the
+ *    mechanic starts, and the benchmark lets it proceed.
+ *
+ * Last Edited: October 2026
+ */
+
+import desmoj.core.simulator.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HoldCycleBenchmark
+{
+   /** Cars in line when the mechanic starts (hold cycles per invocation) */
+   private static final int CARS = 1000;
+
+   /** When the mechanic starts (the line is filled at time 0) */
+   private static final double MECHANIC_STARTS = 1;
+
+   private LineShop shop;
+   private Experiment experiment;
+
+   @Setup(Level.Invocation)
+   public void fillLine()
+   {
+      shop = new LineShop();
+      experiment = new Experiment("Hold Cycle");
+      experiment.setSeedGenerator(ReplicationModel.seedFor(ReplicationModel.SEED, 1));
+      shop.connectToExperiment(experiment);
+      experiment.setShowProgressBar(false);
+      experiment.traceOff(new TimeInstant(0));
+      experiment.debugOff(new TimeInstant(0));
+      experiment.setSilent(true);
+
+      // Run the arrivals only: every customer ends up waiting in line.
+      experiment.stop(new TimeInstant(MECHANIC_STARTS / 2));
+      experiment.start();
+   }
+
+   @Benchmark
+   @OperationsPerInvocation(CARS)
+   public long holdCycle()
+   {
+      experiment.proceed();
+      return shop.mechanicJobs.getValue();
+   }
+
+   @TearDown(Level.Invocation)
+   public void emptyShop() throws InterruptedException
+   {
+      if (shop.mechanicJobs.getValue() != CARS)
+         throw new IllegalStateException(shop.mechanicJobs.getValue() + " of " + CARS + " cars were fixed");
+
+      experiment.finish();
+      shop.processes.awaitTermination(10_000);
+   }
+
+   /**
+    * An AutoBodyShop with a single mechanic, no specialists and
+    * no generator.  Every car arrives at time 0, never balks and
+    * is fixed by the mechanic (never referred).
+    */
+   static class LineShop extends AutoBodyShop
+   {
+      LineShop()
+      {
+         super(null, "Auto Body Shop", false, false, ShopConfig.snapshot());
+      }
+
+      @Override
+      public void doInitialSchedules()
+      {
+         // Never scheduled, so the run ends when the line is empty.
+         closing = new ClosingTime(this, MECHANIC_STARTS);
+
+         // Nobody is idle yet, so each customer waits in line.
+         for (int i = 0; i < CARS; i++)
+         {
+            Customer car = new Customer(this, "Customer", false, 0);
+            car.job = new ShopRules.Job(Long.MAX_VALUE, distributions.mechanicTime(null), false, 0);
+            car.activate();
+         }
+
+         Mechanic mechanic = new Mechanic(this, "Mechanic", false, config.mechanicSalary,
+               config.mechanicCommission, ShopRules.MECHANIC_FIX_TIME, ShopRules.MECHANIC_REFER_RATE);
+         mechanic.activate(new TimeSpan(MECHANIC_STARTS));
+      }
+   }
+}
@@ -0,0 +1,52 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    The time (and allocation, with -prof gc) of a single
+ *    replication, ie. one call to the code behind
+ *    ReplicationModel.runSimulation.  Every invocation
+ *    runs the next replication number, so the benchmark
+ *    averages over many different days.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplicationBenchmark
+{
+   @Param({"PROCESS", "EVENT", "KERNEL"})
+   public ReplicationModel.Engine engine;
+
+   private ShopConfig config;
+   private int runNumber;
+
+   @Setup
+   public void setup(ShopParams params)
+   {
+      config = params.config();
+   }
+
+   @Benchmark
+   public ReplicationResult replication()
+   {
+      return ReplicationModel.simulate(engine, config, ReplicationModel.SEED, ++runNumber);
+   }
+}
@@ -0,0 +1,84 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    The cost of handing out a worker from a ResourcePool
+ *    as the shop grows from 10 to 10,000 of them.  Half of
+ *    the workers are kept busy: each operation releases
+ *    the one busy the longest and acquires a worker with
+ *    one of its skills (every skill is shared by two of
+ *    the SKILL_SETS), as ShopKernel does when a job ends
+ *    and the next car is referred.  The time per operation
+ *    should grow with log(workers) only, not with workers
+ *    as a scan of every worker would.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourcePoolBenchmark
+{
+   private static final int SKILL_SETS = 8;
+
+   @Param({"10", "100", "1000", "10000"})
+   public int workers;
+
+   private ResourcePool pool;
+   private int[] busy;
+   private int oldest;
+   private double now;
+
+   @Setup
+   public void setup()
+   {
+      // Skill set g has skills g and g + 1, with speeds from 0.5 to 2.
+      Random random = new Random(ReplicationModel.SEED);
+      long[] skills = new long[workers];
+      double[] speeds = new double[workers];
+      for (int r = 0; r < workers; r++)
+      {
+         int set = r % SKILL_SETS;
+         skills[r] = (1L << set) | (1L << ((set + 1) % SKILL_SETS));
+         speeds[r] = 0.5 + 1.5 * random.nextDouble();
+      }
+      pool = new ResourcePool(skills, speeds);
+
+      busy = new int[Math.max(1, workers / 2)];
+      for (int i = 0; i < busy.length; i++)
+         busy[i] = pool.acquire(skills[i % SKILL_SETS], 0);
+      oldest = 0;
+      now = 0;
+   }
+
+   @Benchmark
+   public int releaseAndAcquire()
+   {
+      now += 0.01;
+      int released = busy[oldest];
+      pool.release(released, now);
+
+      int acquired = pool.acquire(Long.lowestOneBit(pool.getSkills(released)), now);
+      busy[oldest] = acquired;
+      oldest = (oldest + 1) % busy.length;
+      return acquired;
+   }
+}
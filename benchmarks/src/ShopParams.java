@@ -0,0 +1,47 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    The shop settings every benchmark is run over.  The
+ *    arrival rates are fixed, so the staffing sets the load:
+ *    1 mechanic is saturated, 3 is moderate and 8 is light.
+ *    The shop has the Driver's default of 1 specialist
+ *    stall, however many specialists there are (so with 3
+ *    specialists the stall is the bottleneck); give the
+ *    stalls their own values with eg. -p stalls=1,3.
+ *    Prices are the Driver's defaults (they do not change
+ *    the work done).  Override with -p, eg. -p mechanics=2.
+ *
+ * Last Edited: October 2026
+ */
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Benchmark)
+public class ShopParams
+{
+   @Param({"1", "3", "8"})
+   public int mechanics;
+
+   @Param({"1", "3"})
+   public int specialists;
+
+   @Param({"1"})
+   public int stalls;
+
+   @Param({"6", "12"})
+   public int hours;
+
+   /**
+    * @return : The Driver's settings with this staffing, these stalls and these hours.
+    */
+   public ShopConfig config()
+   {
+      ShopConfig base = ShopConfig.snapshot();
+      return new ShopConfig(hours, base.stallCost, base.lossCost,
+            mechanics, base.mechanicSalary, base.mechanicCommission,
+            specialists, stalls, base.specialistSalary, base.specialistCommission);
+   }
+}
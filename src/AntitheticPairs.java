@@ -0,0 +1,111 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class pairs up the results of antithetic
+ *    replications (2k-1 uses U, 2k uses 1-U).  Each
+ *    pair's mean is handed on as a single observation,
+ *    and the variance of those means is compared with
+ *    what independent replications would have given, to
+ *    show how much the antithetic pairs actually helped.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.EnumMap;
+import java.util.function.Consumer;
+
+public final class AntitheticPairs
+{
+   private final Consumer<EnumMap<Metric, Double>> onPair;
+   private final EnumMap<Metric, SampleStatistics> singles = new EnumMap<>(Metric.class);
+   private final EnumMap<Metric, SampleStatistics> pairs = new EnumMap<>(Metric.class);
+   private ReplicationResult pending;
+
+   /**
+    * @param onPair : Receives the mean of each pair, metric by metric
+    */
+   public AntitheticPairs(Consumer<EnumMap<Metric, Double>> onPair)
+   {
+      this.onPair = onPair;
+
+      for (Metric metric : Metric.values())
+      {
+         singles.put(metric, new SampleStatistics());
+         pairs.put(metric, new SampleStatistics());
+      }
+   }
+
+   /**
+    * Add the next replication (must be called in replication order).
+    */
+   public void add(ReplicationResult result)
+   {
+      for (Metric metric : Metric.values())
+         singles.get(metric).update(metric.of(result));
+
+      if (pending == null)
+      {
+         pending = result;
+         return;
+      }
+
+      EnumMap<Metric, Double> mean = new EnumMap<>(Metric.class);
+      for (Metric metric : Metric.values())
+      {
+         double value = (metric.of(pending) + metric.of(result)) / 2;
+         pairs.get(metric).update(value);
+         mean.put(metric, value);
+      }
+      pending = null;
+      onPair.accept(mean);
+   }
+
+   /**
+    * Var(pair mean) / (Var(single run) / 2): below 1 the pairs are 
+    * worth it, and it is about the fraction of the runs (and so the
+    * wall-clock time) plain replications would need for the same
+    * precision.
+    *
+    * @return : The variance ratio, or NaN if it cannot be estimated yet.
+    */
+   public double varianceRatio(Metric metric)
+   {
+      double single = singles.get(metric).getVariance();
+      if (pairs.get(metric).getObservations() < 2 || single == 0)
+         return Double.NaN;
+
+      return pairs.get(metric).getVariance() / (single / 2);
+   }
+
+   /**
+    * @return : The number of complete pairs so far.
+    */
+   public long getPairs()
+   {
+      return pairs.get(Metric.DAILY_OPERATING_COST).getObservations();
+   }
+
+   /**
+    * The variance reduction report, one line per metric.
+    *
+    * @param elapsedNanos : Wall-clock time of the campaign
+    */
+   public String report(long elapsedNanos)
+   {
+      double seconds = elapsedNanos / 1e9;
+      StringBuilder report = new StringBuilder();
+      report.append(String.format("%d antithetic pairs in %.2f s%n%n", getPairs(), seconds));
+      report.append(String.format("%-30s %12s %12s %22s%n", "", "VAR. RATIO", "REDUCTION", "PLAIN REPS, SAME C.I."));
+
+      for (Metric metric : Metric.values())
+      {
+         double ratio = varianceRatio(metric);
+
+         // Independent replications need 1 / ratio times as many runs.
+         report.append(String.format("%-30s %12.3f %11.1f%% %13.0f (%.2f s)%n", metric.getTitle(), ratio,
+               100 * (1 - ratio), 2 * getPairs() / ratio, seconds / ratio));
+      }
+      return report.toString();
+   }
+}
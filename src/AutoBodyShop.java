@@ -12,7 +12,6 @@
  * Last Edited: August 2021
  */
 
-import desmoj.core.dist.*;
 import desmoj.core.simulator.*;
 import desmoj.core.statistic.*;
 
@@ -21,48 +20,36 @@ public class AutoBodyShop extends Model
    /** 
     * State variables and constants 
     * Driver changes these to change behavior of system
+    * (each run reads them through a ShopConfig snapshot)
     */
    
    // Model constants and state variables.
    protected static int OPERATION_HOURS = 6;  
    protected static int STALL_COST = 100;
    protected static int LOSS_COST = 400;
-   protected static final double INTERARRIVAL_8_10 = 15.0 / 60;
-   protected static final double INTERARRIVAL_10_4 = 6.0 / 60;
-   protected static final double INTERARRIVAL_4_8 = 9.0 / 60;
    
    // Mechanic constants.
    protected static int    NUM_MECHANICS = 1; 
    protected static double MECHANIC_SALARY = 100;       
    protected static double MECHANIC_COMMISSION = 10;
-   protected static final double MECHANIC_FIX_TIME = 8.0 / 60;   
-   protected static final double MECHANIC_REFER_RATE = .4;
    
    // Specialist constants.
    protected static int NUM_SPECIALISTS = 1;
    protected static int NUM_STALLS = 1;
    protected static double SPECIALIST_SALARY = 300; 
    protected static double SPECIALIST_COMMISSION = 100;  
-   protected static final double SPECIALIST_FIX_TIME = 25.0 / 60;
 
   
-   /** Sources of randomness  */
-   protected ContDistExponential interarrivalTimes1; // 8-10
-   protected ContDistExponential interarrivalTimes2; // 10-4
-   protected ContDistExponential interarrivalTimes3; // 4-8
-   
-   protected ContDistExponential mechanicFixTimes;
-   protected ContDistExponential specialistFixTimes;
-  
-   protected BoolDistBernoulli   mechanicReferral;
-   protected DiscreteDistUniform balkDeterminer;
+   /** Sources of randomness (see ShopRules) */
+   protected ShopRules.Distributions distributions;
    
    /** Structures */
    protected ProcessQueue<Mechanic> idleMechanics;
    protected ProcessQueue<Specialist> idleSpecialists;
-   protected ProcessQueue<Customer> waitingForMechanic;
-   protected ProcessQueue<Customer> waitingForSpecialist;
-   protected ProcessQueue<Customer> inSystem;
+   protected CustomerQueue waitingForMechanic;
+   protected CustomerQueue waitingForSpecialist;
+   protected int inSystem;
+   protected ClosingTime closing;
    
    /** Trackers */
    protected Count totalCustomers;
@@ -70,18 +57,87 @@ public class AutoBodyShop extends Model
    protected Count totalLost;
    protected Count fullyFixed;   
    protected Count stallsInUse;
+   protected Count mechanicJobs;
+   protected Count specialistJobs;
    protected Tally responseTimes;
    protected Aggregate todaysCost;
    
+   /** Life cycles still running (waited on during teardown) */
+   protected final ProcessBarrier processes = new ProcessBarrier();
+   
+   /** Scheduling calls made during this run (see SimulationMetrics) */
+   protected final ReplicationCounters counters = new ReplicationCounters();
+   private long transitions;
+   
+   /** Settings this run of the shop was created with */
+   protected final ShopConfig config;
+   
+   /** Where this run gets its random numbers (null = experiment seed only) */
+   protected final RandomStreams streams;
+   
    /**
+    * Uses a snapshot of the current static settings.
+    * 
     * @param owner
     * @param name
     * @param showInReport
     * @param showInTrace
     */
    public AutoBodyShop(Model owner, String name, boolean showInReport, boolean showInTrace)
+   {
+      this(owner, name, showInReport, showInTrace, ShopConfig.snapshot());
+   }
+   
+   /**
+    * @param owner
+    * @param name
+    * @param showInReport
+    * @param showInTrace
+    * @param config : The (immutable) settings for this run
+    */
+   public AutoBodyShop(Model owner, String name, boolean showInReport, boolean showInTrace, ShopConfig config)
+   {
+      this(owner, name, showInReport, showInTrace, config, null);
+   }
+   
+   /**
+    * @param owner
+    * @param name
+    * @param showInReport
+    * @param showInTrace
+    * @param config : The (immutable) settings for this run
+    * @param streams : Where this run gets its random numbers
+    */
+   public AutoBodyShop(Model owner, String name, boolean showInReport, boolean showInTrace, 
+         ShopConfig config, RandomStreams streams)
    {
       super(owner, "Auto Body Shop", showInReport, showInTrace);
+      this.config = config;
+      this.streams = streams;
+   }
+   
+   /**
+    * Count an activate, passivate or hold, and record a sample 
+    * of them in Java Flight Recorder (see ProcessTransitionEvent).
+    */
+   protected void transition(ReplicationCounters.Entity entity, ReplicationCounters.Call call)
+   {
+      counters.count(entity, call);
+      if (!ProcessTransitionEvent.sampled(++transitions))
+         return;
+
+      ProcessTransitionEvent event = new ProcessTransitionEvent();
+      if (event.shouldCommit())
+      {
+         event.runNumber = streams == null ? 0 : streams.runNumber;
+         event.entity = entity.name();
+         event.call = call.name();
+         event.simulatedHours = presentTime().getTimeAsDouble();
+         event.waitingForMechanic = waitingForMechanic.length();
+         event.waitingForSpecialist = waitingForSpecialist.length();
+         event.sampleEvery = ProcessTransitionEvent.SAMPLE_EVERY;
+         event.commit();
+      }
    }
 
    @Override
@@ -100,42 +156,49 @@ public class AutoBodyShop extends Model
    public void doInitialSchedules() 
    {
       // Create all mechanics.
-      for (int i = 0; i < AutoBodyShop.NUM_MECHANICS; i++)
+      for (int i = 0; i < config.numMechanics; i++)
       {
          Mechanic mechanic = new Mechanic(
                this, "Mechanic", true, 
-               AutoBodyShop.MECHANIC_SALARY, 
-               AutoBodyShop.MECHANIC_COMMISSION,
-               AutoBodyShop.MECHANIC_FIX_TIME, 
-               AutoBodyShop.MECHANIC_REFER_RATE);
+               config.mechanicSalary, 
+               config.mechanicCommission,
+               ShopRules.MECHANIC_FIX_TIME, 
+               ShopRules.MECHANIC_REFER_RATE);
          
          this.idleMechanics.insert(mechanic);
          
          // Activate Life Cycle
+         transition(ReplicationCounters.Entity.MECHANIC, ReplicationCounters.Call.ACTIVATE);
          mechanic.activate();
       }
       
       // Create all specialists. 
-      for (int i = 0; i < AutoBodyShop.NUM_SPECIALISTS; i++)
+      for (int i = 0; i < config.numSpecialists; i++)
       {
          Specialist spec = new Specialist(
                this, "Specialist", true, 
-               AutoBodyShop.SPECIALIST_SALARY, 
-               AutoBodyShop.SPECIALIST_COMMISSION,
-               AutoBodyShop.SPECIALIST_FIX_TIME);
+               config.specialistSalary, 
+               config.specialistCommission,
+               ShopRules.SPECIALIST_FIX_TIME);
          
         this.idleSpecialists.insert(spec); 
         
          // Activate Life Cycle
+         transition(ReplicationCounters.Entity.SPECIALIST, ReplicationCounters.Call.ACTIVATE);
          spec.activate();
       }
      
+      // Close the shop at the end of the day (the run ends once it is empty).
+      closing = new ClosingTime(this, config.operationHours);
+      closing.schedule(new TimeSpan(config.operationHours));
+
       // Use generator to start arrivals.
       Generator gen = new Generator(this, "Generator", true);
+      transition(ReplicationCounters.Entity.GENERATOR, ReplicationCounters.Call.ACTIVATE);
       gen.activate();
       
       // Incur the cost of each specialist stall.
-      this.todaysCost.update(AutoBodyShop.NUM_STALLS * AutoBodyShop.STALL_COST);
+      this.todaysCost.update(config.numStalls * config.stallCost);
    }
 
    @Override
@@ -147,9 +210,9 @@ public class AutoBodyShop extends Model
       // Init Structures 
       idleMechanics = new ProcessQueue<>(this, "Idle Mechanic Queue", true, false);
       idleSpecialists = new ProcessQueue<>(this, "Idle Specialist Queue", true, false);      
-      waitingForMechanic = new ProcessQueue<>(this, "Mechanic Waiting Queue", true, false);
-      waitingForSpecialist = new ProcessQueue<>(this, "Specialist Waiting Queue", true, false);
-      inSystem = new ProcessQueue<>(this, "Total People in Shop", true, false);
+      waitingForMechanic = new CustomerQueue(this, "Mechanic Waiting Queue", true);
+      waitingForSpecialist = new CustomerQueue(this, "Specialist Waiting Queue", true);
+      inSystem = 0;
       
       // Init Trackers
       totalCustomers = new Count(this, "Total Customers", true, false);
@@ -157,25 +220,13 @@ public class AutoBodyShop extends Model
       totalLost = new Count(this, "Total Lost", true, false);
       fullyFixed = new Count(this, "Fully Fixed", true, false);
       stallsInUse = new Count(this, "Stalls in use", true, false);
+      mechanicJobs = new Count(this, "Mechanic Jobs", true, false);
+      specialistJobs = new Count(this, "Specialist Jobs", true, false);
 
       responseTimes = new Tally(this, "Response Times", true, false);
       todaysCost = new Aggregate(this, "Today's Cost", true, false); 
       
-      // Init sources of randomness
-      interarrivalTimes1 = new ContDistExponential(this, 
-            "8-10 Interarrival Times", AutoBodyShop.INTERARRIVAL_8_10, true, false);
-      interarrivalTimes2 = new ContDistExponential(this, 
-            "10-4 Interarrival Times", AutoBodyShop.INTERARRIVAL_10_4, true, false);
-      interarrivalTimes3 = new ContDistExponential(this, 
-            "4-8 Interarrival Times", AutoBodyShop.INTERARRIVAL_4_8, true, false);
-      mechanicFixTimes = new ContDistExponential(this,
-            "Mechanic Fix Times", AutoBodyShop.MECHANIC_FIX_TIME,
-            true, false);
-      specialistFixTimes = new ContDistExponential(this,
-            "Specialist Fix Times", AutoBodyShop.SPECIALIST_FIX_TIME,
-            true, false);
-      mechanicReferral = new BoolDistBernoulli(this, "Mechanic Referral",
-            AutoBodyShop.MECHANIC_REFER_RATE, true, false);
-      balkDeterminer = new DiscreteDistUniform(this, "Balk Determiner", 1, 8, true, false);
+      // Init sources of randomness (with the run's streams).
+      distributions = new ShopRules.Distributions(this, streams);
    }
-}
\ No newline at end of file
+}
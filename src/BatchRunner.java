@@ -0,0 +1,447 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class runs a replication campaign from the
+ *    command line, with no windows: the same settings the
+ *    Driver offers (plus the engine, workers and variance
+ *    reduction options), the same ReplicationCampaign the
+ *    ReplicationModel runs, and machine readable output.
+ *    Nothing it touches loads java.awt, so it runs on
+ *    headless machines without paying for AWT startup.
+ *
+ *       java BatchRunner --mechanics 3 --specialists 2 --replications 1000 --format json
+ *
+ *    With --steady-state the shop never closes: one long
+ *    run of the kernel is cut into batches of days and the
+ *    intervals come from the batch means (see
+ *    SteadyStateRun), with each metric's lag-1
+ *    autocorrelation as an extra column.
+ *
+ *    Run with --help for every option.  Exits with 0 if
+ *    every replication ran, 1 if one did not and 2 if the
+ *    arguments were not understood (or the checkpoint
+ *    could not be used).
+ *
+ * Last Edited: October 2026
+ */
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+public class BatchRunner
+{
+   private static final String USAGE = String.join("\n",
+         "usage: java BatchRunner [options]",
+         "",
+         "Shop settings (defaults are the Driver's):",
+         "  --hours N                   hours the shop is open",
+         "  --stall-cost N              cost per specialist stall",
+         "  --loss-cost N               cost of a lost or balked customer",
+         "  --mechanics N               number of mechanics",
+         "  --mechanic-salary X         salary per mechanic",
+         "  --mechanic-commission X     commission per mechanic job",
+         "  --specialists N             number of specialists",
+         "  --stalls N                  number of specialist stalls",
+         "  --specialist-salary X       salary per specialist",
+         "  --specialist-commission X   commission per specialist job",
+         "",
+         "Campaign:",
+         "  --seed N                    base seed (default " + ReplicationModel.SEED + ")",
+         "  --replications N            replications (the most, with --adaptive)",
+         "  --workers N                 threads to run replications on",
+         "  --processes N               run replications in N worker JVMs instead",
+         "  --engine NAME               PROCESS, EVENT, KERNEL, VIRTUAL_THREADS or PASSIVE_CUSTOMERS",
+         "  --adaptive X                stop once the intervals are within X of the mean",
+         "  --crn                       common random numbers",
+         "  --antithetic                antithetic pairs",
+         "  --cache                     reuse replications already in the result cache",
+         "  --no-cache                  always simulate (the default)",
+         "  --checkpoint FILE           keep a checkpoint of the finished replications in FILE",
+         "  --resume                    continue the campaign in the --checkpoint FILE",
+         "  --checkpoint-every N        sync the checkpoint every N replications (default "
+               + CampaignCheckpoint.DEFAULT_SYNC_EVERY + ")",
+         "  --checkpoint-seconds S      ... or every S seconds (default "
+               + CampaignCheckpoint.DEFAULT_SYNC_MILLIS / 1000 + ")",
+         "",
+         "Steady state (the shop never closes, always the KERNEL engine):",
+         "  --steady-state              batch means of one long run instead of replications",
+         "  --warmup-days N             days thrown away first (default " + SteadyStateRun.DEFAULT_WARMUP_DAYS + ")",
+         "  --batch-days N              days in each batch (default " + SteadyStateRun.DEFAULT_BATCH_DAYS + ")",
+         "  --batches N                 batches (default " + SteadyStateRun.DEFAULT_BATCHES + ")",
+         "",
+         "Output:",
+         "  --format csv|json           (default csv)",
+         "  --per-replication           also write every replication",
+         "  --output FILE               write to FILE instead of standard output",
+         "  --metrics                   print events/sec and timings to standard error");
+
+   public static void main(String[] args)
+   {
+      // Never let anything start up a display.
+      System.setProperty("java.awt.headless", "true");
+      System.exit(run(args));
+   }
+
+   /**
+    * @return : The exit code (0 ok, 1 failed replication, 2 bad arguments or checkpoint).
+    */
+   public static int run(String[] args)
+   {
+      ShopConfig defaults = ShopConfig.snapshot();
+      int hours = defaults.operationHours;
+      int stallCost = defaults.stallCost;
+      int lossCost = defaults.lossCost;
+      int mechanics = defaults.numMechanics;
+      double mechanicSalary = defaults.mechanicSalary;
+      double mechanicCommission = defaults.mechanicCommission;
+      int specialists = defaults.numSpecialists;
+      int stalls = defaults.numStalls;
+      double specialistSalary = defaults.specialistSalary;
+      double specialistCommission = defaults.specialistCommission;
+
+      int seed = ReplicationModel.SEED;
+      int replications = ReplicationModel.NUM_REPLICATIONS;
+      int workers = ReplicationModel.NUM_WORKERS;
+      int processes = ReplicationModel.WORKER_PROCESSES;
+      ReplicationModel.Engine engine = ReplicationModel.ENGINE;
+      double target = Double.NaN;
+      boolean common = false;
+      boolean antithetic = false;
+      boolean cached = false;
+      boolean json = false;
+      boolean perReplication = false;
+      boolean metrics = false;
+      String output = null;
+      String checkpoint = null;
+      boolean resume = false;
+      boolean steadyState = false;
+      int warmupDays = SteadyStateRun.DEFAULT_WARMUP_DAYS;
+      int batchDays = SteadyStateRun.DEFAULT_BATCH_DAYS;
+      int batches = SteadyStateRun.DEFAULT_BATCHES;
+      int checkpointEvery = CampaignCheckpoint.DEFAULT_SYNC_EVERY;
+      int checkpointSeconds = (int)(CampaignCheckpoint.DEFAULT_SYNC_MILLIS / 1000);
+
+      try
+      {
+         for (int i = 0; i < args.length; i++)
+         {
+            String option = args[i];
+            switch (option)
+            {
+               case "--help":
+                  System.out.println(USAGE);
+                  return 0;
+               case "--crn":
+                  common = true;
+                  continue;
+               case "--antithetic":
+                  antithetic = true;
+                  continue;
+               case "--cache":
+                  cached = true;
+                  continue;
+               case "--no-cache":
+                  cached = false;
+                  continue;
+               case "--per-replication":
+                  perReplication = true;
+                  continue;
+               case "--metrics":
+                  metrics = true;
+                  continue;
+               case "--resume":
+                  resume = true;
+                  continue;
+               case "--steady-state":
+                  steadyState = true;
+                  continue;
+               default:
+                  break;
+            }
+
+            // Everything else takes a value.
+            if (i + 1 == args.length)
+               throw new IllegalArgumentException(option + " needs a value");
+            String value = args[++i];
+
+            switch (option)
+            {
+               case "--hours":                   hours = Integer.parseInt(value); break;
+               case "--stall-cost":              stallCost = Integer.parseInt(value); break;
+               case "--loss-cost":               lossCost = Integer.parseInt(value); break;
+               case "--mechanics":               mechanics = Integer.parseInt(value); break;
+               case "--mechanic-salary":         mechanicSalary = Double.parseDouble(value); break;
+               case "--mechanic-commission":     mechanicCommission = Double.parseDouble(value); break;
+               case "--specialists":             specialists = Integer.parseInt(value); break;
+               case "--stalls":                  stalls = Integer.parseInt(value); break;
+               case "--specialist-salary":       specialistSalary = Double.parseDouble(value); break;
+               case "--specialist-commission":   specialistCommission = Double.parseDouble(value); break;
+               case "--seed":                    seed = Integer.parseInt(value); break;
+               case "--replications":            replications = Integer.parseInt(value); break;
+               case "--workers":                 workers = Integer.parseInt(value); break;
+               case "--processes":               processes = Integer.parseInt(value); break;
+               case "--engine":                  engine = ReplicationModel.Engine.valueOf(value.toUpperCase(Locale.ROOT)); break;
+               case "--adaptive":                target = Double.parseDouble(value); break;
+               case "--output":                  output = value; break;
+               case "--checkpoint":              checkpoint = value; break;
+               case "--checkpoint-every":        checkpointEvery = Integer.parseInt(value); break;
+               case "--checkpoint-seconds":      checkpointSeconds = Integer.parseInt(value); break;
+               case "--warmup-days":             warmupDays = Integer.parseInt(value); break;
+               case "--batch-days":              batchDays = Integer.parseInt(value); break;
+               case "--batches":                 batches = Integer.parseInt(value); break;
+               case "--format":
+                  if (!value.equals("csv") && !value.equals("json"))
+                     throw new IllegalArgumentException("unknown format " + value);
+                  json = value.equals("json");
+                  break;
+               default:
+                  throw new IllegalArgumentException("unknown option " + option);
+            }
+         }
+
+         if (hours < 1 || mechanics < 1 || specialists < 1 || stalls < 1 || replications < 1)
+            throw new IllegalArgumentException("hours, staff, stalls and replications must be at least 1");
+         if (resume && checkpoint == null)
+            throw new IllegalArgumentException("--resume needs a --checkpoint FILE");
+         if (warmupDays < 0 || batchDays < 1 || batches < 2)
+            throw new IllegalArgumentException("warm-up days must be at least 0, batch days 1 and batches 2");
+         if (steadyState && (antithetic || !Double.isNaN(target) || processes > 0 || checkpoint != null))
+            throw new IllegalArgumentException("--steady-state is one run: no --antithetic, --adaptive, "
+                  + "--processes or --checkpoint");
+         if (common && !steadyState && !engine.usesStreams())
+            throw new IllegalArgumentException("--crn needs an engine that uses the streams, not " + engine);
+         if (antithetic && !engine.usesStreams())
+            throw new IllegalArgumentException("--antithetic needs an engine that uses the streams, not " + engine);
+      }
+      catch (IllegalArgumentException e)
+      {
+         // (NumberFormatException is an IllegalArgumentException too.)
+         System.err.println("BatchRunner: " + e.getMessage());
+         System.err.println(USAGE);
+         return 2;
+      }
+
+      ShopConfig config = new ShopConfig(hours, stallCost, lossCost, mechanics, mechanicSalary,
+            mechanicCommission, specialists, stalls, specialistSalary, specialistCommission);
+
+      if (steadyState)
+         return runSteadyState(new SteadyStateRun(config, seed, warmupDays, batchDays, batches), common,
+                               json, perReplication, metrics, output);
+
+      ReplicationCampaign campaign = new ReplicationCampaign(config, engine, seed, replications, workers);
+      if (!Double.isNaN(target))
+         campaign.setAdaptive(target, ReplicationModel.TARGET_METRICS.clone(), ReplicationModel.ADAPTIVE_BATCH_SIZE);
+      campaign.setCommonRandomNumbers(common);
+      campaign.setAntithetic(antithetic);
+      campaign.setCache(cached ? ReplicationModel.resultCache() : null);
+      campaign.setWorkerProcesses(processes);
+
+      if (checkpoint != null)
+      {
+         try
+         {
+            campaign.setCheckpoint(CampaignCheckpoint.open(Paths.get(checkpoint), campaign, resume,
+                                                           checkpointEvery, checkpointSeconds * 1000L));
+         }
+         catch (IOException e)
+         {
+            System.err.println("BatchRunner: could not use checkpoint " + checkpoint + ": " + e.getMessage());
+            return 2;
+         }
+      }
+
+      return runCampaign(campaign, json, perReplication, metrics, output);
+   }
+
+   /**
+    * Run the campaign and write its results.
+    *
+    * @return : The exit code.
+    */
+   private static int runCampaign(ReplicationCampaign campaign, boolean json, boolean perReplication,
+         boolean metrics, String output)
+   {
+      List<ReplicationResult> results = new ArrayList<>();
+      boolean ok = campaign.run(perReplication ? results::add : result -> { }, observation -> { });
+
+      if (!write(output, out ->
+      {
+         if (json)
+            writeJson(out, campaign.getConfig(), ok, "replications", campaign.getReplicationsRun(), 
+                      campaign.getElapsedNanos(), campaign::get, null, results, perReplication);
+         else
+            writeCsv(out, campaign::get, null, results, perReplication);
+      }))
+         return 1;
+
+      if (metrics)
+         System.err.print(campaign.getMetrics());
+      if (!ok)
+         System.err.println("BatchRunner: a replication did not run correctly");
+      return ok ? 0 : 1;
+   }
+
+   /**
+    * Run the shop in steady state and write the batch means.
+    *
+    * @return : The exit code.
+    */
+   private static int runSteadyState(SteadyStateRun run, boolean common, boolean json,
+         boolean perReplication, boolean metrics, String output)
+   {
+      run.setCommonRandomNumbers(common);
+
+      List<ReplicationResult> batches = new ArrayList<>();
+      run.run(perReplication ? batches::add : batch -> { });
+
+      if (!write(output, out ->
+      {
+         if (json)
+            writeJson(out, run.getConfig(), true, "batches", run.getBatches(), run.getElapsedNanos(),
+                      run::get, run::lag1Autocorrelation, batches, perReplication);
+         else
+            writeCsv(out, run::get, run::lag1Autocorrelation, batches, perReplication);
+      }))
+         return 1;
+
+      if (metrics)
+         System.err.print(run.getMetrics());
+      return 0;
+   }
+
+   /**
+    * Write the results to the output file (or standard output).
+    *
+    * @return : False if they could not be written.
+    */
+   private static boolean write(String output, Consumer<PrintWriter> writer)
+   {
+      try (PrintWriter out = output == null
+            ? new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+            : new PrintWriter(new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8)))
+      {
+         writer.accept(out);
+         return true;
+      }
+      catch (IOException e)
+      {
+         System.err.println("BatchRunner: could not write " + output + ": " + e.getMessage());
+         return false;
+      }
+   }
+
+   /**
+    * One row per metric, then (optionally) a blank line and one row per replication.
+    *
+    * @param lag1 : Each metric's lag-1 autocorrelation (null = not a column)
+    */
+   private static void writeCsv(PrintWriter out, Function<Metric, SampleStatistics> statistics,
+         ToDoubleFunction<Metric> lag1, List<ReplicationResult> results, boolean perReplication)
+   {
+      out.println("metric,observations,mean,std_dev,min,max,confidence_level,lower,upper"
+            + (lag1 != null ? ",lag1_autocorrelation" : ""));
+      for (Metric metric : Metric.values())
+      {
+         SampleStatistics stats = statistics.apply(metric);
+         out.println(String.format(Locale.ROOT, "%s,%d,%s,%s,%s,%s,%s,%s,%s",
+               metric.name().toLowerCase(Locale.ROOT), stats.getObservations(), stats.getMean(),
+               stats.getStdDev(), stats.getMinimum(), stats.getMaximum(),
+               SampleStatistics.DEFAULT_CONFIDENCE_LEVEL, stats.getConfidenceIntervalOfMeanLowerBound(),
+               stats.getConfidenceIntervalOfMeanUpperBound())
+               + (lag1 != null ? "," + lag1.applyAsDouble(metric) : ""));
+      }
+
+      if (!perReplication)
+         return;
+
+      out.println();
+      out.println(replicationHeader());
+      for (ReplicationResult result : results)
+         out.println(replicationRow(result));
+   }
+
+   /**
+    * @param count : What was run ("replications" or "batches")
+    * @param lag1 : Each metric's lag-1 autocorrelation (null = not included)
+    */
+   private static void writeJson(PrintWriter out, ShopConfig c, boolean ok, String count, int runs,
+         long elapsedNanos, Function<Metric, SampleStatistics> statistics, ToDoubleFunction<Metric> lag1,
+         List<ReplicationResult> results, boolean perReplication)
+   {
+      out.println("{");
+      out.println(String.format(Locale.ROOT, "  \"config\": {\"hours\": %d, \"stallCost\": %d, \"lossCost\": %d, "
+            + "\"mechanics\": %d, \"mechanicSalary\": %s, \"mechanicCommission\": %s, \"specialists\": %d, "
+            + "\"stalls\": %d, \"specialistSalary\": %s, \"specialistCommission\": %s},",
+            c.operationHours, c.stallCost, c.lossCost, c.numMechanics, c.mechanicSalary, c.mechanicCommission,
+            c.numSpecialists, c.numStalls, c.specialistSalary, c.specialistCommission));
+      out.println(String.format(Locale.ROOT, "  \"ok\": %b, \"%s\": %d, \"elapsedSeconds\": %s,",
+            ok, count, runs, elapsedNanos / 1e9));
+      out.println("  \"metrics\": {");
+
+      Metric[] metrics = Metric.values();
+      for (int i = 0; i < metrics.length; i++)
+      {
+         SampleStatistics stats = statistics.apply(metrics[i]);
+         out.print(String.format(Locale.ROOT, "    \"%s\": {\"observations\": %d, \"mean\": %s, \"stdDev\": %s, "
+               + "\"min\": %s, \"max\": %s, \"confidenceLevel\": %s, \"lower\": %s, \"upper\": %s%s}",
+               metrics[i].name().toLowerCase(Locale.ROOT), stats.getObservations(), number(stats.getMean()),
+               number(stats.getStdDev()), number(stats.getMinimum()), number(stats.getMaximum()),
+               SampleStatistics.DEFAULT_CONFIDENCE_LEVEL, number(stats.getConfidenceIntervalOfMeanLowerBound()),
+               number(stats.getConfidenceIntervalOfMeanUpperBound()),
+               lag1 != null ? ", \"lag1Autocorrelation\": " + number(lag1.applyAsDouble(metrics[i])) : ""));
+         out.println(i + 1 < metrics.length ? "," : "");
+      }
+      out.print("  }");
+
+      if (perReplication)
+      {
+         out.println(",");
+         out.println("  \"perReplication\": [");
+         for (int i = 0; i < results.size(); i++)
+         {
+            ReplicationResult r = results.get(i);
+            out.print(String.format(Locale.ROOT, "    {\"run\": %d, \"cost\": %s, \"customers\": %d, \"balked\": %d, "
+                  + "\"lost\": %d, \"fullyFixed\": %d, \"responseTime\": %s, \"mechanicUtil\": %s, "
+                  + "\"specialistUtil\": %s, \"waiting\": %s, \"endTime\": %s}",
+                  r.runNumber, r.todaysCost, r.totalCustomers, r.totalBalked, r.totalLost, r.fullyFixed,
+                  number(r.responseTime), number(r.mechanicUtil), number(r.specUtil),
+                  number(r.avgCustomersWaiting), r.endTime));
+            out.println(i + 1 < results.size() ? "," : "");
+         }
+         out.print("  ]");
+      }
+      out.println();
+      out.println("}");
+   }
+
+   private static String replicationHeader()
+   {
+      return "run,cost,customers,balked,lost,fully_fixed,response_time,mechanic_util,specialist_util,waiting,end_time";
+   }
+
+   private static String replicationRow(ReplicationResult r)
+   {
+      return String.format(Locale.ROOT, "%d,%s,%d,%d,%d,%d,%s,%s,%s,%s,%s", r.runNumber, r.todaysCost,
+            r.totalCustomers, r.totalBalked, r.totalLost, r.fullyFixed, r.responseTime, r.mechanicUtil,
+            r.specUtil, r.avgCustomersWaiting, r.endTime);
+   }
+
+   /**
+    * JSON has no infinity or NaN (eg. a half-width from one observation).
+    */
+   private static String number(double value)
+   {
+      return Double.isFinite(value) ? Double.toString(value) : "null";
+   }
+}
@@ -0,0 +1,288 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class keeps a crash-safe record of a campaign's
+ *    finished replications, so a long campaign that dies
+ *    can be resumed instead of run again.  The file is
+ *    only ever appended to:
+ *
+ *       header : MAGIC, FORMAT, the campaign's settings, CRC
+ *       record : a ReplicationResult, CRC   (in replication order)
+ *
+ *    Records are buffered and written (then fsync'd) every
+ *    syncEvery replications or syncMillis, whichever comes
+ *    first, and when the campaign is over.  A crash loses
+ *    at most the records since the last sync; a record
+ *    that was only partly written fails its CRC and is cut
+ *    off when the file is resumed.
+ *
+ *    Replications depend only on the settings and their
+ *    replication number, so merging the stored results and
+ *    then running the rest gives exactly the same result as
+ *    a campaign that was never interrupted.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+public final class CampaignCheckpoint implements Closeable
+{
+   private static final int MAGIC = 0x41425343; // "ABSC"
+   private static final int FORMAT = 1;
+
+   /** Defaults for how often records are made durable */
+   public static final int DEFAULT_SYNC_EVERY = 1000;
+   public static final long DEFAULT_SYNC_MILLIS = 5000;
+
+   private final Path file;
+   private final FileChannel channel;
+   private final List<ReplicationResult> completed;
+   private final int syncEvery;
+   private final long syncNanos;
+
+   /** Records not written yet */
+   private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+   private final DataOutputStream pendingOut = new DataOutputStream(pending);
+
+   /** Writes a record into pending, adding only its bytes to the CRC */
+   private final CRC32 recordCrc = new CRC32();
+   private final DataOutputStream recordOut =
+         new DataOutputStream(new CheckedOutputStream(pending, recordCrc));
+   private int unsynced;
+   private long lastSync = System.nanoTime();
+
+   private CampaignCheckpoint(Path file, FileChannel channel, List<ReplicationResult> completed,
+         int syncEvery, long syncMillis)
+   {
+      this.file = file;
+      this.channel = channel;
+      this.completed = completed;
+      this.syncEvery = Math.max(1, syncEvery);
+      this.syncNanos = Math.max(0, syncMillis) * 1_000_000L;
+   }
+
+   /**
+    * Open the checkpoint of a campaign.
+    *
+    * @param file : Where the checkpoint is kept
+    * @param campaign : The campaign it is for (not run yet)
+    * @param resume : True to continue the checkpoint in the file (a new one
+    *                 is started if there is none), false to start over
+    * @param syncEvery : Most replications between syncs
+    * @param syncMillis : Most time between syncs
+    *
+    * @throws IOException : If the file cannot be used, or is a checkpoint
+    *                       of a campaign with other settings.
+    */
+   public static CampaignCheckpoint open(Path file, ReplicationCampaign campaign, boolean resume,
+         int syncEvery, long syncMillis) throws IOException
+   {
+      ByteArrayOutputStream settings = new ByteArrayOutputStream();
+      campaign.writeSettings(new DataOutputStream(settings));
+      byte[] header = header(settings.toByteArray());
+
+      if (resume && Files.exists(file) && Files.size(file) > 0)
+      {
+         FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+         try
+         {
+            List<ReplicationResult> completed = new ArrayList<>();
+            long end = read(channel, header, completed);
+
+            // Cut off a record that was only partly written, then append after the rest.
+            channel.truncate(end);
+            channel.position(end);
+            return new CampaignCheckpoint(file, channel, Collections.unmodifiableList(completed),
+                                          syncEvery, syncMillis);
+         }
+         catch (IOException | RuntimeException e)
+         {
+            channel.close();
+            throw e;
+         }
+      }
+
+      FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                             StandardOpenOption.TRUNCATE_EXISTING);
+      writeFully(channel, ByteBuffer.wrap(header));
+      channel.force(true);
+      syncDirectory(file);
+      return new CampaignCheckpoint(file, channel, Collections.emptyList(), syncEvery, syncMillis);
+   }
+
+   /**
+    * @return : The results stored when the checkpoint was opened (1, 2, ... in order).
+    */
+   public List<ReplicationResult> getCompleted()
+   {
+      return completed;
+   }
+
+   public Path getFile()
+   {
+      return file;
+   }
+
+   /**
+    * Add a replication (the next one in replication order).
+    */
+   public void append(ReplicationResult result) throws IOException
+   {
+      recordCrc.reset();
+      result.writeTo(recordOut);
+      recordOut.flush();
+      pendingOut.writeInt((int)recordCrc.getValue());
+
+      if (++unsynced >= syncEvery || System.nanoTime() - lastSync >= syncNanos)
+         sync();
+   }
+
+   /**
+    * Write every record so far and wait until it is on disk.
+    */
+   public void sync() throws IOException
+   {
+      if (pending.size() > 0)
+      {
+         writeFully(channel, ByteBuffer.wrap(pending.toByteArray()));
+         pending.reset();
+      }
+      channel.force(false);
+      unsynced = 0;
+      lastSync = System.nanoTime();
+   }
+
+   @Override
+   public void close() throws IOException
+   {
+      try
+      {
+         sync();
+      }
+      finally
+      {
+         channel.close();
+      }
+   }
+
+   /**
+    * @return : The header of a checkpoint for the given settings.
+    */
+   private static byte[] header(byte[] settings) throws IOException
+   {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT);
+      out.writeInt(settings.length);
+      out.write(settings);
+
+      CRC32 crc = new CRC32();
+      crc.update(bytes.toByteArray());
+      out.writeInt((int)crc.getValue());
+      return bytes.toByteArray();
+   }
+
+   /**
+    * Read the records of an existing checkpoint.
+    *
+    * @return : Where the last complete record ends.
+    */
+   private static long read(FileChannel channel, byte[] header, List<ReplicationResult> completed)
+         throws IOException
+   {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0))));
+
+      byte[] stored = new byte[header.length];
+      try
+      {
+         in.readFully(stored);
+      }
+      catch (EOFException e)
+      {
+         throw new IOException("not a checkpoint of this campaign (header is too short)");
+      }
+      if (!Arrays.equals(stored, header))
+         throw new IOException("not a checkpoint of this campaign (its settings are different)");
+
+      long end = header.length;
+      byte[] record = null;
+      while (true)
+      {
+         ReplicationResult result;
+         int storedCrc;
+         try
+         {
+            in.mark(1024);
+            result = ReplicationResult.readFrom(in);
+            storedCrc = in.readInt();
+         }
+         catch (EOFException e)
+         {
+            return end;
+         }
+
+         // Check the record (and that it is the next replication).
+         if (record == null)
+         {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            result.writeTo(new DataOutputStream(bytes));
+            record = new byte[bytes.size()];
+         }
+         in.reset();
+         in.readFully(record);
+         in.readInt();
+
+         CRC32 crc = new CRC32();
+         crc.update(record);
+         if ((int)crc.getValue() != storedCrc || result.runNumber != completed.size() + 1)
+            return end;
+
+         completed.add(result);
+         end += record.length + Integer.BYTES;
+      }
+   }
+
+   private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException
+   {
+      while (buffer.hasRemaining())
+         channel.write(buffer);
+   }
+
+   /**
+    * Make sure a new file's directory entry is on disk too
+    * (not possible on every platform, so best effort).
+    */
+   private static void syncDirectory(Path file)
+   {
+      Path directory = file.toAbsolutePath().getParent();
+      try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ))
+      {
+         dir.force(true);
+      }
+      catch (IOException | RuntimeException e)
+      {
+         // The file itself was synced.
+      }
+   }
+}
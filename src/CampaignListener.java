@@ -0,0 +1,31 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    Receives the progress of the ReplicationModel's
+ *    campaign (eg. the ProgressWindow).  Every method is
+ *    called on the thread running the campaign, so the
+ *    campaign's statistics can be read safely from them.
+ *
+ * Last Edited: October 2026
+ */
+
+public interface CampaignListener
+{
+   /**
+    * The campaign is about to run (keep it to cancel it).
+    */
+   void started(ReplicationCampaign campaign);
+
+   /**
+    * An observation was added to the campaign's statistics.
+    */
+   void observed(ReplicationCampaign campaign);
+
+   /**
+    * The campaign is over (finished, failed or cancelled).
+    *
+    * @param ok : False if a replication did not run correctly
+    */
+   void finished(ReplicationCampaign campaign, boolean ok);
+}
@@ -0,0 +1,34 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class models a customer's car as a
+ *    passive entity.  It is used by the event
+ *    oriented version of the Auto Body Shop, where
+ *    the events (not the car) drive what happens.
+ *
+ * Last Edited: October 2026
+ */
+
+import desmoj.core.simulator.*;
+
+public class Car extends Entity
+{
+   protected double arrivalTime;
+   protected boolean finished;
+
+   // The whole job, drawn on arrival (only with common random numbers).
+   protected ShopRules.Job job;
+
+   /**
+    * @param owner
+    * @param name
+    * @param showInTrace
+    * @param arrivalTime
+    */
+   public Car(Model owner, String name, boolean showInTrace, double arrivalTime)
+   {
+      super(owner, name, showInTrace);
+      this.arrivalTime = arrivalTime;
+   }
+}
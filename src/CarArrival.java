@@ -0,0 +1,85 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This event models the arrival of a new car at
+ *    the event oriented Auto Body Shop.  It takes the
+ *    place of both the Generator (it schedules the next
+ *    arrival) and the start of a Customer's life cycle
+ *    (the balk check).
+ *
+ * Last Edited: October 2026
+ */
+
+import desmoj.core.simulator.*;
+
+public class CarArrival extends ExternalEvent
+{
+   /**
+    * @param owner
+    * @param name
+    * @param showInTrace
+    */
+   public CarArrival(Model owner, String name, boolean showInTrace)
+   {
+      super(owner, name, showInTrace);
+   }
+
+   @Override
+   /**
+    * A car pulls into the shop:
+    *   1. May or may not balk (depending on the number of cars currently there)
+    *   2. Otherwise waits for (or starts with) one of the mechanics
+    *   3. The next arrival is scheduled while the shop is open
+    */
+   public void eventRoutine()
+   {
+      EventAutoBodyShop abs = (EventAutoBodyShop)getModel();
+      abs.counters.event();
+      double present = abs.presentTime().getTimeAsDouble();
+
+      // A car that shows up after closing to an empty shop never
+      // gets in (the run ends before it is served).
+      if (abs.closing.endIfEmpty(abs.inSystem))
+         return;
+
+      // Initializations and stat updates.
+      Car car = new Car(abs, "New Car", true, present);
+      car.job = abs.distributions.drawJob();
+      abs.totalCustomers.update(); // += 1
+      abs.inSystem++;
+
+      // Place the car into the mechanic's queue.
+      abs.waitingForMechanic.insert(car);
+
+      // There is a mechanic available.
+      if (abs.idleMechanics > 0)
+      {
+         abs.startMechanic();
+      }
+      // There is not a mechanic available.
+      else
+      {
+         // Determine if the customer will balk
+         // (subtract 1 so the customer doesn't count themself).
+         int k = abs.waitingForMechanic.length() - 1;
+         long balk = abs.distributions.balkDraw(car.job);
+
+         // Customer leaves to the other shop.
+         if (ShopRules.balks(balk, k))
+         {
+            car.finished = true;
+            abs.waitingForMechanic.remove(car);
+            abs.inSystem--;
+
+            // Update stats
+            abs.totalBalked.update(); // += 1
+            abs.todaysCost.update(abs.config.lossCost);
+         }
+      }
+
+      // Keep generating arrivals for the time the shop is open.
+      if (present < abs.config.operationHours)
+         abs.scheduleNextArrival();
+   }
+}
@@ -0,0 +1,72 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This event closes the shop for the day in the DESMO-J
+ *    models, in place of a stopping condition that was
+ *    checked after every event.  At closing time the shop
+ *    starts draining; from then on the run ends as soon as
+ *    the last car leaves, or as soon as a car turns up at
+ *    an empty shop (it never gets in).  The models call
+ *    endIfEmpty() at those points only, so the run stops
+ *    at the same time it always has.
+ *
+ *    Ending the run here is off unless
+ *    ReplicationModel.CLOSING_TIME_EVENT is set; until then
+ *    the experiment's stopping condition ends it, and
+ *    endIfEmpty() only says when the day is over.
+ *
+ * Last Edited: October 2026
+ */
+
+import desmoj.core.simulator.*;
+
+public class ClosingTime extends ExternalEvent
+{
+   private final double closingTime;
+   private boolean draining;
+   private final boolean endsRun = ReplicationModel.CLOSING_TIME_EVENT;
+
+   /**
+    * @param owner
+    * @param closingTime : When the shop stops taking new cars
+    */
+   public ClosingTime(Model owner, double closingTime)
+   {
+      super(owner, "Closing Time", true);
+      this.closingTime = closingTime;
+   }
+
+   @Override
+   /**
+    * The shop closes: wait for the cars still in it to leave.
+    */
+   public void eventRoutine()
+   {
+      draining = true;
+   }
+
+   public boolean isDraining()
+   {
+      return draining;
+   }
+
+   /**
+    * Call after a car leaves and when a car pulls in.  Ends the
+    * run if the shop has closed and there is nobody left in it
+    * (with the CLOSING_TIME_EVENT).
+    *
+    * @param carsInShop : Cars still in the shop
+    *
+    * @return : True if the day is over.
+    */
+   public boolean endIfEmpty(int carsInShop)
+   {
+      if (!draining || !ShopRules.dayIsOver(presentTime().getTimeAsDouble(), closingTime, carsInShop))
+         return false;
+
+      if (endsRun)
+         getModel().getExperiment().stop();
+      return true;
+   }
+}
@@ -0,0 +1,158 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class draws the running mean of every Metric,
+ *    with its 95% confidence band, against the number of
+ *    observations so far: one small chart per metric.
+ *    Points are added from the thread running the
+ *    campaign and drawn on the Event Dispatch Thread, so
+ *    the series are only touched while holding the lock.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import javax.swing.*;
+
+public class ConvergenceChart extends JPanel
+{
+   private static final long serialVersionUID = 1L;
+
+   private static final int COLUMNS = 3;
+   private static final int MARGIN = 8;
+   private static final Color BAND = new Color(170, 200, 235);
+   private static final Color MEAN = new Color(20, 60, 140);
+
+   /** Per metric: {observations, mean, lower, upper} */
+   private final EnumMap<Metric, List<double[]>> series = new EnumMap<>(Metric.class);
+
+   public ConvergenceChart()
+   {
+      for (Metric metric : Metric.values())
+         series.put(metric, new ArrayList<>());
+
+      setPreferredSize(new Dimension(1000, 520));
+      setBackground(Color.WHITE);
+   }
+
+   /**
+    * Add a point to each metric's series (any thread).
+    *
+    * @param campaign : Where to read the current means and intervals
+    */
+   public void addPoint(ReplicationCampaign campaign)
+   {
+      synchronized (series)
+      {
+         for (Metric metric : Metric.values())
+         {
+            SampleStatistics stats = campaign.get(metric);
+            double halfWidth = stats.getHalfWidth();
+
+            // There is no interval until there are 2 observations.
+            if (Double.isInfinite(halfWidth))
+               continue;
+
+            series.get(metric).add(new double[]{ stats.getObservations(), stats.getMean(),
+                                                 stats.getMean() - halfWidth, stats.getMean() + halfWidth });
+         }
+      }
+   }
+
+   @Override
+   protected void paintComponent(Graphics g)
+   {
+      super.paintComponent(g);
+      Graphics2D g2 = (Graphics2D)g;
+      g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+      Metric[] metrics = Metric.values();
+      int rows = (metrics.length + COLUMNS - 1) / COLUMNS;
+      int width = getWidth() / COLUMNS;
+      int height = getHeight() / rows;
+
+      for (int i = 0; i < metrics.length; i++)
+      {
+         double[][] points;
+         synchronized (series)
+         {
+            points = series.get(metrics[i]).toArray(new double[0][]);
+         }
+         drawChart(g2, metrics[i].getTitle(), points, (i % COLUMNS) * width, (i / COLUMNS) * height,
+                   width, height);
+      }
+   }
+
+   /**
+    * Draw a single metric's chart in the given cell.
+    */
+   private void drawChart(Graphics2D g, String title, double[][] points, int x, int y, int width, int height)
+   {
+      FontMetrics font = g.getFontMetrics();
+      int left = x + MARGIN;
+      int top = y + MARGIN + font.getHeight();
+      int plotWidth = width - 2 * MARGIN;
+      int plotHeight = height - 2 * MARGIN - 2 * font.getHeight();
+
+      g.setColor(Color.BLACK);
+      g.drawString(title, left, y + MARGIN + font.getAscent());
+      g.setColor(Color.LIGHT_GRAY);
+      g.drawRect(left, top, plotWidth, plotHeight);
+
+      if (points.length == 0)
+         return;
+
+      // The first few intervals are very wide, so the scale
+      // is set by the last 80% of the observations.
+      double[] last = points[points.length - 1];
+      double maxX = Math.max(2, last[0]);
+      double minY = Double.POSITIVE_INFINITY;
+      double maxY = Double.NEGATIVE_INFINITY;
+      for (double[] point : points)
+      {
+         if (point[0] < maxX / 5 && point != last)
+            continue;
+         minY = Math.min(minY, point[2]);
+         maxY = Math.max(maxY, point[3]);
+      }
+      if (maxY - minY < 1e-9)
+      {
+         minY -= 1;
+         maxY += 1;
+      }
+
+      int[] xs = new int[points.length * 2];
+      int[] ys = new int[points.length * 2];
+      int[] meanYs = new int[points.length];
+      for (int i = 0; i < points.length; i++)
+      {
+         int px = left + (int)Math.round((points[i][0] - 1) / (maxX - 1) * plotWidth);
+         xs[i] = px;
+         ys[i] = scale(points[i][3], minY, maxY, top, plotHeight);
+         xs[xs.length - 1 - i] = px;
+         ys[ys.length - 1 - i] = scale(points[i][2], minY, maxY, top, plotHeight);
+         meanYs[i] = scale(points[i][1], minY, maxY, top, plotHeight);
+      }
+
+      Shape clip = g.getClip();
+      g.clipRect(left, top, plotWidth + 1, plotHeight + 1);
+      g.setColor(BAND);
+      g.fillPolygon(xs, ys, xs.length);
+      g.setColor(MEAN);
+      g.drawPolyline(xs, meanYs, points.length);
+      g.setClip(clip);
+
+      g.setColor(Color.BLACK);
+      g.drawString(String.format("n = %.0f   %.3f +/- %.3f", last[0], last[1], (last[3] - last[2]) / 2),
+                   left, top + plotHeight + font.getAscent() + 2);
+   }
+
+   private static int scale(double value, double min, double max, int top, int height)
+   {
+      return top + (int)Math.round((max - value) / (max - min) * height);
+   }
+}
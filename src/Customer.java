@@ -16,6 +16,14 @@ public class Customer extends SimProcess
 {
    protected double arrivalTime;
    protected boolean finished;
+   
+   // The whole job, drawn on arrival (only with common random numbers).
+   protected ShopRules.Job job;
+   
+   // The line the car is in and the cars either side of it (see CustomerQueue).
+   protected CustomerQueue line;
+   protected Customer      ahead;
+   protected Customer      behind;
 
    /**
     * @param owner
@@ -42,102 +50,119 @@ public class Customer extends SimProcess
     */
    public void lifeCycle() throws SuspendExecution
    {
-      // Loop will run max of 1 time (Used for break functionality).
-      while (this.finished == false)
+      AutoBodyShop abs = (AutoBodyShop)getModel();
+      abs.processes.started();
+      
+      try
       {
-         // Initializations and stat updates.
-         AutoBodyShop abs = (AutoBodyShop)getModel();
-         abs.totalCustomers.update(); // += 1
-         abs.inSystem.insert(this);
+         // Loop will run max of 1 time (Used for break functionality).
+         while (this.finished == false)
+         {
+            // Initializations and stat updates.
+            abs.totalCustomers.update(); // += 1
+            abs.inSystem++;
          
-         // ~~~~~~~~~~~~ Mechanic Logic ~~~~~~~~~~~~
+            // ~~~~~~~~~~~~ Mechanic Logic ~~~~~~~~~~~~
          
-         // Place the customer into the mechanic's queue.
-         abs.waitingForMechanic.insert(this);
+            // Place the customer into the mechanic's queue.
+            abs.waitingForMechanic.insert(this);
                  
-         // There is a mechanic available.
-         if (!abs.idleMechanics.isEmpty())
-         {
-            // Get mechanic and activate.
-            Mechanic mechanic = abs.idleMechanics.removeFirst();
-            mechanic.activate();
-         }
-         // There is not a mechanic available.
-         else
-         {
-            // Determine if the customer will balk 
-            // (subtract 1 so the customer doesn't count themself).
-            double k = abs.waitingForMechanic.length() - 1;
-            long balk = abs.balkDeterminer.sample();
-                        
-            // Customer leaves to the other shop.
-            if (balk <= k)
+            // There is a mechanic available.
+            if (!abs.idleMechanics.isEmpty())
             {
-               // Set to finished and remove from queue.
-               this.finished = true;
-               abs.waitingForMechanic.remove(this);
+               // Get mechanic and activate.
+               Mechanic mechanic = abs.idleMechanics.removeFirst();
+               abs.transition(ReplicationCounters.Entity.MECHANIC, ReplicationCounters.Call.ACTIVATE);
+               mechanic.activate();
+            }
+            // There is not a mechanic available.
+            else
+            {
+               // Determine if the customer will balk 
+               // (subtract 1 so the customer doesn't count themself).
+               int k = abs.waitingForMechanic.length() - 1;
+               long balk = abs.distributions.balkDraw(this.job);
+                        
+               // Customer leaves to the other shop.
+               if (ShopRules.balks(balk, k))
+               {
+                  // Set to finished and remove from queue.
+                  this.finished = true;
+                  abs.waitingForMechanic.remove(this);
                               
-               // Update stats 
-               abs.totalBalked.update(); // += 1
-               abs.todaysCost.update(AutoBodyShop.LOSS_COST);
+                  // Update stats 
+                  abs.totalBalked.update(); // += 1
+                  abs.todaysCost.update(abs.config.lossCost);
+               }
+               // Else: customer doesn't balk. 
             }
-            // Else: customer doesn't balk. 
-         }
          
-         // If the customer balked break from the loop.
-         if (this.finished)
-         {
-            abs.inSystem.remove(this);
-            break;
-         }
+            // If the customer balked break from the loop.
+            if (this.finished)
+            {
+               abs.inSystem--;
+               abs.closing.endIfEmpty(abs.inSystem);
+               break;
+            }
          
-         this.passivate();
+            abs.transition(ReplicationCounters.Entity.CUSTOMER, ReplicationCounters.Call.PASSIVATE);
+            this.passivate();
          
-         // If customer finished their service when with mechanic -> break.
-         if (this.finished)
-         {
-            abs.inSystem.remove(this);
-            break;
-         }
+            // If customer finished their service when with mechanic -> break.
+            if (this.finished)
+            {
+               abs.inSystem--;
+               abs.closing.endIfEmpty(abs.inSystem);
+               break;
+            }
          
-         // ~~~~~~~~~~~~ Specialist Logic ~~~~~~~~~~~~
+            // ~~~~~~~~~~~~ Specialist Logic ~~~~~~~~~~~~
          
-         // All of the stalls are full.
-         if (abs.stallsInUse.getValue() >= AutoBodyShop.NUM_STALLS)  
-         {
-            this.finished = true;
-            abs.waitingForSpecialist.remove(this);
+            // All of the stalls are full.
+            if (abs.stallsInUse.getValue() >= abs.config.numStalls)  
+            {
+               this.finished = true;
+               abs.waitingForSpecialist.remove(this);
                         
-            // Update stats 
-            abs.totalLost.update(); // += 1
-            abs.todaysCost.update(AutoBodyShop.LOSS_COST);
-         }
-         // At least 1 available stall.
-         else
-         {
-            // Add car to queue (it will occupy a stall).
-            abs.stallsInUse.update(); // += 1
-           
-            // There is a specialist available.
-            if (!abs.idleSpecialists.isEmpty())
+               // Update stats 
+               abs.totalLost.update(); // += 1
+               abs.todaysCost.update(abs.config.lossCost);
+            }
+            // At least 1 available stall.
+            else
             {
-               // Get specialist and activate.
-               Specialist specialist = abs.idleSpecialists.removeFirst();
-               specialist.activate();
+               // Add car to queue (it will occupy a stall).
+               abs.stallsInUse.update(); // += 1
+           
+               // There is a specialist available.
+               if (!abs.idleSpecialists.isEmpty())
+               {
+                  // Get specialist and activate.
+                  Specialist specialist = abs.idleSpecialists.removeFirst();
+                  abs.transition(ReplicationCounters.Entity.SPECIALIST, ReplicationCounters.Call.ACTIVATE);
+                  specialist.activate();
+               }
             }
-         }
          
-         // If all stalls were taken, break from the loop.
-         if (this.finished)
-         {
-            abs.inSystem.remove(this);
-            break;
-         }
+            // If all stalls were taken, break from the loop.
+            if (this.finished)
+            {
+               abs.inSystem--;
+               abs.closing.endIfEmpty(abs.inSystem);
+               break;
+            }
          
-         this.passivate();
+            abs.transition(ReplicationCounters.Entity.CUSTOMER, ReplicationCounters.Call.PASSIVATE);
+            this.passivate();
          
-         // ~~~~~~~ Fully Treated at this Auto Body Shop ~~~~~~~
-         // ~~~~~~~ Stats updated in specialist class ~~~~~~~   
-      }      
+            // ~~~~~~~ Fully Treated at this Auto Body Shop ~~~~~~~
+            // ~~~~~~~ Stats updated in specialist class ~~~~~~~   
+         }      
+      }
+      finally
+      {
+         // Let the replication know this process has terminated.
+         abs.processes.terminated();
+      }
    }
 }
@@ -0,0 +1,156 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class is a first-in first-out line of Customers
+ *    for the AutoBodyShop.  By default it is kept in a
+ *    DESMO-J ProcessQueue, as it always has been.
+ *
+ *    With ReplicationModel.INTRUSIVE_WAITING_LINES the
+ *    links are kept in the Customers themselves instead (a
+ *    car is only ever in one line at a time), so a customer
+ *    who balks or is turned away is taken out of the middle
+ *    of the line in O(1) instead of by a search.  The length
+ *    is then kept in an Accumulate under the line's name, so
+ *    the report and the results still have its time-weighted
+ *    average and maximum length.  It stays off until
+ *    CustomerQueueTest has passed against DESMO-J.
+ *
+ * Last Edited: October 2026
+ */
+
+import desmoj.core.simulator.*;
+import desmoj.core.statistic.*;
+
+public class CustomerQueue
+{
+   /** The line, unless it is intrusive (then null) */
+   private final ProcessQueue<Customer> queue;
+
+   /** The intrusive line and its lengths (lengths is null unless it is intrusive) */
+   private Customer first;
+   private Customer last;
+   private int      length;
+   private final Accumulate lengths;
+
+   /**
+    * @param owner
+    * @param name
+    * @param showInReport
+    */
+   public CustomerQueue(Model owner, String name, boolean showInReport)
+   {
+      if (ReplicationModel.INTRUSIVE_WAITING_LINES)
+      {
+         this.queue = null;
+         this.lengths = new Accumulate(owner, name, showInReport, false);
+      }
+      else
+      {
+         this.queue = new ProcessQueue<>(owner, name, showInReport, false);
+         this.lengths = null;
+      }
+   }
+
+   public boolean isEmpty()
+   {
+      return queue != null ? queue.isEmpty() : length == 0;
+   }
+
+   public int length()
+   {
+      return queue != null ? queue.length() : length;
+   }
+
+   /**
+    * @return : True if the customer is in this line.
+    */
+   public boolean contains(Customer customer)
+   {
+      return queue != null ? queue.contains(customer) : customer.line == this;
+   }
+
+   /**
+    * Add a customer to the back of the line.
+    */
+   public void insert(Customer customer)
+   {
+      if (queue != null)
+      {
+         queue.insert(customer);
+         return;
+      }
+
+      customer.line = this;
+      customer.ahead = last;
+      customer.behind = null;
+      if (last == null)
+         first = customer;
+      else
+         last.behind = customer;
+      last = customer;
+
+      length++;
+      lengths.update(length);
+   }
+
+   /**
+    * Remove and return the customer at the front of the line.
+    */
+   public Customer removeFirst()
+   {
+      if (queue != null)
+         return queue.removeFirst();
+
+      Customer customer = first;
+      remove(customer);
+      return customer;
+   }
+
+   /**
+    * Take a customer out of the line, wherever they are in it.
+    *
+    * @return : False if they were not in the line (eg. already taken).
+    */
+   public boolean remove(Customer customer)
+   {
+      if (queue != null)
+         return queue.remove(customer);
+
+      if (customer == null || customer.line != this)
+         return false;
+
+      if (customer.ahead == null)
+         first = customer.behind;
+      else
+         customer.ahead.behind = customer.behind;
+      if (customer.behind == null)
+         last = customer.ahead;
+      else
+         customer.behind.ahead = customer.ahead;
+
+      customer.line = null;
+      customer.ahead = null;
+      customer.behind = null;
+
+      length--;
+      lengths.update(length);
+      return true;
+   }
+
+   /**
+    * @return : The time-weighted average length of the line.
+    */
+   public double averageLength()
+   {
+      return queue != null ? queue.averageLength() : lengths.getMean();
+   }
+
+   /**
+    * @return : The longest the line has been.
+    */
+   public int maxLength()
+   {
+      return queue != null ? queue.maxLength() : (int)lengths.getMaximum();
+   }
+}
@@ -1,4 +1,3 @@
-package Simulation;
 /**
  * @author: Riley Radle
  * 
@@ -13,6 +12,7 @@ package Simulation;
 
 import java.awt.*;
 import java.awt.event.*;
+import java.util.concurrent.ExecutionException;
 import javax.swing.*;
 
 public class Driver implements ActionListener
@@ -28,6 +28,9 @@ public class Driver implements ActionListener
    private JButton runSimulation;
    private JPanel container;
    private JCheckBox outputPerRep;
+   private JCheckBox adaptiveReps;
+   private JCheckBox antitheticReps;
+   private JCheckBox cacheResults;
    private JTextField seed;
 
    /** For Running the Simulation */
@@ -74,7 +77,7 @@ public class Driver implements ActionListener
       addDropdowns();
       
       JPanel seedAndOutput = new JPanel();
-      seedAndOutput.setLayout(new GridLayout(3, 1));
+      seedAndOutput.setLayout(new GridLayout(5, 1));
       
       // Add a textfield for the seed
       seed = new JTextField();
@@ -86,6 +89,24 @@ public class Driver implements ActionListener
       outputPerRep = new JCheckBox("Output Per Rep");
       outputPerRep.addActionListener(this);
       seedAndOutput.add(outputPerRep);
+      
+      // Add checkbox for stopping once the results are precise
+      adaptiveReps = new JCheckBox("Stop When Precise");
+      adaptiveReps.setToolTipText("Stop once the confidence intervals are within " 
+                                 + (int)(ReplicationModel.TARGET_RELATIVE_HALF_WIDTH * 100) 
+                                 + "% of the mean (at most the selected replications)");
+      seedAndOutput.add(adaptiveReps);
+      
+      // Add checkbox for running the replications in antithetic pairs
+      antitheticReps = new JCheckBox("Antithetic Pairs");
+      antitheticReps.setToolTipText("Every second replication uses 1-U for each random number U");
+      seedAndOutput.add(antitheticReps);
+      
+      // Add checkbox for reusing replications that were already run
+      cacheResults = new JCheckBox("Reuse Past Runs");
+      cacheResults.setToolTipText("Take replications already run with these hours, staff and seed "
+                                 + "from the result cache (only the prices are worked out again)");
+      seedAndOutput.add(cacheResults);
       container.add(seedAndOutput);
       
       // Create and add a button for running the simulation.
@@ -113,6 +134,9 @@ public class Driver implements ActionListener
       if (e.getSource() == runSimulation)
       {
          ReplicationModel.INCLUDE_OUTPUT_PER_REPLICATION = outputPerRep.isSelected();
+         ReplicationModel.ADAPTIVE_REPLICATIONS = adaptiveReps.isSelected();
+         ReplicationModel.ANTITHETIC_REPLICATIONS = antitheticReps.isSelected();
+         ReplicationModel.CACHE_RESULTS = cacheResults.isSelected();
          
          // Set the seed and replication numbers making sure they are integers.
          boolean areIntegers = true;
@@ -130,7 +154,7 @@ public class Driver implements ActionListener
          
          // If the numbers are integers, then run the simulation.
          if (areIntegers)
-            simulation.runFullSimulation();
+            runInBackground();
       }
       // One of the drop boxes was updated
       else if (e.getSource() == operationHours)
@@ -155,6 +179,53 @@ public class Driver implements ActionListener
          AutoBodyShop.SPECIALIST_SALARY = (double)specialistSalary.getSelectedItem();
    }
    
+   /**
+    * Run the simulation off the Event Dispatch Thread, so the
+    * window stays responsive, while a ProgressWindow shows how
+    * far along it is (and can cancel it).
+    */
+   private void runInBackground()
+   {
+      // Only one campaign at a time.
+      runSimulation.setEnabled(false);
+      
+      ProgressWindow progress = new ProgressWindow();
+      progress.show();
+      
+      new SwingWorker<Void, Void>()
+      {
+         @Override
+         protected Void doInBackground()
+         {
+            simulation.runFullSimulation(progress);
+            return null;
+         }
+         
+         @Override
+         protected void done()
+         {
+            runSimulation.setEnabled(true);
+            
+            // A campaign that threw never finished, so its window would 
+            // sit there forever: close it and tell the user instead.
+            try
+            {
+               get();
+            }
+            catch (ExecutionException exception)
+            {
+               System.err.println("Simulation failed: " + exception.getCause());
+               progress.close();
+               ResultsWindow.showError();
+            }
+            catch (InterruptedException exception)
+            {
+               progress.close();
+            }
+         }
+      }.execute();
+   }
+   
    /** Methods for adding dropdowns and menu bars to the JFrame */
    
    @SuppressWarnings("unchecked")
@@ -0,0 +1,229 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class models the same Auto Body Shop as
+ *    AutoBodyShop, but from an event oriented
+ *    perspective.  Mechanics and specialists are just
+ *    counts and cars are passive entities, so no
+ *    process (and no thread) is created per customer.
+ *    The events are CarArrival, MechanicFinished
+ *    and SpecialistFinished.
+ *
+ * Last Edited: October 2026
+ */
+
+import desmoj.core.simulator.*;
+import desmoj.core.statistic.*;
+
+public class EventAutoBodyShop extends Model
+{
+   /** Settings this run of the shop was created with */
+   protected final ShopConfig config;
+
+   /** Where this run gets its random numbers (null = experiment seed only) */
+   protected final RandomStreams streams;
+
+   /** Sources of randomness (see ShopRules) */
+   protected ShopRules.Distributions distributions;
+
+   /** Structures */
+   protected Queue<Car> waitingForMechanic;
+   protected Queue<Car> waitingForSpecialist;
+   protected int idleMechanics;
+   protected int idleSpecialists;
+   protected int stallsInUse;
+   protected int inSystem;
+   protected ClosingTime closing;
+
+   /** Trackers */
+   protected Count totalCustomers;
+   protected Count totalBalked;
+   protected Count totalLost;
+   protected Count fullyFixed;
+   protected Count mechanicJobs;
+   protected Count specialistJobs;
+   protected Tally responseTimes;
+   protected Aggregate todaysCost;
+   protected Accumulate idleMechanicCount;
+   protected Accumulate idleSpecialistCount;
+
+   /** Events run during this run (see SimulationMetrics) */
+   protected final ReplicationCounters counters = new ReplicationCounters();
+
+   /**
+    * @param owner
+    * @param name
+    * @param showInReport
+    * @param showInTrace
+    * @param config : The (immutable) settings for this run
+    * @param streams : Where this run gets its random numbers
+    */
+   public EventAutoBodyShop(Model owner, String name, boolean showInReport, boolean showInTrace,
+         ShopConfig config, RandomStreams streams)
+   {
+      super(owner, "Auto Body Shop", showInReport, showInTrace);
+      this.config = config;
+      this.streams = streams;
+   }
+
+   @Override
+   /**
+    * Return a short description of the system this class models.
+    */
+   public String description()
+   {
+      return "Event oriented model of an auto body shop with basic mechanics and specialists";
+   }
+
+   @Override
+   /**
+    * Pays the staff and stalls and schedules the first arrival.
+    */
+   public void doInitialSchedules()
+   {
+      // Everybody starts out idle.
+      idleMechanics = config.numMechanics;
+      idleSpecialists = config.numSpecialists;
+      idleMechanicCount.update(idleMechanics);
+      idleSpecialistCount.update(idleSpecialists);
+
+      // Salaries and the cost of each specialist stall.
+      todaysCost.update(config.numMechanics * config.mechanicSalary);
+      todaysCost.update(config.numSpecialists * config.specialistSalary);
+      todaysCost.update(config.numStalls * config.stallCost);
+
+      // Close the shop at the end of the day (the run ends once it is empty).
+      closing = new ClosingTime(this, config.operationHours);
+      closing.schedule(new TimeSpan(config.operationHours));
+
+      scheduleNextArrival();
+   }
+
+   @Override
+   /**
+    * Initialize all relevant structures, state variables, and statistical trackers.
+    */
+   public void init()
+   {
+      // Init Structures
+      waitingForMechanic = new Queue<>(this, "Mechanic Waiting Queue", true, false);
+      waitingForSpecialist = new Queue<>(this, "Specialist Waiting Queue", true, false);
+
+      // Init Trackers
+      totalCustomers = new Count(this, "Total Customers", true, false);
+      totalBalked = new Count(this, "Total Balked", true, false);
+      totalLost = new Count(this, "Total Lost", true, false);
+      fullyFixed = new Count(this, "Fully Fixed", true, false);
+      mechanicJobs = new Count(this, "Mechanic Jobs", true, false);
+      specialistJobs = new Count(this, "Specialist Jobs", true, false);
+
+      responseTimes = new Tally(this, "Response Times", true, false);
+      todaysCost = new Aggregate(this, "Today's Cost", true, false);
+      idleMechanicCount = new Accumulate(this, "Idle Mechanics", true, false);
+      idleSpecialistCount = new Accumulate(this, "Idle Specialists", true, false);
+
+      // Init sources of randomness (same as AutoBodyShop).
+      distributions = new ShopRules.Distributions(this, streams);
+   }
+
+   /**
+    * Schedule the next car arrival.  The distribution of the
+    * interarrival time changes as the day goes on.
+    */
+   protected void scheduleNextArrival()
+   {
+      double present = presentTime().getTimeAsDouble();
+      double time = distributions.interarrivalTime(present);
+
+      new CarArrival(this, "Car Arrival", true).schedule(new TimeSpan(time));
+   }
+
+   /**
+    * An idle mechanic starts on the first waiting car.
+    */
+   protected void startMechanic()
+   {
+      idleMechanics--;
+      idleMechanicCount.update(idleMechanics);
+
+      beginMechanicJob();
+   }
+
+   /**
+    * A mechanic finished a car: start the next one or go idle.
+    */
+   protected void mechanicFree()
+   {
+      if (!waitingForMechanic.isEmpty())
+      {
+         beginMechanicJob();
+      }
+      else
+      {
+         idleMechanics++;
+         idleMechanicCount.update(idleMechanics);
+      }
+   }
+
+   /**
+    * Take the first waiting car and schedule when the mechanic is done with it.
+    */
+   private void beginMechanicJob()
+   {
+      Car car = waitingForMechanic.removeFirst();
+      new MechanicFinished(this, "Mechanic Finished", true)
+            .schedule(car, new TimeSpan(distributions.mechanicTime(car.job)));
+   }
+
+   /**
+    * An idle specialist starts on the first waiting car.
+    */
+   protected void startSpecialist()
+   {
+      idleSpecialists--;
+      idleSpecialistCount.update(idleSpecialists);
+
+      beginSpecialistJob();
+   }
+
+   /**
+    * A specialist finished a car: start the next one or go idle.
+    */
+   protected void specialistFree()
+   {
+      if (!waitingForSpecialist.isEmpty())
+      {
+         beginSpecialistJob();
+      }
+      else
+      {
+         idleSpecialists++;
+         idleSpecialistCount.update(idleSpecialists);
+      }
+   }
+
+   /**
+    * Take the first waiting car and schedule when the specialist is done with it.
+    */
+   private void beginSpecialistJob()
+   {
+      Car car = waitingForSpecialist.removeFirst();
+      new SpecialistFinished(this, "Specialist Finished", true)
+            .schedule(car, new TimeSpan(distributions.specialistTime(car.job)));
+   }
+
+   /**
+    * A referred car leaves for the other shop.
+    */
+   protected void carLost(Car car)
+   {
+      car.finished = true;
+      inSystem--;
+      closing.endIfEmpty(inSystem);
+
+      // Update stats
+      totalLost.update(); // += 1
+      todaysCost.update(config.lossCost);
+   }
+}
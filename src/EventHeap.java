@@ -0,0 +1,171 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class is the event list used by ShopKernel.
+ *    Events are just (time, type, handle) triples kept
+ *    in parallel primitive arrays and ordered as a
+ *    4-ary heap, so scheduling and removing events
+ *    never creates any objects.  Events at the same
+ *    time come out in the order they were scheduled.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.Arrays;
+
+public final class EventHeap
+{
+   private double[] times;
+   private int[]    types;
+   private int[]    handles;
+   private long[]   order;
+   private int      size;
+   private long     scheduled;
+
+   /**
+    * @param capacity : The number of pending events to make room for up front
+    */
+   public EventHeap(int capacity)
+   {
+      capacity = Math.max(capacity, 4);
+      times = new double[capacity];
+      types = new int[capacity];
+      handles = new int[capacity];
+      order = new long[capacity];
+   }
+
+   /**
+    * Remove every pending event (keeps the arrays for reuse).
+    */
+   public void clear()
+   {
+      size = 0;
+      scheduled = 0;
+   }
+
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   public int size()
+   {
+      return size;
+   }
+
+   /**
+    * Schedule an event.  The arrays only grow if there are
+    * more pending events than ever before.
+    *
+    * @param time : When the event happens
+    * @param type : What kind of event it is
+    * @param handle : What (or who) the event is for
+    */
+   public void schedule(double time, int type, int handle)
+   {
+      if (size == times.length)
+         grow();
+
+      // Move parents down until the new event's spot is found.
+      long seq = scheduled++;
+      int i = size++;
+      while (i > 0)
+      {
+         int parent = (i - 1) >>> 2;
+         if (!before(time, seq, times[parent], order[parent]))
+            break;
+
+         move(parent, i);
+         i = parent;
+      }
+      set(i, time, type, handle, seq);
+   }
+
+   /** The time of the next event. */
+   public double nextTime()
+   {
+      return times[0];
+   }
+
+   /** The type of the next event. */
+   public int nextType()
+   {
+      return types[0];
+   }
+
+   /** The handle of the next event. */
+   public int nextHandle()
+   {
+      return handles[0];
+   }
+
+   /**
+    * Remove the next event (read it with nextTime/nextType/nextHandle first).
+    */
+   public void removeNext()
+   {
+      int last = --size;
+      if (last == 0)
+         return;
+
+      double time = times[last];
+      int type = types[last];
+      int handle = handles[last];
+      long seq = order[last];
+
+      // Move the earliest child up until the last event's spot is found.
+      int i = 0;
+      while (true)
+      {
+         int first = (i << 2) + 1;
+         if (first >= last)
+            break;
+
+         int best = first;
+         int end = Math.min(first + 4, last);
+         for (int c = first + 1; c < end; c++)
+         {
+            if (before(times[c], order[c], times[best], order[best]))
+               best = c;
+         }
+
+         if (!before(times[best], order[best], time, seq))
+            break;
+
+         move(best, i);
+         i = best;
+      }
+      set(i, time, type, handle, seq);
+   }
+
+   private static boolean before(double time, long seq, double otherTime, long otherSeq)
+   {
+      return time < otherTime || (time == otherTime && seq < otherSeq);
+   }
+
+   private void move(int from, int to)
+   {
+      times[to] = times[from];
+      types[to] = types[from];
+      handles[to] = handles[from];
+      order[to] = order[from];
+   }
+
+   private void set(int i, double time, int type, int handle, long seq)
+   {
+      times[i] = time;
+      types[i] = type;
+      handles[i] = handle;
+      order[i] = seq;
+   }
+
+   private void grow()
+   {
+      int capacity = times.length * 2;
+      times = Arrays.copyOf(times, capacity);
+      types = Arrays.copyOf(types, capacity);
+      handles = Arrays.copyOf(handles, capacity);
+      order = Arrays.copyOf(order, capacity);
+   }
+}
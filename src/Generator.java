@@ -33,32 +33,36 @@ public class Generator extends SimProcess
    public void lifeCycle() throws SuspendExecution
    {
       AutoBodyShop abs = (AutoBodyShop)getModel();
+      abs.processes.started();
       
-      // Generate new arrivals for the time the shop is open.
-      while (abs.presentTime().getTimeAsDouble() < AutoBodyShop.OPERATION_HOURS)
+      try
       {
-         // Determine the next interarrival time based on the time of day.
-         double present = abs.presentTime().getTimeAsDouble();
-         double time = 0;
-         
-         // 8 - 10
-         if (present < 2) 
-            time = abs.interarrivalTimes1.sample();
-            
-         // 10 - 4
-         else if (present < 8)
-            time = abs.interarrivalTimes2.sample();
-
-         // 4 - 8
-         else if (present < 12) 
-            time = abs.interarrivalTimes3.sample();
+         // Generate new arrivals for the time the shop is open.
+         while (abs.presentTime().getTimeAsDouble() < abs.config.operationHours)
+         {
+            // Determine the next interarrival time based on the time of day.
+            double present = abs.presentTime().getTimeAsDouble();
+            double time = abs.distributions.interarrivalTime(present);
 
-         // Hold for the next arrival
-         this.hold(new TimeSpan(time));
+            // Hold for the next arrival
+            abs.transition(ReplicationCounters.Entity.GENERATOR, ReplicationCounters.Call.HOLD);
+            this.hold(new TimeSpan(time));
+            
+            // A car that shows up after closing to an empty shop never gets in.
+            if (abs.closing.endIfEmpty(abs.inSystem))
+               break;
          
-         // Next car arrives -> Activate
-         Customer nextCar = new Customer(abs, "New Customer", true, abs.presentTime().getTimeAsDouble());
-         nextCar.activate();
-      }      
+            // Next car arrives -> Activate
+            Customer nextCar = new Customer(abs, "New Customer", true, abs.presentTime().getTimeAsDouble());
+            nextCar.job = abs.distributions.drawJob();
+            abs.transition(ReplicationCounters.Entity.CUSTOMER, ReplicationCounters.Call.ACTIVATE);
+            nextCar.activate();
+         }      
+      }
+      finally
+      {
+         // Let the replication know this process has terminated.
+         abs.processes.terminated();
+      }
    }
 }
@@ -0,0 +1,128 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class is the process base class for the
+ *    HandoffScheduler.  Subclasses write their life
+ *    cycle exactly like a DESMO-J SimProcess, using
+ *    hold, passivate and activate.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.concurrent.Semaphore;
+
+public abstract class HandoffProcess
+{
+   protected final HandoffScheduler scheduler;
+   final int handle;
+
+   /** Released when it is this process's turn to run */
+   final Semaphore turn = new Semaphore(0);
+
+   Thread thread;
+   boolean scheduled;
+   volatile boolean killed;
+   volatile boolean terminated;
+
+   /** What the life cycle threw, if it did not end normally (see HandoffScheduler.resume) */
+   Throwable failure;
+
+   /**
+    * @param scheduler : The scheduler this process runs under
+    */
+   protected HandoffProcess(HandoffScheduler scheduler)
+   {
+      this.scheduler = scheduler;
+      this.handle = scheduler.register(this);
+   }
+
+   /**
+    * The behaviour of the process.
+    */
+   protected abstract void lifeCycle();
+
+   /**
+    * Schedule this process to run now (after the current process).
+    * Does nothing if it is already scheduled.
+    */
+   public void activate()
+   {
+      if (!scheduled)
+         scheduler.schedule(this, scheduler.presentTime());
+   }
+
+   /**
+    * Wait for the given amount of simulation time.
+    */
+   protected void hold(double time)
+   {
+      scheduler.schedule(this, scheduler.presentTime() + time);
+      yieldToScheduler();
+   }
+
+   /**
+    * Wait until another process activates this one.
+    */
+   protected void passivate()
+   {
+      yieldToScheduler();
+   }
+
+   /**
+    * @return : The current simulation time.
+    */
+   protected double presentTime()
+   {
+      return scheduler.presentTime();
+   }
+
+   /**
+    * Hand control back to the scheduler and wait for our next turn.
+    */
+   private void yieldToScheduler()
+   {
+      scheduler.schedulerTurn.release();
+      turn.acquireUninterruptibly();
+
+      // The run is over, unwind the life cycle.
+      if (killed)
+         throw new Killed();
+   }
+
+   /**
+    * What the process's thread runs.
+    */
+   final void body()
+   {
+      try
+      {
+         lifeCycle();
+      }
+      catch (Killed k)
+      {
+         // Expected when the run ends while this process is waiting.
+      }
+      catch (Throwable e)
+      {
+         // The scheduler rethrows it once the run is shut down.
+         failure = e;
+      }
+      finally
+      {
+         terminated = true;
+         scheduler.schedulerTurn.release();
+      }
+   }
+
+   /** Thrown into a waiting process when the run is over */
+   private static final class Killed extends RuntimeException
+   {
+      private static final long serialVersionUID = 1L;
+
+      Killed()
+      {
+         super(null, null, false, false);
+      }
+   }
+}
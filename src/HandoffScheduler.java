@@ -0,0 +1,244 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class is a small process oriented simulation
+ *    scheduler.  Every HandoffProcess runs its life cycle
+ *    on its own thread (a JDK virtual thread by default),
+ *    but control is handed back and forth so that exactly
+ *    one process (or the scheduler) runs at a time.  That
+ *    keeps the semantics of DESMO-J's processes while
+ *    making processes cheap to create and switch.
+ *
+ *    Virtual threads need Java 21; on an older JDK they are
+ *    looked up by reflection, not found, and every process
+ *    runs on a platform thread instead, so the tree still
+ *    builds and runs on Java 17.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+
+public final class HandoffScheduler
+{
+   /** What kind of thread each process runs on */
+   public enum Threads { PLATFORM, VIRTUAL }
+
+   /** Thread.ofVirtual() and Thread.Builder.unstarted(Runnable), or null before Java 21 */
+   private static final MethodHandle OF_VIRTUAL;
+   private static final MethodHandle UNSTARTED;
+   static
+   {
+      MethodHandle ofVirtual = null;
+      MethodHandle unstarted = null;
+      try
+      {
+         Class<?> builder = Class.forName("java.lang.Thread$Builder");
+         ofVirtual = MethodHandles.publicLookup().findStatic(Thread.class, "ofVirtual", 
+               MethodType.methodType(Class.forName("java.lang.Thread$Builder$OfVirtual")));
+         unstarted = MethodHandles.publicLookup().findVirtual(builder, "unstarted", 
+               MethodType.methodType(Thread.class, Runnable.class));
+
+         // Java 19 and 20 have them as a preview that may not be enabled.
+         ofVirtual.invoke();
+      }
+      catch (Throwable e)
+      {
+         ofVirtual = null;
+         unstarted = null;
+      }
+      OF_VIRTUAL = ofVirtual;
+      UNSTARTED = unstarted;
+   }
+
+   private final Threads threads;
+   private final EventHeap events = new EventHeap(64);
+   private final ArrayList<HandoffProcess> processes = new ArrayList<>();
+   private final ArrayList<Integer> freeHandles = new ArrayList<>();
+
+   /** Released whenever the running process gives control back */
+   final Semaphore schedulerTurn = new Semaphore(0);
+
+   private double now;
+   private long   switches;
+
+   /**
+    * @param threads : Whether processes run on platform or virtual threads
+    */
+   public HandoffScheduler(Threads threads)
+   {
+      this.threads = threads;
+   }
+
+   /**
+    * @return : The current simulation time.
+    */
+   public double presentTime()
+   {
+      return now;
+   }
+
+   /**
+    * @return : How many times control was handed to a process.
+    */
+   public long getSwitches()
+   {
+      return switches;
+   }
+
+   /**
+    * Run processes in time order until the stopping condition
+    * holds (checked after every step) or nothing is scheduled,
+    * then kill every process that is still alive.
+    *
+    * @param stop : The stopping condition
+    *
+    * @throws IllegalStateException : If a process's life cycle threw
+    *                                 (with what it threw as the cause).
+    */
+   public void run(BooleanSupplier stop)
+   {
+      try
+      {
+         while (!events.isEmpty())
+         {
+            now = events.nextTime();
+            HandoffProcess process = processes.get(events.nextHandle());
+            events.removeNext();
+
+            process.scheduled = false;
+            resume(process);
+
+            if (stop.getAsBoolean())
+               break;
+         }
+      }
+      finally
+      {
+         shutdown();
+      }
+   }
+
+   /**
+    * Give a process a handle so it can be scheduled.
+    */
+   int register(HandoffProcess process)
+   {
+      if (!freeHandles.isEmpty())
+      {
+         int handle = freeHandles.remove(freeHandles.size() - 1);
+         processes.set(handle, process);
+         return handle;
+      }
+
+      processes.add(process);
+      return processes.size() - 1;
+   }
+
+   /**
+    * Schedule a process to be resumed at the given time.
+    */
+   void schedule(HandoffProcess process, double time)
+   {
+      process.scheduled = true;
+      events.schedule(time, 0, process.handle);
+   }
+
+   /**
+    * Hand control to a process and wait until it hands it back
+    * (by holding, passivating or finishing its life cycle).
+    */
+   private void resume(HandoffProcess process)
+   {
+      switches++;
+
+      if (process.thread == null)
+      {
+         process.thread = newThread(process);
+         process.thread.start();
+      }
+      else
+      {
+         process.turn.release();
+      }
+
+      schedulerTurn.acquireUninterruptibly();
+
+      // Finished processes give up their handle.
+      if (process.terminated)
+      {
+         processes.set(process.handle, null);
+         freeHandles.add(process.handle);
+      }
+
+      // A process that threw ends the run (run() shuts it down first).
+      if (process.failure != null)
+         throw new IllegalStateException("a process failed at time " + now, process.failure);
+   }
+
+   /**
+    * Kill every process that is still alive and wait until its
+    * thread has terminated, so nothing outlives the run.
+    */
+   private void shutdown()
+   {
+      for (HandoffProcess process : processes)
+      {
+         if (process == null || process.thread == null || process.terminated)
+            continue;
+
+         process.killed = true;
+         process.turn.release();
+         schedulerTurn.acquireUninterruptibly();
+
+         try
+         {
+            process.thread.join();
+         }
+         catch (InterruptedException e)
+         {
+            Thread.currentThread().interrupt();
+            return;
+         }
+      }
+
+      processes.clear();
+      freeHandles.clear();
+      events.clear();
+   }
+
+   /**
+    * @return : True if this JDK has virtual threads (otherwise
+    *           VIRTUAL runs every process on a platform thread).
+    */
+   public static boolean virtualThreadsAvailable()
+   {
+      return OF_VIRTUAL != null;
+   }
+
+   private Thread newThread(HandoffProcess process)
+   {
+      if (threads == Threads.VIRTUAL && OF_VIRTUAL != null)
+      {
+         try
+         {
+            // A builder per thread (builders are not thread safe).
+            return (Thread)UNSTARTED.invoke(OF_VIRTUAL.invoke(), (Runnable)process::body);
+         }
+         catch (Throwable e)
+         {
+            throw new IllegalStateException("could not create a virtual thread", e);
+         }
+      }
+
+      Thread thread = new Thread(process::body);
+      thread.setDaemon(true);
+      return thread;
+   }
+}
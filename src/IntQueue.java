@@ -0,0 +1,127 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class is a first-in first-out queue of int
+ *    handles (a ring buffer) used by ShopKernel in place
+ *    of DESMO-J's Queue.  It keeps the same time-weighted
+ *    length statistics and never creates objects once
+ *    it has grown to its largest size.
+ *
+ * Last Edited: October 2026
+ */
+
+public final class IntQueue
+{
+   private int[] items;
+   private int   head;
+   private int   size;
+   private final TimeAverage length = new TimeAverage();
+
+   /**
+    * @param capacity : The number of handles to make room for up front
+    */
+   public IntQueue(int capacity)
+   {
+      items = new int[Math.max(capacity, 4)];
+   }
+
+   /**
+    * Empty the queue and restart its statistics at time now.
+    */
+   public void reset(double now)
+   {
+      head = 0;
+      size = 0;
+      length.reset(now, 0);
+   }
+
+   /**
+    * Restart the statistics at time now, keeping the handles.
+    */
+   public void restartStatistics(double now)
+   {
+      length.reset(now, size);
+   }
+
+   public boolean isEmpty()
+   {
+      return size == 0;
+   }
+
+   public int length()
+   {
+      return size;
+   }
+
+   /**
+    * Add a handle to the back of the queue.
+    */
+   public void insert(int handle, double now)
+   {
+      if (size == items.length)
+         grow();
+
+      items[(head + size) % items.length] = handle;
+      size++;
+      length.update(now, size);
+   }
+
+   /**
+    * Remove and return the handle at the front of the queue.
+    */
+   public int removeFirst(double now)
+   {
+      int handle = items[head];
+      head = (head + 1) % items.length;
+      size--;
+      length.update(now, size);
+      return handle;
+   }
+
+   /**
+    * @return : The handle at the front of the queue (left in place).
+    */
+   public int first()
+   {
+      return items[head];
+   }
+
+   /**
+    * Remove and return the handle at the back of the queue.
+    */
+   public int removeLast(double now)
+   {
+      size--;
+      int handle = items[(head + size) % items.length];
+      length.update(now, size);
+      return handle;
+   }
+
+   /**
+    * @return : The time-weighted average length since the last reset.
+    */
+   public double averageLength(double now)
+   {
+      return length.mean(now);
+   }
+
+   /**
+    * @return : The longest the queue has been since the last reset.
+    */
+   public int maxLength()
+   {
+      return (int)length.max();
+   }
+
+   private void grow()
+   {
+      // Unwrap the ring so the items start at index 0.
+      int[] bigger = new int[items.length * 2];
+      for (int i = 0; i < size; i++)
+         bigger[i] = items[(head + i) % items.length];
+
+      items = bigger;
+      head = 0;
+   }
+}
@@ -41,67 +41,81 @@ public class Mechanic extends SimProcess
     */
    public void lifeCycle() throws SuspendExecution 
    {
-      // Initializations and stat updates
       AutoBodyShop mc = (AutoBodyShop)getModel();
-      mc.todaysCost.update(AutoBodyShop.MECHANIC_SALARY);
+      mc.processes.started();
       
-      while (true)
+      try
       {
-         // There is not another car.
-         if (mc.waitingForMechanic.isEmpty())
-         {
-            mc.idleMechanics.insert(this);
-            this.passivate();
-         }
-         // There is another car.
-         else
+         // Initializations and stat updates
+         mc.todaysCost.update(mc.config.mechanicSalary);
+      
+         while (true)
          {
-            // Get the next car.
-            Customer seeingMechanic = mc.waitingForMechanic.removeFirst();
+            // There is not another car.
+            if (mc.waitingForMechanic.isEmpty())
+            {
+               mc.idleMechanics.insert(this);
+               mc.transition(ReplicationCounters.Entity.MECHANIC, ReplicationCounters.Call.PASSIVATE);
+               this.passivate();
+            }
+            // There is another car.
+            else
+            {
+               // Get the next car.
+               Customer seeingMechanic = mc.waitingForMechanic.removeFirst();
             
-            // Sample and hold for time t.
-            double time = mc.mechanicFixTimes.sample();
-            this.hold(new TimeSpan(time));
+               // Sample and hold for time t.
+               double time = mc.distributions.mechanicTime(seeingMechanic.job);
+               mc.transition(ReplicationCounters.Entity.MECHANIC, ReplicationCounters.Call.HOLD);
+               this.hold(new TimeSpan(time));
             
-            // SEEING MECHANIC ...
+               // SEEING MECHANIC ...
            
-            boolean referred = mc.mechanicReferral.sample();
+               boolean referred = mc.distributions.referred(seeingMechanic.job);
             
-            // The customer needs to be referred to the specialist. 
-            if (referred)
-            {               
-               // Customer has been in system for > 30 minutes -> Will leave to go to other body shop
-               if ( (mc.presentTime().getTimeAsDouble() - seeingMechanic.arrivalTime) > 0.5 ) 
-               {
-                  seeingMechanic.finished = true;
+               // The customer needs to be referred to the specialist. 
+               if (referred)
+               {               
+                  // Customer has been in system for > 30 minutes -> Will leave to go to other body shop
+                  if (ShopRules.waitedTooLong(mc.presentTime().getTimeAsDouble(), seeingMechanic.arrivalTime))
+                  {
+                     seeingMechanic.finished = true;
                                     
-                  // Update stats 
-                  mc.totalLost.update(); // += 1
-                  mc.todaysCost.update(AutoBodyShop.LOSS_COST);
+                     // Update stats 
+                     mc.totalLost.update(); // += 1
+                     mc.todaysCost.update(mc.config.lossCost);
+                  }
+                  // Else car will be sent to specialist.
+                  else 
+                  {
+                     mc.waitingForSpecialist.insert(seeingMechanic);
+                  }
+               
                }
-               // Else car will be sent to specialist.
-               else 
+               // The car does not need referral.
+               else
                {
-                  mc.waitingForSpecialist.insert(seeingMechanic);
-               }
-               
-            }
-            // The car does not need referral.
-            else
-            {
-               seeingMechanic.finished = true;
+                  seeingMechanic.finished = true;
                
-               // Update stats. 
-               mc.fullyFixed.update(); // += 1
-               mc.responseTimes.update(mc.presentTime().getTimeAsDouble() - seeingMechanic.arrivalTime);
-            }
+                  // Update stats. 
+                  mc.fullyFixed.update(); // += 1
+                  mc.responseTimes.update(mc.presentTime().getTimeAsDouble() - seeingMechanic.arrivalTime);
+               }
             
-            // Reactivate customer.
-            seeingMechanic.activate();
+               // Reactivate customer.
+               mc.transition(ReplicationCounters.Entity.CUSTOMER, ReplicationCounters.Call.ACTIVATE);
+               seeingMechanic.activate();
             
-            // Pay the mechanic' commission.
-            mc.todaysCost.update(AutoBodyShop.MECHANIC_COMMISSION);
+               // Pay the mechanic' commission.
+               mc.todaysCost.update(mc.config.mechanicCommission);
+               mc.mechanicJobs.update();
+            }
          }
       }
+      finally
+      {
+         // Let the replication know this process has terminated.
+         mc.processes.terminated();
+      }
    }
 }
\ No newline at end of file
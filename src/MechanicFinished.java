@@ -0,0 +1,85 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This event models a mechanic finishing with
+ *    a car in the event oriented Auto Body Shop.
+ *    The car is either fixed, referred to a
+ *    specialist, or lost to the other shop.
+ *
+ * Last Edited: October 2026
+ */
+
+import desmoj.core.simulator.*;
+
+public class MechanicFinished extends Event<Car>
+{
+   /**
+    * @param owner
+    * @param name
+    * @param showInTrace
+    */
+   public MechanicFinished(Model owner, String name, boolean showInTrace)
+   {
+      super(owner, name, showInTrace);
+   }
+
+   @Override
+   /**
+    * The mechanic is done looking at the car:
+    *   1. Potentially refer to specialist if they can't fix it
+    *   2. Potentially send them to other body shop
+    *   3. Move on to the next waiting car (or go idle)
+    */
+   public void eventRoutine(Car car)
+   {
+      EventAutoBodyShop mc = (EventAutoBodyShop)getModel();
+      mc.counters.event();
+      double present = mc.presentTime().getTimeAsDouble();
+
+      boolean referred = mc.distributions.referred(car.job);
+
+      // The customer needs to be referred to the specialist.
+      if (referred)
+      {
+         // Customer has been in system for > 30 minutes -> Will leave to go to other body shop
+         if (ShopRules.waitedTooLong(present, car.arrivalTime))
+         {
+            mc.carLost(car);
+         }
+         // All of the stalls are full.
+         else if (mc.stallsInUse >= mc.config.numStalls)
+         {
+            mc.carLost(car);
+         }
+         // Else car takes a stall and is sent to specialist.
+         else
+         {
+            mc.stallsInUse++;
+            mc.waitingForSpecialist.insert(car);
+
+            // There is a specialist available.
+            if (mc.idleSpecialists > 0)
+               mc.startSpecialist();
+         }
+      }
+      // The car does not need referral.
+      else
+      {
+         car.finished = true;
+         mc.inSystem--;
+         mc.closing.endIfEmpty(mc.inSystem);
+
+         // Update stats.
+         mc.fullyFixed.update(); // += 1
+         mc.responseTimes.update(present - car.arrivalTime);
+      }
+
+      // Pay the mechanic' commission.
+      mc.todaysCost.update(mc.config.mechanicCommission);
+      mc.mechanicJobs.update();
+
+      // Mechanic moves on to the next car.
+      mc.mechanicFree();
+   }
+}
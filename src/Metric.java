@@ -0,0 +1,50 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    The statistics the ReplicationModel keeps a
+ *    confidence interval for, and how to read each
+ *    one from the result of a single replication.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.function.ToDoubleFunction;
+
+public enum Metric
+{
+   DAILY_OPERATING_COST("Daily Operating Cost", r -> r.todaysCost),
+   TOTAL_CUSTOMERS("Average Total Customers", r -> r.totalCustomers),
+   BALKED_CUSTOMERS("Average Balked Customers", r -> r.totalBalked),
+   LOST_CUSTOMERS("Average Lost Customers", r -> r.totalLost),
+   FULLY_FIXED("Average Fully Fixed", r -> r.fullyFixed),
+   RESPONSE_TIME("Average Response Time", r -> r.responseTime),
+   MECHANIC_UTILIZATION("Mechanic Utilization Rate", r -> r.mechanicUtil),
+   SPECIALIST_UTILIZATION("Specialist Utilization Rate", r -> r.specUtil),
+   WAITING_FOR_MECHANIC("Average in Waiting Room", r -> r.avgCustomersWaiting);
+
+   private final String title;
+   private final ToDoubleFunction<ReplicationResult> value;
+
+   private Metric(String title, ToDoubleFunction<ReplicationResult> value)
+   {
+      this.title = title;
+      this.value = value;
+   }
+
+   /**
+    * @return : The name shown in the results window.
+    */
+   public String getTitle()
+   {
+      return title;
+   }
+
+   /**
+    * @return : This statistic's value in a single replication.
+    */
+   public double of(ReplicationResult result)
+   {
+      return value.applyAsDouble(result);
+   }
+}
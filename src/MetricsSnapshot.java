@@ -0,0 +1,97 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    The SimulationMetrics totals at one point in time.
+ *    since() gives what happened between two snapshots
+ *    (eg. over one campaign); the slowest replication and
+ *    the peak line lengths are high-water marks, so those
+ *    are kept from the later snapshot.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.Arrays;
+
+public final class MetricsSnapshot
+{
+   public final long replications;
+   public final long failures;
+   public final long events;
+   public final long wallNanos;
+   public final long cpuNanos;
+   public final long slowestNanos;
+   private final long[] calls;
+   public final int peakWaitingForMechanic;
+   public final int peakWaitingForSpecialist;
+
+   MetricsSnapshot(long replications, long failures, long events, long wallNanos, long cpuNanos,
+         long slowestNanos, long[] calls, int peakWaitingForMechanic, int peakWaitingForSpecialist)
+   {
+      this.replications = replications;
+      this.failures = failures;
+      this.events = events;
+      this.wallNanos = wallNanos;
+      this.cpuNanos = cpuNanos;
+      this.slowestNanos = slowestNanos;
+      this.calls = calls;
+      this.peakWaitingForMechanic = peakWaitingForMechanic;
+      this.peakWaitingForSpecialist = peakWaitingForSpecialist;
+   }
+
+   /**
+    * @return : What was recorded after the earlier snapshot.
+    */
+   public MetricsSnapshot since(MetricsSnapshot earlier)
+   {
+      long[] difference = new long[calls.length];
+      for (int i = 0; i < calls.length; i++)
+         difference[i] = calls[i] - earlier.calls[i];
+
+      return new MetricsSnapshot(replications - earlier.replications, failures - earlier.failures,
+            events - earlier.events, wallNanos - earlier.wallNanos, cpuNanos - earlier.cpuNanos,
+            slowestNanos, difference, peakWaitingForMechanic, peakWaitingForSpecialist);
+   }
+
+   public long getCalls(ReplicationCounters.Entity entity, ReplicationCounters.Call call)
+   {
+      return calls[ReplicationCounters.index(entity, call)];
+   }
+
+   /**
+    * @return : Events per second of replication wall time.
+    */
+   public double eventsPerSecond()
+   {
+      return wallNanos == 0 ? 0 : events / (wallNanos / 1e9);
+   }
+
+   @Override
+   public String toString()
+   {
+      StringBuilder report = new StringBuilder();
+      double perReplication = Math.max(1, replications);
+
+      report.append(String.format("Replications: %d (%d failed)%n", replications, failures))
+            .append(String.format("Events: %d (%.0f per second of replication time)%n", events, eventsPerSecond()))
+            .append(String.format("Wall time per replication: %.3f ms (slowest %.3f ms)%n",
+                  wallNanos / perReplication / 1e6, slowestNanos / 1e6))
+            .append(String.format("CPU time per replication: %.3f ms%n", cpuNanos / perReplication / 1e6))
+            .append(String.format("Peak waiting for mechanic: %d, for specialist: %d%n",
+                  peakWaitingForMechanic, peakWaitingForSpecialist));
+
+      // Only the DESMO-J process engines count scheduling calls.
+      if (Arrays.stream(calls).allMatch(count -> count == 0))
+         return report.toString();
+
+      report.append(String.format("%-12s %12s %12s %12s%n", "", "ACTIVATE", "PASSIVATE", "HOLD"));
+      for (ReplicationCounters.Entity entity : ReplicationCounters.Entity.values())
+      {
+         report.append(String.format("%-12s", entity.name()));
+         for (ReplicationCounters.Call call : ReplicationCounters.Call.values())
+            report.append(String.format(" %12d", getCalls(entity, call)));
+         report.append(String.format("%n"));
+      }
+      return report.toString();
+   }
+}
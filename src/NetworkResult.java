@@ -0,0 +1,90 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class holds the output of a single replication
+ *    of a ShopNetwork: every site's ReplicationResult and
+ *    the customers the sites passed to each other.
+ *
+ * Last Edited: October 2026
+ */
+
+public final class NetworkResult
+{
+   public final int runNumber;
+   private final ReplicationResult[] sites;
+
+   /** Per site: customers sent on, customers taken in and the ones of those fixed */
+   private final long[] transfersOut;
+   private final long[] transfersIn;
+   private final long[] transfersServed;
+
+   /** Synchronization windows the run took */
+   public final long windows;
+
+   /**
+    * @param runNumber : The replication number
+    * @param sites : Each site's results
+    * @param transfersOut : Customers each site sent to another
+    * @param transfersIn : Customers each site got from another
+    * @param transfersServed : Transferred customers each site fully fixed
+    * @param windows : Synchronization windows the run took
+    */
+   public NetworkResult(int runNumber, ReplicationResult[] sites, long[] transfersOut,
+         long[] transfersIn, long[] transfersServed, long windows)
+   {
+      this.runNumber = runNumber;
+      this.sites = sites;
+      this.transfersOut = transfersOut;
+      this.transfersIn = transfersIn;
+      this.transfersServed = transfersServed;
+      this.windows = windows;
+   }
+
+   public int getSites()
+   {
+      return sites.length;
+   }
+
+   public ReplicationResult getSite(int site)
+   {
+      return sites[site];
+   }
+
+   public long getTransfersOut(int site)
+   {
+      return transfersOut[site];
+   }
+
+   public long getTransfersIn(int site)
+   {
+      return transfersIn[site];
+   }
+
+   public long getTransfersServed(int site)
+   {
+      return transfersServed[site];
+   }
+
+   /**
+    * @return : The operating cost of every site together.
+    */
+   public double totalCost()
+   {
+      double cost = 0;
+      for (ReplicationResult site : sites)
+         cost += site.todaysCost;
+      return cost;
+   }
+
+   /**
+    * @return : Customers fully fixed by any site.
+    */
+   public long totalFullyFixed()
+   {
+      long fixed = 0;
+      for (ReplicationResult site : sites)
+         fixed += site.fullyFixed;
+      return fixed;
+   }
+}
@@ -0,0 +1,130 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class compares two shop configurations by
+ *    running both with the same random numbers (common
+ *    random numbers) and keeping statistics of the
+ *    difference (a - b) in each Metric, replication by
+ *    replication.  Because both configurations see the
+ *    same cars with the same jobs, the confidence interval
+ *    of the difference is much narrower than comparing two
+ *    independent sets of replications.
+ *
+ *       java PairedComparison [replications] [workers]
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.EnumMap;
+
+public final class PairedComparison
+{
+   public final ShopConfig a;
+   public final ShopConfig b;
+   private final EnumMap<Metric, SampleStatistics> differences = new EnumMap<>(Metric.class);
+   private ReplicationResult pending;
+
+   private PairedComparison(ShopConfig a, ShopConfig b)
+   {
+      this.a = a;
+      this.b = b;
+
+      for (Metric metric : Metric.values())
+         differences.put(metric, new SampleStatistics());
+   }
+
+   /**
+    * Replicate both configurations with common random numbers.
+    *
+    * @param engine : Which version of the shop model to run (any but VIRTUAL_THREADS)
+    * @param a : The first configuration
+    * @param b : The second configuration
+    * @param baseSeed : The seed the user entered
+    * @param replications : Replications of each configuration
+    * @param numWorkers : Threads to run replications on
+    *
+    * @return : The comparison, or null if a replication did not run correctly.
+    * 
+    * @throws IllegalArgumentException : If the engine can't use common random numbers.
+    */
+   public static PairedComparison run(ReplicationModel.Engine engine, ShopConfig a, ShopConfig b,
+         int baseSeed, int replications, int numWorkers)
+   {
+      if (!engine.usesStreams())
+         throw new IllegalArgumentException(engine + " can't use common random numbers");
+
+      PairedComparison comparison = new PairedComparison(a, b);
+
+      // Odd tasks run a, even tasks run b, on the same streams.
+      try (ReplicationExecutor executor = new ReplicationExecutor(numWorkers))
+      {
+         boolean ok = executor.run(1, 2 * replications,
+               task -> ReplicationModel.simulate(engine, task % 2 == 1 ? a : b,
+                                                 new RandomStreams(baseSeed, (task + 1) / 2, true)),
+               comparison::pair);
+
+         return ok ? comparison : null;
+      }
+   }
+
+   /**
+    * Results arrive in order: a's replication, then b's.
+    */
+   private void pair(ReplicationResult result)
+   {
+      if (pending == null)
+      {
+         pending = result;
+         return;
+      }
+
+      for (Metric metric : Metric.values())
+         differences.get(metric).update(metric.of(pending) - metric.of(result));
+      pending = null;
+   }
+
+   /**
+    * @return : The statistics of (a - b) for the given metric.
+    */
+   public SampleStatistics difference(Metric metric)
+   {
+      return differences.get(metric);
+   }
+
+   @Override
+   /**
+    * One line per metric: mean difference and its 95% confidence interval.
+    */
+   public String toString()
+   {
+      StringBuilder report = new StringBuilder();
+      report.append("A: ").append(a).append('\n')
+            .append("B: ").append(b).append('\n');
+
+      for (Metric metric : Metric.values())
+      {
+         SampleStatistics stats = differences.get(metric);
+         report.append(String.format("%-30s A - B = %12.4f  [%12.4f, %12.4f]%n", metric.getTitle(),
+               stats.getMean(), stats.getConfidenceIntervalOfMeanLowerBound(),
+               stats.getConfidenceIntervalOfMeanUpperBound()));
+      }
+      return report.toString();
+   }
+
+   public static void main(String[] args)
+   {
+      int replications = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+      int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+      // The Driver's settings against the same shop with one more mechanic.
+      ShopConfig a = ShopConfig.snapshot();
+      ShopConfig b = new ShopConfig(a.operationHours, a.stallCost, a.lossCost,
+            a.numMechanics + 1, a.mechanicSalary, a.mechanicCommission,
+            a.numSpecialists, a.numStalls, a.specialistSalary, a.specialistCommission);
+
+      PairedComparison comparison = run(ReplicationModel.Engine.KERNEL, a, b,
+            ReplicationModel.SEED, replications, workers);
+      System.out.println(comparison == null ? "A replication did not run correctly." : comparison);
+   }
+}
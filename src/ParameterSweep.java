@@ -0,0 +1,203 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class replicates many shop configurations at
+ *    once.  Every (configuration, replication) pair is a
+ *    task on a work-stealing ForkJoinPool, so idle workers
+ *    take over replications from configurations that are
+ *    slower to run.  As soon as all replications of a
+ *    configuration are done, its SweepResult is handed to
+ *    the caller (one at a time).
+ *
+ *    Run it on its own to sweep every staffing level the
+ *    Driver offers with the default costs:
+ *
+ *       java ParameterSweep [replications] [workers]
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+public class ParameterSweep
+{
+   private final ReplicationModel.Engine engine;
+   private final int baseSeed;
+   private final int replications;
+   private final int numWorkers;
+   private final boolean common;
+   
+   /** Results are handed to the caller one at a time */
+   private final Object resultLock = new Object();
+
+   /**
+    * @param engine : Which version of the shop model to run
+    * @param baseSeed : Replication i uses the same seed as in the ReplicationModel
+    * @param replications : Replications per configuration
+    * @param numWorkers : Threads in the pool
+    */
+   public ParameterSweep(ReplicationModel.Engine engine, int baseSeed, int replications, int numWorkers)
+   {
+      this(engine, baseSeed, replications, numWorkers, false);
+   }
+
+   /**
+    * @param engine : Which version of the shop model to run
+    * @param baseSeed : Replication i uses the same seed as in the ReplicationModel
+    * @param replications : Replications per configuration
+    * @param numWorkers : Threads in the pool
+    * @param common : True to give every configuration the same random numbers
+    *                 (replication i sees the same cars everywhere)
+    */
+   public ParameterSweep(ReplicationModel.Engine engine, int baseSeed, int replications, int numWorkers,
+         boolean common)
+   {
+      this.engine = engine;
+      this.baseSeed = baseSeed;
+      this.replications = replications;
+      this.numWorkers = Math.max(1, numWorkers);
+      this.common = common;
+   }
+
+   /**
+    * Every combination of the given staffing levels and hours
+    * (costs are taken from base).
+    */
+   public static List<ShopConfig> grid(ShopConfig base, int[] hours, int[] mechanics,
+         int[] specialists, int[] stalls)
+   {
+      List<ShopConfig> configs = new ArrayList<>();
+      for (int h : hours)
+         for (int m : mechanics)
+            for (int s : specialists)
+               for (int st : stalls)
+                  configs.add(new ShopConfig(h, base.stallCost, base.lossCost,
+                        m, base.mechanicSalary, base.mechanicCommission,
+                        s, st, base.specialistSalary, base.specialistCommission));
+      return configs;
+   }
+
+   /**
+    * Replicate every configuration.
+    *
+    * @param configs : The configurations to run
+    * @param onConfigDone : Receives each configuration's results as soon as
+    *                       they are complete (never called concurrently)
+    */
+   public void run(List<ShopConfig> configs, Consumer<SweepResult> onConfigDone)
+   {
+      List<ConfigTask> tasks = new ArrayList<>();
+      for (ShopConfig config : configs)
+         tasks.add(new ConfigTask(config, onConfigDone));
+
+      ForkJoinPool pool = new ForkJoinPool(numWorkers);
+      try
+      {
+         pool.invoke(new RecursiveAction()
+         {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute()
+            {
+               invokeAll(tasks);
+            }
+         });
+      }
+      finally
+      {
+         pool.shutdown();
+      }
+   }
+
+   /**
+    * All of the replications of a single configuration.
+    */
+   private class ConfigTask extends RecursiveAction
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final ShopConfig config;
+      private final Consumer<SweepResult> onConfigDone;
+
+      ConfigTask(ShopConfig config, Consumer<SweepResult> onConfigDone)
+      {
+         this.config = config;
+         this.onConfigDone = onConfigDone;
+      }
+
+      @Override
+      protected void compute()
+      {
+         ReplicationResult[] results = new ReplicationResult[replications];
+         new Replications(config, results, 1, replications).invoke();
+
+         // Summarize in replication order so the row is reproducible.
+         SweepResult summary = new SweepResult(config, results);
+         synchronized (resultLock)
+         {
+            onConfigDone.accept(summary);
+         }
+      }
+   }
+
+   /**
+    * A range of replications of a configuration, split in half
+    * until each task is a single replication.
+    */
+   private class Replications extends RecursiveAction
+   {
+      private static final long serialVersionUID = 1L;
+
+      private final ShopConfig config;
+      private final ReplicationResult[] results;
+      private final int first;
+      private final int last;
+
+      Replications(ShopConfig config, ReplicationResult[] results, int first, int last)
+      {
+         this.config = config;
+         this.results = results;
+         this.first = first;
+         this.last = last;
+      }
+
+      @Override
+      protected void compute()
+      {
+         if (first == last)
+         {
+            results[first - 1] = ReplicationModel.simulate(engine, config,
+                                                           new RandomStreams(baseSeed, first, common));
+            return;
+         }
+
+         int middle = (first + last) >>> 1;
+         invokeAll(new Replications(config, results, first, middle),
+                   new Replications(config, results, middle + 1, last));
+      }
+   }
+
+   public static void main(String[] args)
+   {
+      int replications = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+      int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+      // The staffing levels and hours offered by the Driver.
+      List<ShopConfig> configs = grid(ShopConfig.snapshot(),
+            new int[]{6, 7, 8, 9, 10, 11, 12},
+            new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10},
+            new int[]{1, 2, 3, 4, 5},
+            new int[]{1, 2, 3, 4, 5});
+
+      System.out.println(SweepResult.header());
+      new ParameterSweep(ReplicationModel.ENGINE, ReplicationModel.SEED, replications, workers,
+                         ReplicationModel.COMMON_RANDOM_NUMBERS)
+            .run(configs, System.out::println);
+   }
+}
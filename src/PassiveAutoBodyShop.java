@@ -0,0 +1,379 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class models the same Auto Body Shop as
+ *    AutoBodyShop, but customers are passive Car
+ *    entities instead of SimProcesses.  The mechanics
+ *    and specialists drive every state transition
+ *    (referral, stall loss, completion) and the arrival
+ *    generator handles the balk check, so the only live
+ *    processes are one per worker plus the generator.
+ *
+ * Last Edited: October 2026
+ */
+
+import co.paralleluniverse.fibers.SuspendExecution;
+import desmoj.core.simulator.*;
+import desmoj.core.statistic.*;
+
+public class PassiveAutoBodyShop extends Model
+{
+   /** Settings this run of the shop was created with */
+   protected final ShopConfig config;
+
+   /** Where this run gets its random numbers (null = experiment seed only) */
+   protected final RandomStreams streams;
+
+   /** Sources of randomness (see ShopRules) */
+   protected ShopRules.Distributions distributions;
+
+   /** Structures */
+   protected ProcessQueue<MechanicProcess> idleMechanics;
+   protected ProcessQueue<SpecialistProcess> idleSpecialists;
+   protected Queue<Car> waitingForMechanic;
+   protected Queue<Car> waitingForSpecialist;
+   protected int stallsInUse;
+   protected int inSystem;
+   protected ClosingTime closing;
+
+   /** Trackers */
+   protected Count totalCustomers;
+   protected Count totalBalked;
+   protected Count totalLost;
+   protected Count fullyFixed;
+   protected Count mechanicJobs;
+   protected Count specialistJobs;
+   protected Tally responseTimes;
+   protected Aggregate todaysCost;
+
+   /** Life cycles still running (waited on during teardown) */
+   protected final ProcessBarrier processes = new ProcessBarrier();
+
+   /** Scheduling calls made during this run (see SimulationMetrics) */
+   protected final ReplicationCounters counters = new ReplicationCounters();
+
+   /**
+    * @param owner
+    * @param name
+    * @param showInReport
+    * @param showInTrace
+    * @param config : The (immutable) settings for this run
+    * @param streams : Where this run gets its random numbers
+    */
+   public PassiveAutoBodyShop(Model owner, String name, boolean showInReport, boolean showInTrace,
+         ShopConfig config, RandomStreams streams)
+   {
+      super(owner, "Auto Body Shop", showInReport, showInTrace);
+      this.config = config;
+      this.streams = streams;
+   }
+
+   @Override
+   /**
+    * Return a short description of the system this class models.
+    */
+   public String description()
+   {
+      return "Model of an auto body shop with passive customers";
+   }
+
+   @Override
+   /**
+    * Creates the workers and begins interarrivals of customers.
+    */
+   public void doInitialSchedules()
+   {
+      for (int i = 0; i < config.numMechanics; i++)
+      {
+         counters.count(ReplicationCounters.Entity.MECHANIC, ReplicationCounters.Call.ACTIVATE);
+         new MechanicProcess(this).activate();
+      }
+
+      for (int i = 0; i < config.numSpecialists; i++)
+      {
+         counters.count(ReplicationCounters.Entity.SPECIALIST, ReplicationCounters.Call.ACTIVATE);
+         new SpecialistProcess(this).activate();
+      }
+
+      // Close the shop at the end of the day (the run ends once it is empty).
+      closing = new ClosingTime(this, config.operationHours);
+      closing.schedule(new TimeSpan(config.operationHours));
+
+      counters.count(ReplicationCounters.Entity.GENERATOR, ReplicationCounters.Call.ACTIVATE);
+      new GeneratorProcess(this).activate();
+
+      // Incur the cost of each specialist stall.
+      todaysCost.update(config.numStalls * config.stallCost);
+   }
+
+   @Override
+   /**
+    * Initialize all relevant structures, state variables, and statistical trackers.
+    */
+   public void init()
+   {
+      // Init Structures
+      idleMechanics = new ProcessQueue<>(this, "Idle Mechanic Queue", true, false);
+      idleSpecialists = new ProcessQueue<>(this, "Idle Specialist Queue", true, false);
+      waitingForMechanic = new Queue<>(this, "Mechanic Waiting Queue", true, false);
+      waitingForSpecialist = new Queue<>(this, "Specialist Waiting Queue", true, false);
+
+      // Init Trackers
+      totalCustomers = new Count(this, "Total Customers", true, false);
+      totalBalked = new Count(this, "Total Balked", true, false);
+      totalLost = new Count(this, "Total Lost", true, false);
+      fullyFixed = new Count(this, "Fully Fixed", true, false);
+      mechanicJobs = new Count(this, "Mechanic Jobs", true, false);
+      specialistJobs = new Count(this, "Specialist Jobs", true, false);
+
+      responseTimes = new Tally(this, "Response Times", true, false);
+      todaysCost = new Aggregate(this, "Today's Cost", true, false);
+
+      // Init sources of randomness (same as AutoBodyShop).
+      distributions = new ShopRules.Distributions(this, streams);
+   }
+
+   /**
+    * A car is done at this shop (fixed or lost).
+    */
+   protected void carLeaves(Car car)
+   {
+      car.finished = true;
+      inSystem--;
+      closing.endIfEmpty(inSystem);
+   }
+
+   /**
+    * A car leaves for the other shop.
+    */
+   protected void carLost(Car car)
+   {
+      carLeaves(car);
+
+      // Update stats
+      totalLost.update(); // += 1
+      todaysCost.update(config.lossCost);
+   }
+
+   /**
+    * Generates new cars and decides whether they balk
+    * (see Generator and the start of Customer).
+    */
+   protected static class GeneratorProcess extends SimProcess
+   {
+      public GeneratorProcess(PassiveAutoBodyShop owner)
+      {
+         super(owner, "Generator", true);
+      }
+
+      @Override
+      public void lifeCycle() throws SuspendExecution
+      {
+         PassiveAutoBodyShop abs = (PassiveAutoBodyShop)getModel();
+         abs.processes.started();
+
+         try
+         {
+            // Generate new arrivals for the time the shop is open.
+            while (abs.presentTime().getTimeAsDouble() < abs.config.operationHours)
+            {
+               // Determine the next interarrival time based on the time of day.
+               double present = abs.presentTime().getTimeAsDouble();
+               double time = abs.distributions.interarrivalTime(present);
+
+               // Hold for the next arrival
+               abs.counters.count(ReplicationCounters.Entity.GENERATOR, ReplicationCounters.Call.HOLD);
+               this.hold(new TimeSpan(time));
+
+               arrive(abs);
+            }
+         }
+         finally
+         {
+            // Let the replication know this process has terminated.
+            abs.processes.terminated();
+         }
+      }
+
+      /**
+       * The next car pulls into the shop.
+       */
+      private void arrive(PassiveAutoBodyShop abs)
+      {
+         double present = abs.presentTime().getTimeAsDouble();
+
+         // A car that shows up after closing to an empty shop never
+         // gets in (the run ends before it is served).
+         if (abs.closing.endIfEmpty(abs.inSystem))
+            return;
+
+         Car car = new Car(abs, "New Car", true, present);
+         car.job = abs.distributions.drawJob();
+         abs.totalCustomers.update(); // += 1
+         abs.inSystem++;
+         abs.waitingForMechanic.insert(car);
+
+         // There is a mechanic available.
+         if (!abs.idleMechanics.isEmpty())
+         {
+            abs.counters.count(ReplicationCounters.Entity.MECHANIC, ReplicationCounters.Call.ACTIVATE);
+            abs.idleMechanics.removeFirst().activate();
+         }
+         // There is not a mechanic available.
+         else
+         {
+            // Determine if the customer will balk
+            // (subtract 1 so the customer doesn't count themself).
+            int k = abs.waitingForMechanic.length() - 1;
+            long balk = abs.distributions.balkDraw(car.job);
+
+            // Customer leaves to the other shop.
+            if (ShopRules.balks(balk, k))
+            {
+               abs.waitingForMechanic.remove(car);
+               abs.carLeaves(car);
+
+               // Update stats
+               abs.totalBalked.update(); // += 1
+               abs.todaysCost.update(abs.config.lossCost);
+            }
+         }
+      }
+   }
+
+   /**
+    * Fixes cars, refers them, or loses them (see Mechanic).
+    */
+   protected static class MechanicProcess extends SimProcess
+   {
+      public MechanicProcess(PassiveAutoBodyShop owner)
+      {
+         super(owner, "Mechanic", true);
+      }
+
+      @Override
+      public void lifeCycle() throws SuspendExecution
+      {
+         PassiveAutoBodyShop mc = (PassiveAutoBodyShop)getModel();
+         mc.processes.started();
+
+         try
+         {
+            mc.todaysCost.update(mc.config.mechanicSalary);
+
+            while (true)
+            {
+               // There is not another car.
+               if (mc.waitingForMechanic.isEmpty())
+               {
+                  mc.idleMechanics.insert(this);
+                  mc.counters.count(ReplicationCounters.Entity.MECHANIC, ReplicationCounters.Call.PASSIVATE);
+                  this.passivate();
+                  continue;
+               }
+
+               // Get the next car, then sample and hold for time t.
+               Car car = mc.waitingForMechanic.removeFirst();
+               mc.counters.count(ReplicationCounters.Entity.MECHANIC, ReplicationCounters.Call.HOLD);
+               this.hold(new TimeSpan(mc.distributions.mechanicTime(car.job)));
+               double present = mc.presentTime().getTimeAsDouble();
+
+               // The customer needs to be referred to the specialist.
+               if (mc.distributions.referred(car.job))
+               {
+                  // Customer has been in system for > 30 minutes,
+                  // or all of the stalls are full -> other body shop.
+                  if (ShopRules.waitedTooLong(present, car.arrivalTime) || mc.stallsInUse >= mc.config.numStalls)
+                  {
+                     mc.carLost(car);
+                  }
+                  // Else car takes a stall and is sent to specialist.
+                  else
+                  {
+                     mc.stallsInUse++;
+                     mc.waitingForSpecialist.insert(car);
+
+                     if (!mc.idleSpecialists.isEmpty())
+                     {
+                        mc.counters.count(ReplicationCounters.Entity.SPECIALIST, ReplicationCounters.Call.ACTIVATE);
+                        mc.idleSpecialists.removeFirst().activate();
+                     }
+                  }
+               }
+               // The car does not need referral.
+               else
+               {
+                  mc.carLeaves(car);
+                  mc.fullyFixed.update(); // += 1
+                  mc.responseTimes.update(present - car.arrivalTime);
+               }
+
+               // Pay the mechanic' commission.
+               mc.todaysCost.update(mc.config.mechanicCommission);
+               mc.mechanicJobs.update();
+            }
+         }
+         finally
+         {
+            // Let the replication know this process has terminated.
+            mc.processes.terminated();
+         }
+      }
+   }
+
+   /**
+    * Fixes referred cars (see Specialist).
+    */
+   protected static class SpecialistProcess extends SimProcess
+   {
+      public SpecialistProcess(PassiveAutoBodyShop owner)
+      {
+         super(owner, "Specialist", true);
+      }
+
+      @Override
+      public void lifeCycle() throws SuspendExecution
+      {
+         PassiveAutoBodyShop mc = (PassiveAutoBodyShop)getModel();
+         mc.processes.started();
+
+         try
+         {
+            mc.todaysCost.update(mc.config.specialistSalary);
+
+            while (true)
+            {
+               // There is not another car to fix.
+               if (mc.waitingForSpecialist.isEmpty())
+               {
+                  mc.idleSpecialists.insert(this);
+                  mc.counters.count(ReplicationCounters.Entity.SPECIALIST, ReplicationCounters.Call.PASSIVATE);
+                  this.passivate();
+                  continue;
+               }
+
+               // Get the next car, then sample and hold for time t.
+               Car car = mc.waitingForSpecialist.removeFirst();
+               mc.counters.count(ReplicationCounters.Entity.SPECIALIST, ReplicationCounters.Call.HOLD);
+               this.hold(new TimeSpan(mc.distributions.specialistTime(car.job)));
+
+               // Update stats (the car no longer occupies a stall).
+               mc.fullyFixed.update(); // += 1
+               mc.responseTimes.update(mc.presentTime().getTimeAsDouble() - car.arrivalTime);
+               mc.carLeaves(car);
+               mc.stallsInUse--;
+
+               // Pay the specialist's commission.
+               mc.todaysCost.update(mc.config.specialistCommission);
+               mc.specialistJobs.update();
+            }
+         }
+         finally
+         {
+            // Let the replication know this process has terminated.
+            mc.processes.terminated();
+         }
+      }
+   }
+}
@@ -0,0 +1,70 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class keeps track of how many of a model's
+ *    SimProcess life cycles are still running.  The
+ *    ReplicationModel waits on it after finishing an
+ *    experiment so results are only read once every
+ *    process thread of that run has terminated.
+ *
+ * Last Edited: October 2026
+ */
+
+public class ProcessBarrier
+{
+   /** Life cycles that have started but not yet ended */
+   private int running;
+
+   /**
+    * Called by a process when its life cycle starts.
+    */
+   public synchronized void started()
+   {
+      running++;
+   }
+
+   /**
+    * Called by a process when its life cycle ends,
+    * whether it returned normally or was killed
+    * when the experiment finished.
+    */
+   public synchronized void terminated()
+   {
+      running--;
+
+      // Wake up the replication waiting for teardown.
+      if (running == 0)
+         notifyAll();
+   }
+
+   /**
+    * Wait until every started life cycle has ended.
+    *
+    * @param timeoutMillis : The longest to wait before giving up
+    *
+    * @return : True if all processes terminated in time.
+    */
+   public synchronized boolean awaitTermination(long timeoutMillis) throws InterruptedException
+   {
+      long deadline = System.currentTimeMillis() + timeoutMillis;
+
+      while (running > 0)
+      {
+         long remaining = deadline - System.currentTimeMillis();
+         if (remaining <= 0)
+            return false;
+
+         wait(remaining);
+      }
+      return true;
+   }
+
+   /**
+    * @return : The number of life cycles still running.
+    */
+   public synchronized int getRunning()
+   {
+      return running;
+   }
+}
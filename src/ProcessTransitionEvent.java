@@ -0,0 +1,67 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    A Java Flight Recorder event for a customer, mechanic,
+ *    specialist or generator being activated, passivated or
+ *    held in the process model, with the simulated time of
+ *    day and the lines at that moment.  There are thousands
+ *    of these per replication, so only one in SAMPLE_EVERY
+ *    (per replication) is recorded:
+ *
+ *       -Dautobodyshop.jfr.sampleEvery=1     record them all
+ *       -Dautobodyshop.jfr.sampleEvery=0     record none
+ *
+ * Last Edited: October 2026
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("autobodyshop.ProcessTransition")
+@Label("Process Transition")
+@Category({"Auto Body Shop", "Processes"})
+@Description("A sampled activate, passivate or hold in the process model")
+@StackTrace(false)
+public class ProcessTransitionEvent extends Event
+{
+   /** Record one in this many transitions (0 = none) */
+   public static final int SAMPLE_EVERY = Integer.getInteger("autobodyshop.jfr.sampleEvery", 64);
+
+   @Label("Replication Number")
+   public int runNumber;
+
+   @Label("Process")
+   public String entity;
+
+   @Label("Transition")
+   public String call;
+
+   @Label("Simulated Time")
+   @Description("Hours since the shop opened")
+   public double simulatedHours;
+
+   @Label("Waiting for Mechanic")
+   public int waitingForMechanic;
+
+   @Label("Waiting for Specialist")
+   public int waitingForSpecialist;
+
+   @Label("Sampling")
+   @Description("One in this many transitions is recorded")
+   public int sampleEvery;
+
+   /**
+    * @param transition : How many transitions this replication has made (from 1)
+    * 
+    * @return : True if the transition should be recorded.
+    */
+   public static boolean sampled(long transition)
+   {
+      return SAMPLE_EVERY > 0 && transition % SAMPLE_EVERY == 0;
+   }
+}
@@ -0,0 +1,178 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class shows a campaign while it runs: the
+ *    replications done, how many run per second, when it
+ *    should be done, and a ConvergenceChart of the running
+ *    means.  The Cancel button (or closing the window)
+ *    stops the campaign; the replications that finished
+ *    are still reported.
+ *
+ *    The campaign calls in from its own thread, so these
+ *    calls only record a chart point now and then; the
+ *    window itself is refreshed by a Swing timer.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.awt.*;
+import java.awt.event.*;
+import javax.swing.*;
+
+public class ProgressWindow implements CampaignListener
+{
+   /** How often the window is refreshed (ms) */
+   private static final int REFRESH_MILLIS = 250;
+
+   /** Least time between chart points (ns), after the first few */
+   private static final long POINT_NANOS = 100_000_000L;
+   private static final int FIRST_POINTS = 20;
+
+   private final JFrame frame;
+   private final JProgressBar progress;
+   private final JLabel status;
+   private final JButton cancel;
+   private final ConvergenceChart chart;
+   private final Timer refresh;
+
+   /** Set once the campaign has started */
+   private volatile ReplicationCampaign campaign;
+   private volatile long startNanos;
+
+   /** Only used on the campaign's thread */
+   private long lastPointNanos;
+
+   /**
+    * Set up the (hidden) window; call on the Event Dispatch Thread.
+    */
+   public ProgressWindow()
+   {
+      frame = new JFrame("Running Simulation");
+      frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+      progress = new JProgressBar();
+      progress.setStringPainted(true);
+      status = new JLabel("Starting...");
+
+      cancel = new JButton("Cancel");
+      cancel.addActionListener(e -> cancel());
+
+      // Closing the window stops the campaign too.
+      frame.addWindowListener(new WindowAdapter()
+      {
+         @Override
+         public void windowClosed(WindowEvent e)
+         {
+            cancel();
+         }
+      });
+
+      JPanel top = new JPanel(new BorderLayout(10, 5));
+      top.setBorder(BorderFactory.createEmptyBorder(10, 10, 5, 10));
+      top.add(progress, BorderLayout.CENTER);
+      top.add(cancel, BorderLayout.EAST);
+      top.add(status, BorderLayout.SOUTH);
+
+      chart = new ConvergenceChart();
+      frame.add(top, BorderLayout.NORTH);
+      frame.add(chart, BorderLayout.CENTER);
+      frame.pack();
+
+      refresh = new Timer(REFRESH_MILLIS, e -> update());
+   }
+
+   /**
+    * Show the window and start refreshing it.
+    */
+   public void show()
+   {
+      frame.setVisible(true);
+      refresh.start();
+   }
+
+   @Override
+   public void started(ReplicationCampaign campaign)
+   {
+      this.startNanos = System.nanoTime();
+      this.campaign = campaign;
+   }
+
+   @Override
+   public void observed(ReplicationCampaign campaign)
+   {
+      // A confidence interval is not cheap, so only add a chart
+      // point every so often (the window cannot show more anyway).
+      long now = System.nanoTime();
+      if (campaign.get(Metric.DAILY_OPERATING_COST).getObservations() <= FIRST_POINTS 
+            || now - lastPointNanos >= POINT_NANOS)
+      {
+         chart.addPoint(campaign);
+         lastPointNanos = now;
+      }
+   }
+
+   @Override
+   public void finished(ReplicationCampaign campaign, boolean ok)
+   {
+      chart.addPoint(campaign);
+
+      SwingUtilities.invokeLater(() ->
+      {
+         refresh.stop();
+         update();
+         cancel.setEnabled(false);
+         frame.setTitle(!ok ? "Simulation Failed" 
+                            : campaign.isCancelled() ? "Simulation Cancelled" : "Simulation Finished");
+      });
+   }
+
+   /**
+    * Stop refreshing and close the window (on the Event Dispatch Thread).
+    */
+   public void close()
+   {
+      refresh.stop();
+      frame.dispose();
+   }
+
+   /**
+    * Stop the campaign (keeping the replications that finished).
+    */
+   private void cancel()
+   {
+      ReplicationCampaign running = campaign;
+      if (running != null)
+         running.cancel();
+
+      cancel.setEnabled(false);
+      status.setText("Cancelling...");
+   }
+
+   /**
+    * Show the campaign's progress (on the Event Dispatch Thread).
+    */
+   private void update()
+   {
+      ReplicationCampaign running = campaign;
+      if (running == null)
+         return;
+
+      int done = running.getReplicationsRun();
+      int most = running.getMaxReplications();
+      double seconds = (System.nanoTime() - startNanos) / 1e9;
+      double perSecond = seconds > 0 ? done / seconds : 0;
+
+      progress.setMaximum(most);
+      progress.setValue(done);
+      progress.setString(done + " of " + (running.isAdaptive() ? "at most " : "") + most);
+
+      String eta = perSecond > 0 ? String.format("%.0f s", (most - done) / perSecond) : "-";
+      if (!running.isCancelled())
+         status.setText(String.format("%.1f replications per second   Time left: %s", perSecond, eta));
+      else
+         status.setText(String.format("Cancelled after %d replications (%.1f s)", done, seconds));
+
+      chart.repaint();
+   }
+}
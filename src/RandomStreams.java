@@ -0,0 +1,106 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class describes where a single replication
+ *    gets its random numbers from.  Normally every
+ *    distribution is seeded from the experiment's seed
+ *    (SEED + 2*runNumber).  With common random numbers
+ *    (CRN), every source of randomness gets a dedicated
+ *    stream keyed only by the seed and replication
+ *    number, and each car draws its whole job (fix
+ *    times, referral, balk) when it arrives.  Two
+ *    configurations then see the same cars with the
+ *    same jobs, so their differences are much less noisy.
+ *
+ *    With antithetic pairs, replications 2k-1 and 2k share
+ *    their seeds and the second one uses 1-U in place of
+ *    every uniform U, so the pair's errors tend to cancel.
+ *
+ * Last Edited: October 2026
+ */
+
+public final class RandomStreams
+{
+   /** The sources of randomness in the shop */
+   public enum Source
+   {
+      ARRIVALS_8_10, ARRIVALS_10_4, ARRIVALS_4_8,
+      MECHANIC_FIX_TIMES, SPECIALIST_FIX_TIMES,
+      REFERRALS, BALKS
+   }
+
+   public final int     baseSeed;
+   public final int     runNumber;
+   public final boolean common;
+   public final boolean antithetic;
+
+   /**
+    * @param baseSeed : The seed the user entered
+    * @param runNumber : The replication number
+    * @param common : True for a dedicated stream per source (CRN)
+    */
+   public RandomStreams(int baseSeed, int runNumber, boolean common)
+   {
+      this(baseSeed, runNumber, common, false);
+   }
+
+   /**
+    * @param baseSeed : The seed the user entered
+    * @param runNumber : The replication number
+    * @param common : True for a dedicated stream per source (CRN)
+    * @param antithetic : True to run the replications in antithetic pairs
+    */
+   public RandomStreams(int baseSeed, int runNumber, boolean common, boolean antithetic)
+   {
+      this.baseSeed = baseSeed;
+      this.runNumber = runNumber;
+      this.common = common;
+      this.antithetic = antithetic;
+   }
+
+   /**
+    * @return : True if this replication uses 1-U (the second of an antithetic pair).
+    */
+   public boolean isMirrored()
+   {
+      return antithetic && runNumber % 2 == 0;
+   }
+
+   /**
+    * @return : The replication whose seeds this one uses 
+    *           (the first of its pair, or itself).
+    */
+   private int streamRun()
+   {
+      return isMirrored() ? runNumber - 1 : runNumber;
+   }
+
+   /**
+    * @return : The seed of the whole experiment (as it has always been).
+    */
+   public int experimentSeed()
+   {
+      return ReplicationModel.seedFor(baseSeed, streamRun());
+   }
+
+   /**
+    * @return : The seed of the dedicated stream for a source (CRN).
+    */
+   public long seedFor(Source source)
+   {
+      long key = mix(baseSeed);
+      key = mix(key ^ (streamRun() * 0x9E3779B97F4A7C15L));
+      return mix(key ^ ((source.ordinal() + 1) * 0xC2B2AE3D27D4EB4FL));
+   }
+
+   /**
+    * SplitMix64 finalizer, spreads nearby keys far apart.
+    */
+   static long mix(long z)
+   {
+      z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+      z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+      return z ^ (z >>> 31);
+   }
+}
@@ -0,0 +1,485 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class runs one campaign of replications of a
+ *    single shop configuration: the executor (or worker
+ *    processes), the result cache, checkpoints, antithetic
+ *    pairing and sequential stopping.
+ *    It keeps a SampleStatistics per Metric and hands every
+ *    replication and every observation to the caller, but
+ *    has no user interface of its own, so it is shared by
+ *    the ReplicationModel (Swing) and the BatchRunner
+ *    (command line).
+ *
+ * Last Edited: October 2026
+ */
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+public class ReplicationCampaign
+{
+   private final ShopConfig config;
+   private final ReplicationModel.Engine engine;
+   private final int seed;
+   private final int numWorkers;
+   private volatile int maxReplications;
+
+   /** Options (see the setters) */
+   private boolean adaptive;
+   private double targetRelativeHalfWidth;
+   private Metric[] targetMetrics = {};
+   private int batchSize = 20;
+   private boolean common;
+   private boolean antithetic;
+   private ResultCache cache;
+   private int workerProcesses;
+   private CampaignCheckpoint checkpoint;
+
+   /** Statistics of the observations (pair means with antithetic pairs) */
+   private final EnumMap<Metric, SampleStatistics> statistics = new EnumMap<>(Metric.class);
+   private AntitheticPairs pairs;
+   private volatile int replicationsRun;
+   private long elapsedNanos;
+   
+   /** Set by cancel() (possibly from another thread) */
+   private volatile boolean cancelled;
+   private volatile ReplicationExecutor executor;
+   private volatile ReplicationCoordinator coordinator;
+   
+   /** SimulationMetrics when the last run started, and over the whole run */
+   private volatile MetricsSnapshot metricsAtStart;
+   private volatile MetricsSnapshot metrics;
+
+   /**
+    * @param config : The settings every replication uses
+    * @param engine : Which version of the shop model to run
+    * @param seed : The seed the user entered
+    * @param maxReplications : Replications to run (the most, when adaptive)
+    * @param numWorkers : Threads to run replications on
+    */
+   public ReplicationCampaign(ShopConfig config, ReplicationModel.Engine engine, int seed,
+         int maxReplications, int numWorkers)
+   {
+      this.config = config;
+      this.engine = engine;
+      this.seed = seed;
+      this.maxReplications = maxReplications;
+      this.numWorkers = numWorkers;
+
+      for (Metric metric : Metric.values())
+         statistics.put(metric, new SampleStatistics());
+   }
+
+   /**
+    * A campaign with the ReplicationModel's current settings 
+    * (ie. whatever the user selected in the Driver).
+    */
+   public static ReplicationCampaign fromSettings()
+   {
+      ReplicationCampaign campaign = new ReplicationCampaign(ShopConfig.snapshot(), ReplicationModel.ENGINE,
+            ReplicationModel.SEED, ReplicationModel.NUM_REPLICATIONS, ReplicationModel.NUM_WORKERS);
+
+      if (ReplicationModel.ADAPTIVE_REPLICATIONS)
+         campaign.setAdaptive(ReplicationModel.TARGET_RELATIVE_HALF_WIDTH, 
+               ReplicationModel.TARGET_METRICS.clone(), ReplicationModel.ADAPTIVE_BATCH_SIZE);
+
+      campaign.setCommonRandomNumbers(ReplicationModel.COMMON_RANDOM_NUMBERS);
+      campaign.setAntithetic(ReplicationModel.ANTITHETIC_REPLICATIONS);
+      campaign.setCache(ReplicationModel.CACHE_RESULTS ? ReplicationModel.resultCache() : null);
+      campaign.setWorkerProcesses(ReplicationModel.WORKER_PROCESSES);
+
+      if (ReplicationModel.CHECKPOINT_FILE != null)
+      {
+         try
+         {
+            campaign.setCheckpoint(CampaignCheckpoint.open(Paths.get(ReplicationModel.CHECKPOINT_FILE),
+                  campaign, ReplicationModel.RESUME_FROM_CHECKPOINT, ReplicationModel.CHECKPOINT_EVERY,
+                  ReplicationModel.CHECKPOINT_SECONDS * 1000L));
+         }
+         catch (IOException e)
+         {
+            // Run the campaign anyway, just without a checkpoint.
+            System.err.println("Checkpoint unavailable: " + e.getMessage());
+         }
+      }
+      return campaign;
+   }
+
+   /**
+    * Stop in batches as soon as every target metric's confidence
+    * interval is within the given fraction of its mean (with
+    * antithetic pairs, an odd batch size is rounded up).
+    */
+   public void setAdaptive(double targetRelativeHalfWidth, Metric[] targetMetrics, int batchSize)
+   {
+      this.adaptive = true;
+      this.targetRelativeHalfWidth = targetRelativeHalfWidth;
+      this.targetMetrics = targetMetrics;
+      this.batchSize = Math.max(1, batchSize);
+   }
+
+   /**
+    * @throws IllegalArgumentException : If the engine does not use the streams.
+    */
+   public void setCommonRandomNumbers(boolean common)
+   {
+      if (common && !engine.usesStreams())
+         throw new IllegalArgumentException(engine + " can't use common random numbers");
+      this.common = common;
+   }
+
+   /**
+    * Run the replications in antithetic pairs (an odd limit or batch size is rounded up).
+    * 
+    * @throws IllegalArgumentException : If the engine does not use the streams 
+    *                                    (so the second run would not mirror the first).
+    */
+   public void setAntithetic(boolean antithetic)
+   {
+      if (antithetic && !engine.usesStreams())
+         throw new IllegalArgumentException(engine + " can't run antithetic pairs");
+      this.antithetic = antithetic;
+   }
+
+   /**
+    * Run the replications in separate worker JVMs (see ReplicationCoordinator)
+    * instead of on threads.  The result cache is not used then, and the
+    * SimulationMetrics of the replications stay in the worker processes.
+    * 
+    * @param processes : Worker JVMs to start (0 = run in this JVM)
+    */
+   public void setWorkerProcesses(int processes)
+   {
+      this.workerProcesses = Math.max(0, processes);
+   }
+
+   /**
+    * @param cache : Where to look up replications first (null = always simulate)
+    */
+   public void setCache(ResultCache cache)
+   {
+      this.cache = cache;
+   }
+
+   /**
+    * Keep a checkpoint of the campaign.  The replications stored in it are 
+    * merged instead of run again, and every new one is appended to it.  The 
+    * campaign closes it when it is over.
+    *
+    * @param checkpoint : Where to keep the replications (null = no checkpoint)
+    */
+   public void setCheckpoint(CampaignCheckpoint checkpoint)
+   {
+      this.checkpoint = checkpoint;
+   }
+
+   /**
+    * Write every setting that changes what the campaign's replications (and 
+    * its stopping point) are, eg. so a checkpoint can tell it is for this campaign.
+    * The number of workers, the cache and the worker processes do not.
+    */
+   void writeSettings(DataOutput out) throws IOException
+   {
+      out.writeByte(engine.ordinal());
+      config.writeTo(out);
+      out.writeInt(seed);
+      out.writeBoolean(common);
+      out.writeBoolean(antithetic);
+      out.writeInt(maxReplications);
+      out.writeBoolean(adaptive);
+      if (adaptive)
+      {
+         out.writeDouble(targetRelativeHalfWidth);
+         out.writeInt(batchSize);
+         out.writeInt(targetMetrics.length);
+         for (Metric metric : targetMetrics)
+            out.writeByte(metric.ordinal());
+      }
+   }
+
+   /**
+    * Run the campaign.
+    *
+    * @param onReplication : Receives every replication, in replication order
+    * @param onObservation : Receives every observation (a replication, or the 
+    *                        mean of an antithetic pair), metric by metric
+    *
+    * @return : True if every replication ran correctly (a cancelled 
+    *           run keeps the replications that finished).
+    */
+   public boolean run(Consumer<ReplicationResult> onReplication, 
+         Consumer<EnumMap<Metric, Double>> onObservation)
+   {
+      Consumer<EnumMap<Metric, Double>> observe = observation ->
+      {
+         observation.forEach((metric, value) -> statistics.get(metric).update(value));
+         onObservation.accept(observation);
+      };
+
+      // Antithetic replications only come in whole pairs (so do batches,
+      // or the stopping rule would be checked with half a pair run).
+      if (antithetic)
+      {
+         maxReplications += maxReplications % 2;
+         batchSize += batchSize % 2;
+         pairs = new AntitheticPairs(observe);
+      }
+
+      Consumer<ReplicationResult> merge = result ->
+      {
+         replicationsRun++;
+         onReplication.accept(result);
+
+         if (pairs != null)
+            pairs.add(result);
+         else
+            observe.accept(observation(result));
+      };
+
+      // Only run what is not in the cache already.
+      IntFunction<ReplicationResult> replication = runNumber ->
+      {
+         RandomStreams streams = new RandomStreams(seed, runNumber, common, antithetic);
+         return cache != null ? cache.simulate(engine, config, streams) 
+                              : ReplicationModel.simulate(engine, config, streams);
+      };
+
+      // One executor (and one pool of threads) for the whole campaign.
+      // With worker processes, every replication runs in another JVM.
+      ReplicationExecutor executor = new ReplicationExecutor(numWorkers);
+      ReplicationCoordinator coordinator = workerProcesses == 0 ? null 
+            : new ReplicationCoordinator(workerProcesses, engine, config, seed, common, antithetic);
+      BiPredicate<Integer, Integer> runRange = (first, last) -> coordinator != null 
+            ? coordinator.run(first, last, merge) 
+            : executor.run(first, last, replication, merge);
+
+      // Replications in the checkpoint are merged, not run again.
+      if (checkpoint != null)
+      {
+         List<ReplicationResult> completed = checkpoint.getCompleted();
+         Consumer<ReplicationResult> mergeNew = result ->
+         {
+            merge.accept(result);
+            append(result);
+         };
+         runRange = (first, last) ->
+         {
+            int stored = Math.min(last, completed.size());
+            for (int runNumber = first; runNumber <= stored && !cancelled; runNumber++)
+               merge.accept(completed.get(runNumber - 1));
+
+            int next = Math.max(first, stored + 1);
+            if (cancelled || next > last)
+               return true;
+            return coordinator != null ? coordinator.run(next, last, mergeNew)
+                                       : executor.run(next, last, replication, mergeNew);
+         };
+      }
+
+      this.executor = executor;
+      this.coordinator = coordinator;
+      if (cancelled)
+         cancel();
+      metrics = null;
+      metricsAtStart = SimulationMetrics.GLOBAL.snapshot();
+      long start = System.nanoTime();
+      boolean ok = true;
+
+      try
+      {
+         if (!adaptive)
+            ok = runRange.test(1, maxReplications);
+         else
+         {
+            // Batches have a fixed size, so the stopping point 
+            // does not depend on the number of workers.
+            int first = 1;
+            while (ok && !cancelled && first <= maxReplications && (first == 1 || !targetsMet()))
+            {
+               int last = Math.min(first + batchSize - 1, maxReplications);
+               ok = runRange.test(first, last);
+               first = last + 1;
+            }
+         }
+      }
+      finally
+      {
+         executor.close();
+         if (coordinator != null)
+            coordinator.close();
+         closeCheckpoint();
+      }
+
+      elapsedNanos = System.nanoTime() - start;
+      metrics = SimulationMetrics.GLOBAL.snapshot().since(metricsAtStart);
+      if (cache != null)
+         cache.flush();
+      return ok;
+   }
+
+   /**
+    * Add a new replication to the checkpoint.  If that fails,
+    * the campaign goes on without one.
+    */
+   private void append(ReplicationResult result)
+   {
+      if (checkpoint == null)
+         return;
+
+      try
+      {
+         checkpoint.append(result);
+      }
+      catch (IOException e)
+      {
+         System.err.println("Checkpoint stopped: " + e.getMessage());
+         closeCheckpoint();
+      }
+   }
+
+   /**
+    * Make everything in the checkpoint durable and close it.
+    */
+   private void closeCheckpoint()
+   {
+      CampaignCheckpoint closing = checkpoint;
+      checkpoint = null;
+      if (closing == null)
+         return;
+
+      try
+      {
+         closing.close();
+      }
+      catch (IOException e)
+      {
+         System.err.println("Checkpoint stopped: " + e.getMessage());
+      }
+   }
+
+   /**
+    * Stop the campaign as soon as possible (from any thread).
+    * The replications merged so far are kept.
+    */
+   public void cancel()
+   {
+      cancelled = true;
+      ReplicationExecutor running = executor;
+      if (running != null)
+         running.cancel();
+      ReplicationCoordinator processes = coordinator;
+      if (processes != null)
+         processes.cancel();
+   }
+
+   public boolean isCancelled()
+   {
+      return cancelled;
+   }
+
+   /**
+    * @return : Every metric's value in a single replication.
+    */
+   public static EnumMap<Metric, Double> observation(ReplicationResult result)
+   {
+      EnumMap<Metric, Double> observation = new EnumMap<>(Metric.class);
+      for (Metric metric : Metric.values())
+         observation.put(metric, metric.of(result));
+      return observation;
+   }
+
+   /**
+    * @return : True if every target metric's relative half-width is small enough.
+    */
+   public boolean targetsMet()
+   {
+      for (Metric metric : targetMetrics)
+      {
+         if (relativeHalfWidth(statistics.get(metric)) > targetRelativeHalfWidth)
+            return false;
+      }
+      return true;
+   }
+
+   /**
+    * The half-width of a confidence interval relative to its mean.
+    *
+    * @return : Half-width / |mean| (infinite until there are 2 observations).
+    */
+   public static double relativeHalfWidth(SampleStatistics stats)
+   {
+      double halfWidth = stats.getHalfWidth();
+      double mean = Math.abs(stats.getMean());
+
+      if (mean == 0)
+         return halfWidth == 0 ? 0 : Double.POSITIVE_INFINITY;
+
+      return halfWidth / mean;
+   }
+
+   public SampleStatistics get(Metric metric)
+   {
+      return statistics.get(metric);
+   }
+
+   public ShopConfig getConfig()
+   {
+      return config;
+   }
+
+   public boolean isAdaptive()
+   {
+      return adaptive;
+   }
+
+   /**
+    * @return : The antithetic pairs (null if they are not being used).
+    */
+   public AntitheticPairs getAntitheticPairs()
+   {
+      return pairs;
+   }
+
+   public int getMaxReplications()
+   {
+      return maxReplications;
+   }
+
+   public int getReplicationsRun()
+   {
+      return replicationsRun;
+   }
+
+   /**
+    * @return : Wall-clock time of the last run.
+    */
+   public long getElapsedNanos()
+   {
+      return elapsedNanos;
+   }
+
+   /**
+    * What the simulated replications did (cache hits are not simulated).
+    * Can be called while the campaign runs, but it includes everything 
+    * recorded since the run started, eg. by other campaigns.
+    * 
+    * @return : The metrics of the last run so far (null before the first run).
+    */
+   public MetricsSnapshot getMetrics()
+   {
+      MetricsSnapshot finished = metrics;
+      if (finished != null)
+         return finished;
+
+      MetricsSnapshot started = metricsAtStart;
+      return started == null ? null : SimulationMetrics.GLOBAL.snapshot().since(started);
+   }
+}
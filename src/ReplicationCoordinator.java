@@ -0,0 +1,418 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class runs replications in separate worker
+ *    JVMs (see ReplicationWorker) on this machine, so a
+ *    campaign is not limited to a single JVM and no run
+ *    shares any static state with another.  Replications
+ *    are split into work units (a range of replication
+ *    numbers) that each worker takes one at a time over
+ *    its own loopback socket.
+ *
+ *    If a worker dies, the rest of its unit goes back to
+ *    the front of the queue for any worker to take, and
+ *    the worker is started again (at most MAX_RESTARTS
+ *    times).  Results are handed back in replication
+ *    order, so the aggregate statistics are exactly the
+ *    same as with a ReplicationExecutor.
+ *
+ *    Workers are started with this JVM's own options (heap
+ *    size, GC, -D properties, agents ...), except for a
+ *    debugger or a flight recording, which every worker
+ *    would fight over.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.Consumer;
+
+public class ReplicationCoordinator implements AutoCloseable
+{
+   /** Times a worker is started again after dying */
+   private static final int MAX_RESTARTS = 3;
+
+   /** Longest a new worker may take to connect */
+   private static final long CONNECT_TIMEOUT_MILLIS = 30_000;
+
+   /** Units per worker in each run (so the work evens out) and their largest size */
+   private static final int UNITS_PER_WORKER = 4;
+   private static final int MAX_UNIT_SIZE = 100;
+
+   private final ReplicationModel.Engine engine;
+   private final ShopConfig config;
+   private final int seed;
+   private final boolean common;
+   private final boolean antithetic;
+   private final Worker[] workers;
+
+   /** Work units {first, last} still to be taken */
+   private final LinkedBlockingDeque<int[]> units = new LinkedBlockingDeque<>();
+
+   /** Results that arrived out of order (null = failed), guarded by itself */
+   private final HashMap<Integer, ReplicationResult> arrived = new HashMap<>();
+   private int workersLeft;
+
+   private volatile boolean cancelled;
+   private volatile boolean closed;
+
+   /**
+    * @param numProcesses : Worker JVMs to start
+    * @param engine : Which version of the shop model to run
+    * @param config : The settings every replication uses
+    * @param seed : The seed the user entered
+    * @param common : Common random numbers
+    * @param antithetic : Antithetic pairs
+    */
+   public ReplicationCoordinator(int numProcesses, ReplicationModel.Engine engine, ShopConfig config,
+         int seed, boolean common, boolean antithetic)
+   {
+      this.engine = engine;
+      this.config = config;
+      this.seed = seed;
+      this.common = common;
+      this.antithetic = antithetic;
+      this.workers = new Worker[Math.max(1, numProcesses)];
+      this.workersLeft = workers.length;
+
+      for (int i = 0; i < workers.length; i++)
+      {
+         workers[i] = new Worker(i + 1);
+         workers[i].start();
+      }
+   }
+
+   /**
+    * Run replications first..last (inclusive) on the workers.
+    *
+    * @param first : The first replication number
+    * @param last : The last replication number
+    * @param merge : Receives each result on the calling thread, in replication order
+    *
+    * @return : True if every replication ran correctly (or the run was cancelled).
+    */
+   public boolean run(int first, int last, Consumer<ReplicationResult> merge)
+   {
+      int unitSize = (last - first + 1) / (workers.length * UNITS_PER_WORKER);
+      unitSize = Math.max(1, Math.min(MAX_UNIT_SIZE, unitSize));
+      for (int start = first; start <= last; start += unitSize)
+         units.add(new int[]{ start, Math.min(last, start + unitSize - 1) });
+
+      for (int next = first; next <= last; next++)
+      {
+         ReplicationResult result;
+         synchronized (arrived)
+         {
+            try
+            {
+               while (!arrived.containsKey(next) && !cancelled && workersLeft > 0)
+                  arrived.wait();
+            }
+            catch (InterruptedException e)
+            {
+               Thread.currentThread().interrupt();
+               cancel();
+            }
+
+            if (cancelled)
+               return true;
+
+            // Every worker died too often to go on.
+            if (!arrived.containsKey(next))
+               return false;
+
+            result = arrived.remove(next);
+         }
+
+         if (result == null)
+            return false;
+
+         merge.accept(result);
+      }
+      return true;
+   }
+
+   /**
+    * Stop handing out work (from any thread).  run() returns right
+    * away; the workers are stopped by close().
+    */
+   public void cancel()
+   {
+      cancelled = true;
+      units.clear();
+      synchronized (arrived)
+      {
+         arrived.notifyAll();
+      }
+   }
+
+   /**
+    * Stop every worker process.
+    */
+   @Override
+   public void close()
+   {
+      closed = true;
+      cancel();
+      for (Worker worker : workers)
+         worker.shutdown();
+   }
+
+   /**
+    * Hand a result (or a failure) to run().
+    */
+   private void deliver(int runNumber, ReplicationResult result)
+   {
+      synchronized (arrived)
+      {
+         arrived.put(runNumber, result);
+         arrived.notifyAll();
+      }
+   }
+
+   /**
+    * A worker gave up (it died too many times).
+    */
+   private void workerLost()
+   {
+      synchronized (arrived)
+      {
+         workersLeft--;
+         arrived.notifyAll();
+      }
+   }
+
+   /**
+    * Takes units off the queue and runs them in its worker process
+    * (started when it is first needed, and again if it dies).
+    */
+   private class Worker extends Thread
+   {
+      private final int id;
+      private int restarts;
+
+      private volatile Process process;
+      private volatile Socket socket;
+      private DataInputStream in;
+      private DataOutputStream out;
+
+      Worker(int id)
+      {
+         super("Replication Coordinator-" + id);
+         this.id = id;
+         setDaemon(true);
+      }
+
+      @Override
+      public void run()
+      {
+         try
+         {
+            while (!closed)
+            {
+               int[] unit = units.take();
+               if (!runUnit(unit))
+               {
+                  workerLost();
+                  return;
+               }
+            }
+         }
+         catch (InterruptedException e)
+         {
+            // Closed.
+         }
+         finally
+         {
+            disconnect();
+         }
+      }
+
+      /**
+       * @return : False if this worker died too many times to go on.
+       */
+      private boolean runUnit(int[] unit)
+      {
+         int next = unit[0];
+         try
+         {
+            if (socket == null)
+               connect();
+
+            out.writeByte(ReplicationWorker.UNIT);
+            out.writeByte(engine.ordinal());
+            config.writeTo(out);
+            out.writeInt(seed);
+            out.writeBoolean(common);
+            out.writeBoolean(antithetic);
+            out.writeInt(unit[0]);
+            out.writeInt(unit[1]);
+            out.flush();
+
+            while (true)
+            {
+               byte reply = in.readByte();
+               if (reply == ReplicationWorker.DONE)
+                  return true;
+
+               if (reply == ReplicationWorker.RESULT)
+               {
+                  ReplicationResult result = ReplicationResult.readFrom(in);
+                  deliver(result.runNumber, result);
+                  next = result.runNumber + 1;
+               }
+               else
+               {
+                  int runNumber = in.readInt();
+                  deliver(runNumber, null);
+                  next = runNumber + 1;
+               }
+            }
+         }
+         catch (IOException e)
+         {
+            disconnect();
+            if (closed)
+               return true;
+
+            // Someone else (or this worker, started again) finishes the unit.
+            if (next <= unit[1] && !cancelled)
+               units.addFirst(new int[]{ next, unit[1] });
+
+            System.err.println("ReplicationCoordinator: worker " + id + " died (" + e + ")");
+            return ++restarts <= MAX_RESTARTS;
+         }
+      }
+
+      /**
+       * Start the worker process and wait for it to connect back.
+       */
+      private void connect() throws IOException
+      {
+         long token = new SecureRandom().nextLong();
+         try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress()))
+         {
+            server.setSoTimeout(500);
+            process = new ProcessBuilder(workerCommand(server.getLocalPort(), token))
+                  .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                  .redirectError(ProcessBuilder.Redirect.INHERIT)
+                  .start();
+
+            long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MILLIS;
+            while (socket == null)
+            {
+               if (!process.isAlive() || closed || System.currentTimeMillis() > deadline)
+                  throw new IOException("worker did not start");
+
+               try
+               {
+                  Socket candidate = server.accept();
+                  candidate.setSoTimeout((int)CONNECT_TIMEOUT_MILLIS);
+                  DataInputStream candidateIn = new DataInputStream(
+                        new BufferedInputStream(candidate.getInputStream()));
+
+                  // Only the process that was just started knows the token.
+                  if (candidateIn.readLong() != token)
+                  {
+                     candidate.close();
+                     continue;
+                  }
+
+                  candidate.setSoTimeout(0);
+                  candidate.setTcpNoDelay(true);
+                  in = candidateIn;
+                  out = new DataOutputStream(new BufferedOutputStream(candidate.getOutputStream()));
+                  socket = candidate;
+               }
+               catch (SocketTimeoutException e)
+               {
+                  // Check on the process, then keep waiting.
+               }
+            }
+         }
+      }
+
+      /**
+       * Close the connection and make sure the process is gone.
+       */
+      private void disconnect()
+      {
+         Socket connection = socket;
+         socket = null;
+         try
+         {
+            if (connection != null)
+               connection.close();
+         }
+         catch (IOException e)
+         {
+            // Closing anyway.
+         }
+
+         Process running = process;
+         process = null;
+         if (running != null)
+            running.destroyForcibly();
+      }
+
+      /**
+       * Stop this thread and its process (the worker also 
+       * exits by itself when the connection closes).
+       */
+      void shutdown()
+      {
+         interrupt();
+         disconnect();
+      }
+   }
+
+   /**
+    * @return : The command line of a worker that connects back to the port.
+    */
+   private static List<String> workerCommand(int port, long token)
+   {
+      List<String> command = new ArrayList<>();
+      command.add(javaCommand());
+
+      for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments())
+      {
+         // A second debugger (same port) or recording (same file) would fail or clash.
+         if (option.startsWith("-agentlib:jdwp") || option.startsWith("-Xrunjdwp")
+               || option.startsWith("-XX:StartFlightRecording"))
+            continue;
+         command.add(option);
+      }
+
+      command.add("-cp");
+      command.add(System.getProperty("java.class.path"));
+      command.add(ReplicationWorker.class.getName());
+      command.add(Integer.toString(port));
+      command.add(Long.toString(token));
+      return command;
+   }
+
+   /**
+    * @return : The java launcher of this JVM.
+    */
+   private static String javaCommand()
+   {
+      return ProcessHandle.current().info().command()
+            .orElse(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+   }
+}
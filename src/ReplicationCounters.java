@@ -0,0 +1,100 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    The instrumentation counters of a single replication.
+ *    A replication only ever runs one piece of the model at
+ *    a time, so these are plain fields with no locking; the
+ *    totals are handed to the SimulationMetrics registry
+ *    once, when the replication is over.
+ *
+ *    For the process models, an "event" is a process being
+ *    scheduled (activate or hold); for the event model and
+ *    the kernel it is an event routine being run.
+ *
+ * Last Edited: October 2026
+ */
+
+public final class ReplicationCounters
+{
+   /** The kinds of process in the shop */
+   public enum Entity { GENERATOR, CUSTOMER, MECHANIC, SPECIALIST }
+
+   /** The scheduling calls that are counted */
+   public enum Call { ACTIVATE, PASSIVATE, HOLD }
+
+   static final int NUM_CALLS = Entity.values().length * Call.values().length;
+
+   private long events;
+   private final long[] calls = new long[NUM_CALLS];
+   private int peakWaitingForMechanic;
+   private int peakWaitingForSpecialist;
+
+   /**
+    * Count a scheduling call on a process of the given kind.
+    */
+   public void count(Entity entity, Call call)
+   {
+      calls[index(entity, call)]++;
+      if (call != Call.PASSIVATE)
+         events++;
+   }
+
+   /**
+    * Count an event routine being run.
+    */
+   public void event()
+   {
+      events++;
+   }
+
+   public void addEvents(long count)
+   {
+      events += count;
+   }
+
+   /**
+    * Add everything another set of counters counted (eg. a model's).
+    */
+   public void add(ReplicationCounters other)
+   {
+      events += other.events;
+      for (int i = 0; i < calls.length; i++)
+         calls[i] += other.calls[i];
+      peaks(other.peakWaitingForMechanic, other.peakWaitingForSpecialist);
+   }
+
+   /**
+    * Record the longest the waiting lines got.
+    */
+   public void peaks(int waitingForMechanic, int waitingForSpecialist)
+   {
+      peakWaitingForMechanic = Math.max(peakWaitingForMechanic, waitingForMechanic);
+      peakWaitingForSpecialist = Math.max(peakWaitingForSpecialist, waitingForSpecialist);
+   }
+
+   public long getEvents()
+   {
+      return events;
+   }
+
+   public long getCalls(Entity entity, Call call)
+   {
+      return calls[index(entity, call)];
+   }
+
+   public int getPeakWaitingForMechanic()
+   {
+      return peakWaitingForMechanic;
+   }
+
+   public int getPeakWaitingForSpecialist()
+   {
+      return peakWaitingForSpecialist;
+   }
+
+   static int index(Entity entity, Call call)
+   {
+      return entity.ordinal() * Call.values().length + call.ordinal();
+   }
+}
@@ -0,0 +1,83 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    A Java Flight Recorder event covering a single
+ *    replication, from when it starts until it ends, with
+ *    the settings and seed it ran with.  Shown in a
+ *    recording next to GC pauses and thread activity, it
+ *    tells exactly which replications were expensive.
+ *
+ *    When nothing is recording, JFR events are disabled and
+ *    the JIT removes them, so this costs effectively nothing.
+ *
+ *       java -XX:StartFlightRecording=filename=shop.jfr ...
+ *
+ * Last Edited: October 2026
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("autobodyshop.Replication")
+@Label("Replication")
+@Category({"Auto Body Shop", "Replications"})
+@Description("A single run of the shop model")
+@StackTrace(false)
+public class ReplicationEvent extends Event
+{
+   @Label("Engine")
+   public String engine;
+
+   @Label("Replication Number")
+   public int runNumber;
+
+   @Label("Base Seed")
+   public int baseSeed;
+
+   @Label("Common Random Numbers")
+   public boolean common;
+
+   @Label("Antithetic")
+   public boolean antithetic;
+
+   @Label("Hours")
+   public int operationHours;
+
+   @Label("Mechanics")
+   public int numMechanics;
+
+   @Label("Specialists")
+   public int numSpecialists;
+
+   @Label("Stalls")
+   public int numStalls;
+
+   @Label("Succeeded")
+   @Description("False if the replication did not run correctly")
+   public boolean succeeded;
+
+   @Label("Events")
+   @Description("Events executed (see SimulationMetrics)")
+   public long events;
+
+   /**
+    * Fill in the replication's settings (call before begin()).
+    */
+   public void describe(ReplicationModel.Engine engine, ShopConfig config, RandomStreams streams)
+   {
+      this.engine = engine.name();
+      this.runNumber = streams.runNumber;
+      this.baseSeed = streams.baseSeed;
+      this.common = streams.common;
+      this.antithetic = streams.antithetic;
+      this.operationHours = config.operationHours;
+      this.numMechanics = config.numMechanics;
+      this.numSpecialists = config.numSpecialists;
+      this.numStalls = config.numStalls;
+   }
+}
@@ -0,0 +1,207 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class runs a range of replications on a
+ *    pool of worker threads.  Results are handed back
+ *    to the caller one at a time and in replication
+ *    order, so the aggregate statistics are the same
+ *    no matter how many workers are used.
+ *
+ *    The threads are started on the first run and kept
+ *    for every run after it (eg. each batch of an adaptive
+ *    campaign) until the executor is closed.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+public class ReplicationExecutor implements AutoCloseable
+{
+   /** Number of replications queued per worker (keeps memory bounded) */
+   private static final int QUEUED_PER_WORKER = 4;
+
+   private final int numWorkers;
+   private volatile boolean cancelled;
+
+   /** The worker threads (null until the first run, and with a single worker) */
+   private ExecutorService pool;
+
+   /**
+    * @param numWorkers : Threads to run replications on (1 = run on the calling thread)
+    */
+   public ReplicationExecutor(int numWorkers)
+   {
+      this.numWorkers = Math.max(1, numWorkers);
+   }
+
+   /**
+    * Run replications first..last (inclusive).
+    *
+    * @param first : The first replication number
+    * @param last : The last replication number
+    * @param replication : Runs one replication, returns null (or throws) if it failed
+    * @param merge : Receives each result on the calling thread, in replication order
+    *
+    * @return : True if every replication ran correctly (or the run was cancelled).
+    *           A replication that throws is reported on System.err and counts
+    *           as failed, with any number of workers.
+    */
+   public boolean run(int first, int last, IntFunction<ReplicationResult> replication,
+         Consumer<ReplicationResult> merge)
+   {
+      // A single worker runs exactly like the old serial loop.
+      if (numWorkers == 1)
+      {
+         for (int i = first; i <= last && !cancelled; ++i)
+         {
+            ReplicationResult result;
+            try
+            {
+               result = replication.apply(i);
+            }
+            catch (RuntimeException | Error e)
+            {
+               result = failed(i, e);
+            }
+
+            if (result == null)
+               return cancelled;
+
+            merge.accept(result);
+         }
+         return true;
+      }
+
+      if (pool == null)
+         pool = Executors.newFixedThreadPool(numWorkers, workerFactory());
+      ArrayDeque<Future<ReplicationResult>> inFlight = new ArrayDeque<>();
+      int next = first;
+      int oldest = first;
+
+      try
+      {
+         while ((next <= last || !inFlight.isEmpty()) && !cancelled)
+         {
+            // Keep every worker busy without queueing the whole campaign.
+            while (next <= last && inFlight.size() < numWorkers * QUEUED_PER_WORKER)
+            {
+               final int runNumber = next++;
+               inFlight.add(pool.submit(() -> replication.apply(runNumber)));
+            }
+
+            // Merge the oldest replication (waits for it if needed).
+            ReplicationResult result = await(inFlight.removeFirst(), oldest++);
+            if (result == null)
+               return cancelled;
+
+            merge.accept(result);
+         }
+         return true;
+      }
+      finally
+      {
+         // Interrupt the replications still running when the run stops early.
+         for (Future<ReplicationResult> future : inFlight)
+            future.cancel(true);
+      }
+   }
+
+   @Override
+   /**
+    * Stop the worker threads (interrupting any replication still
+    * running).  The executor can't run replications after this.
+    */
+   public void close()
+   {
+      cancelled = true;
+      if (pool != null)
+         pool.shutdownNow();
+   }
+
+   /**
+    * Stop starting replications.  The run returns as soon as the
+    * replication it is waiting for is done (the results merged so
+    * far are kept) and the others still running are interrupted.
+    * Can be called from any thread.
+    */
+   public void cancel()
+   {
+      cancelled = true;
+   }
+
+   public boolean isCancelled()
+   {
+      return cancelled;
+   }
+
+   /**
+    * @return : The number of threads replications run on.
+    */
+   public int getNumWorkers()
+   {
+      return numWorkers;
+   }
+
+   /**
+    * Wait for a replication to finish.
+    *
+    * @return : The result, or null if it failed or the wait was interrupted.
+    */
+   private ReplicationResult await(Future<ReplicationResult> future, int runNumber)
+   {
+      try
+      {
+         return future.get();
+      }
+      catch (ExecutionException e)
+      {
+         return failed(runNumber, e.getCause());
+      }
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
+         return null;
+      }
+   }
+
+   /**
+    * Report why a replication threw (unless the run was cancelled,
+    * which interrupts the replications still running).
+    *
+    * @return : null, the result of a failed replication.
+    */
+   private ReplicationResult failed(int runNumber, Throwable cause)
+   {
+      if (!cancelled)
+      {
+         System.err.println("Replication " + runNumber + " failed:");
+         cause.printStackTrace();
+      }
+      return null;
+   }
+
+   /**
+    * Worker threads are daemons so a stuck replication
+    * can never keep the program from exiting.
+    */
+   private static ThreadFactory workerFactory()
+   {
+      AtomicInteger count = new AtomicInteger();
+      return runnable ->
+      {
+         Thread thread = new Thread(runnable, "Replication Worker-" + count.incrementAndGet());
+         thread.setDaemon(true);
+         return thread;
+      };
+   }
+}
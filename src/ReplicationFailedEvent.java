@@ -0,0 +1,28 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    A Java Flight Recorder event for a replication that
+ *    did not run correctly (an error in the experiment, or
+ *    bad values in its results), with everything needed to
+ *    run it again on its own.
+ *
+ * Last Edited: October 2026
+ */
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("autobodyshop.ReplicationFailed")
+@Label("Replication Failed")
+@Category({"Auto Body Shop", "Replications"})
+@Description("A run of the shop model that did not run correctly")
+@StackTrace(false)
+public class ReplicationFailedEvent extends ReplicationEvent
+{
+   @Label("Error")
+   public String error;
+}
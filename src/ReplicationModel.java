@@ -1,4 +1,3 @@
-package Simulation;
 /**
  * @author Riley Radle
  * 
@@ -12,11 +11,13 @@ package Simulation;
  * Last Edited: August 2021
  */
 
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import desmoj.core.simulator.*;
 import desmoj.core.statistic.*;
-import java.awt.*;
-import javax.swing.*;
 
 public class ReplicationModel extends Model
 {
@@ -24,6 +25,105 @@ public class ReplicationModel extends Model
    public static int SEED = 972;
    public static int NUM_REPLICATIONS = 100;
    public static boolean INCLUDE_OUTPUT_PER_REPLICATION = true;
+   public static int NUM_WORKERS = Runtime.getRuntime().availableProcessors();
+   
+   /** Worker JVMs to run replications in (0 = threads in this JVM, see ReplicationCoordinator) */
+   public static int WORKER_PROCESSES = 0;
+   
+   /** Sequential stopping (NUM_REPLICATIONS becomes the most that will run) */
+   public static boolean ADAPTIVE_REPLICATIONS = false;
+   public static double TARGET_RELATIVE_HALF_WIDTH = 0.05;
+   public static Metric[] TARGET_METRICS = { Metric.DAILY_OPERATING_COST, Metric.RESPONSE_TIME };
+   public static int ADAPTIVE_BATCH_SIZE = 20;
+   
+   /** 
+    * Common random numbers: a dedicated stream per source of randomness
+    * (every engine but VIRTUAL_THREADS, which ignores it) 
+    */
+   public static boolean COMMON_RANDOM_NUMBERS = false;
+   
+   /** 
+    * Antithetic pairs: replication 2k uses 1-U wherever 2k-1 used U, and
+    * each pair's mean is one observation (every engine but VIRTUAL_THREADS) 
+    */
+   public static boolean ANTITHETIC_REPLICATIONS = false;
+   
+   /** 
+    * Print the campaign's events/sec and timings to standard error when it 
+    * ends (BatchRunner's --metrics); turn it on with -Dautobodyshop.metrics=true
+    */
+   public static boolean PRINT_METRICS = Boolean.getBoolean("autobodyshop.metrics");
+   
+   /** Reuse replications that were already run (see ResultCache; the Driver's "Reuse Past Runs") */
+   public static boolean CACHE_RESULTS = false;
+   
+   /** 
+    * Keep a checkpoint of the campaign (null = none) and continue the one in 
+    * the file instead of starting over (see CampaignCheckpoint) 
+    */
+   public static String CHECKPOINT_FILE = null;
+   public static boolean RESUME_FROM_CHECKPOINT = false;
+   public static int CHECKPOINT_EVERY = CampaignCheckpoint.DEFAULT_SYNC_EVERY;
+   public static int CHECKPOINT_SECONDS = (int)(CampaignCheckpoint.DEFAULT_SYNC_MILLIS / 1000);
+   
+   /** 
+    * Wait for the processes of a DESMO-J run to terminate (see ProcessBarrier)
+    * instead of pausing before finish().  Off until TeardownStressTest has
+    * passed against DESMO-J; turn it on with -Dautobodyshop.teardownBarrier=true
+    */
+   public static boolean TEARDOWN_BARRIER = Boolean.getBoolean("autobodyshop.teardownBarrier");
+   
+   /** 
+    * Keep the process model's waiting lines in the Customers (see CustomerQueue)
+    * instead of ProcessQueues.  Off until CustomerQueueTest has passed against
+    * DESMO-J; turn it on with -Dautobodyshop.intrusiveLines=true
+    */
+   public static boolean INTRUSIVE_WAITING_LINES = Boolean.getBoolean("autobodyshop.intrusiveLines");
+   
+   /** 
+    * End a DESMO-J run from its ClosingTime event instead of a stopping
+    * condition checked after every event.  Off until ClosingTimeTest has
+    * passed against DESMO-J; turn it on with -Dautobodyshop.closingTimeEvent=true
+    */
+   public static boolean CLOSING_TIME_EVENT = Boolean.getBoolean("autobodyshop.closingTimeEvent");
+   
+   /** Which version of the shop model each replication runs */
+   public enum Engine 
+   { 
+      /** AutoBodyShop: one process per mechanic, specialist and customer */
+      PROCESS, 
+      /** EventAutoBodyShop: arrivals and repairs are events, no processes */
+      EVENT,
+      /** ShopKernel: the same events without DESMO-J, no allocation per event */
+      KERNEL,
+      /** ThreadedAutoBodyShop: the process life cycles on virtual threads (Java 21+) */
+      VIRTUAL_THREADS,
+      /** PassiveAutoBodyShop: processes only for workers, customers are entities */
+      PASSIVE_CUSTOMERS;
+
+      /**
+       * @return : True if the engine draws from the RandomStreams it is given 
+       *           (VIRTUAL_THREADS only uses the experiment seed).
+       */
+      public boolean usesStreams()
+      {
+         return this != VIRTUAL_THREADS;
+      }
+   }
+   public static Engine ENGINE = Engine.PROCESS;
+   
+   /** Each worker thread reuses its own kernel */
+   private static final ThreadLocal<ShopKernel> KERNELS = ThreadLocal.withInitial(ShopKernel::new);
+   
+   /** Longest a finished replication may take to shut down its processes */
+   private static final long TEARDOWN_TIMEOUT_MILLIS = 10_000;
+   
+   /** Without the TEARDOWN_BARRIER, how long the process threads get to settle */
+   private static final long SETTLE_MILLIS = 10;
+   
+   /** Opened the first time it is needed (null if it could not be opened) */
+   private static ResultCache cache;
+   private static boolean cacheOpened;
    
    /** Replication model trackers */
    protected ConfidenceCalculator dailyOperatingCost;
@@ -36,13 +136,12 @@ public class ReplicationModel extends Model
    protected ConfidenceCalculator specialistUtilRate;
    protected ConfidenceCalculator avgWaitingForMechanic;
    
-   /** Variables for displaying results */
-   JFrame finalResults;
-   JFrame repResults;
-   JLabel textBox;
-   JScrollPane scrollPane;
+   /** Per replication output for the results window */
    String repInformation = "<html><pre>";
    
+   /** Told about the progress of the campaign (null = nobody) */
+   private CampaignListener listener;
+   
    /**
     * Constructor sets up the model 
     * 
@@ -79,77 +178,452 @@ public class ReplicationModel extends Model
                                         + "--------------------------------------------------------------------------------------------<br>");
       }
       
-      boolean noErrors = true;
+      // Every replication of this campaign uses the same settings,
+      // even if the Driver changes them while it is running.
+      ReplicationCampaign campaign = ReplicationCampaign.fromSettings();
+      if (listener != null)
+         listener.started(campaign);
       
-      // Run the replications
-      for (int i = 1; i <= NUM_REPLICATIONS; ++i) 
+      boolean noErrors = campaign.run(this::recordResult, observation ->
       {
-         noErrors = runSimulation(i);
+         recordObservation(observation);
+         if (listener != null)
+            listener.observed(campaign);
+      });
+      
+      if (listener != null)
+         listener.finished(campaign, noErrors);
+      if (PRINT_METRICS)
+         System.err.print(campaign.getMetrics());
          
-         // If there was an error display it to the user and stop the simulation.
-         if (!noErrors) 
-         {
-             JOptionPane.showMessageDialog(null, "Error running simulation. \n Please Rerun simulation.", 
-                                           "Error", JOptionPane.ERROR_MESSAGE);
-             break;
-         }
+      // If there was an error display it to the user and stop the simulation.
+      if (!noErrors) 
+      {
+         ResultsWindow.showError();
+      }
+      // Let the user know the results are only for part of the campaign.
+      else if (campaign.isCancelled())
+      {
+         ResultsWindow.showCancelled(campaign.getReplicationsRun());
+         noErrors = campaign.getReplicationsRun() > 0;
+      }
+      // Let the user know if the replication limit was hit first.
+      else if (campaign.isAdaptive() && !campaign.targetsMet())
+      {
+         ResultsWindow.showReplicationLimit(campaign.getMaxReplications());
       }
 
       // Display the final results of the simulation
       // across all of the repetitions. 
       if (noErrors)
       {
-         displayFinalResults();
+         ResultsWindow.showFinalResults(dailyOperatingCost, avgTotalCustomers, avgBalkCustomers,
+               avgLostCustomers, avgFullyFixedCustomers, avgResponseTime, mechanicUtilRate,
+               specialistUtilRate, avgWaitingForMechanic);
          if (INCLUDE_OUTPUT_PER_REPLICATION)
-            displayRepResults();
+            ResultsWindow.showRepResults(repInformation);
+         if (campaign.getAntitheticPairs() != null)
+            ResultsWindow.showVarianceReduction(campaign.getAntitheticPairs().report(campaign.getElapsedNanos()));
       }
    }
+   
+   /**
+    * @return : The Driver's result cache, or null if it cannot be used.
+    */
+   protected static synchronized ResultCache resultCache()
+   {
+      if (!cacheOpened)
+      {
+         cacheOpened = true;
+         try
+         {
+            cache = new ResultCache(ResultCache.DEFAULT_DIRECTORY);
+         }
+         catch (IOException e)
+         {
+            // Run everything, just like before there was a cache.
+            System.err.println("Result cache unavailable: " + e.getMessage());
+         }
+      }
+      return cache;
+   }
   
    /**
-    * Run the simulation model a single time. 
+    * @return : The confidence calculator that tracks the given metric.
+    */
+   protected ConfidenceCalculator calculator(Metric metric)
+   {
+      switch (metric)
+      {
+         case DAILY_OPERATING_COST:   return dailyOperatingCost;
+         case TOTAL_CUSTOMERS:        return avgTotalCustomers;
+         case BALKED_CUSTOMERS:       return avgBalkCustomers;
+         case LOST_CUSTOMERS:         return avgLostCustomers;
+         case FULLY_FIXED:            return avgFullyFixedCustomers;
+         case RESPONSE_TIME:          return avgResponseTime;
+         case MECHANIC_UTILIZATION:   return mechanicUtilRate;
+         case SPECIALIST_UTILIZATION: return specialistUtilRate;
+         default:                     return avgWaitingForMechanic;
+      }
+   }
+  
+   /**
+    * Run the simulation model a single time with the current 
+    * settings and add its results to the replication statistics. 
     * 
     * @return : True if the simulation ran correctly.
     */
    public boolean runSimulation(int runNumber) 
+   { 
+      ReplicationResult result = simulate(ShopConfig.snapshot(), SEED, runNumber);
+      if (result == null)
+         return false;
+      
+      recordResult(result);
+      recordObservation(ReplicationCampaign.observation(result));
+      return true;
+   }
+   
+   /**
+    * The seed used for a given replication.
+    * 
+    * @param baseSeed : The seed the user entered
+    * @param runNumber : The replication number
+    */
+   public static int seedFor(int baseSeed, int runNumber)
+   {
+      return baseSeed + 2*runNumber;
+   }
+   
+   /**
+    * Run the simulation model a single time with the selected engine.  
+    * This only touches its own model and experiment, so it is safe 
+    * to call from several worker threads at once. 
+    * 
+    * @param config : The settings to run the shop with
+    * @param baseSeed : The seed the user entered
+    * @param runNumber : The replication number
+    * 
+    * @return : The results of the run, or null if it did not run correctly.
+    */
+   public static ReplicationResult simulate(ShopConfig config, int baseSeed, int runNumber) 
+   {
+      return simulate(ENGINE, config, baseSeed, runNumber);
+   }
+   
+   /**
+    * Run the simulation model a single time. 
+    * 
+    * @param engine : Which version of the shop model to run
+    * @param config : The settings to run the shop with
+    * @param baseSeed : The seed the user entered
+    * @param runNumber : The replication number
+    * 
+    * @return : The results of the run, or null if it did not run correctly.
+    */
+   public static ReplicationResult simulate(Engine engine, ShopConfig config, int baseSeed, int runNumber) 
+   {
+      return simulate(engine, config, new RandomStreams(baseSeed, runNumber, COMMON_RANDOM_NUMBERS));
+   }
+   
+   /**
+    * Run the simulation model a single time. 
+    * 
+    * @param engine : Which version of the shop model to run
+    * @param config : The settings to run the shop with
+    * @param streams : Where the replication gets its random numbers
+    * 
+    * @return : The results of the run, or null if it did not run correctly.
+    */
+   public static ReplicationResult simulate(Engine engine, ShopConfig config, RandomStreams streams) 
+   {
+      ReplicationCounters counters = new ReplicationCounters();
+      ReplicationEvent event = new ReplicationEvent();
+      event.begin();
+      long cpuStart = SimulationMetrics.threadCpuTime();
+      long wallStart = System.nanoTime();
+      
+      ReplicationResult result = null;
+      String error = "bad values in the results";
+      try
+      {
+         result = simulate(engine, config, streams, counters);
+         return result;
+      }
+      catch (RuntimeException | Error e)
+      {
+         error = e.toString();
+         throw e;
+      }
+      finally
+      {
+         // (CPU time is this thread's only, the DESMO-J processes
+         // run on their own threads, so it is a lower bound there.)
+         SimulationMetrics.GLOBAL.record(counters, result != null, System.nanoTime() - wallStart, 
+                                         SimulationMetrics.threadCpuTime() - cpuStart);
+         recordEvents(event, result != null ? null : error, engine, config, streams, counters);
+      }
+   }
+   
+   /**
+    * Commit the flight recorder events of a replication (nothing
+    * happens unless a recording is running).
+    * 
+    * @param event : Begun when the replication started
+    * @param error : Why the replication failed, or null if it did not
+    */
+   private static void recordEvents(ReplicationEvent event, String error, Engine engine, 
+         ShopConfig config, RandomStreams streams, ReplicationCounters counters)
+   {
+      event.end();
+      if (event.shouldCommit())
+      {
+         event.describe(engine, config, streams);
+         event.succeeded = error == null;
+         event.events = counters.getEvents();
+         event.commit();
+      }
+      
+      if (error == null)
+         return;
+      
+      ReplicationFailedEvent failed = new ReplicationFailedEvent();
+      if (failed.shouldCommit())
+      {
+         failed.describe(engine, config, streams);
+         failed.events = counters.getEvents();
+         failed.error = error;
+         failed.commit();
+      }
+   }
+   
+   /**
+    * @return : Which of the switchable parts of the DESMO-J models are on
+    *           (part of the ResultCache key, as they may change the results).
+    */
+   static int modelSwitches()
+   {
+      return (INTRUSIVE_WAITING_LINES ? 1 : 0) | (CLOSING_TIME_EVENT ? 2 : 0);
+   }
+   
+   /**
+    * Run the simulation model a single time, counting what it does.
+    */
+   private static ReplicationResult simulate(Engine engine, ShopConfig config, RandomStreams streams,
+         ReplicationCounters counters) 
+   {
+      switch (engine)
+      {
+         case EVENT:
+            return simulateEvents(config, streams, counters);
+         case KERNEL:
+            return simulateKernel(config, streams, counters);
+         case PASSIVE_CUSTOMERS:
+            return simulatePassive(config, streams, counters);
+         case VIRTUAL_THREADS:
+            // Draws from the experiment seed only (no CRN or antithetic pairs).
+            return simulateThreads(config, seedFor(streams.baseSeed, streams.runNumber), 
+                  streams.runNumber, counters);
+         default:
+            return simulateProcesses(config, streams, counters);
+      }
+   }
+   
+   /**
+    * Run this thread's ShopKernel a single time.
+    * 
+    * @return : The results of the run, or null if it did not run correctly.
+    */
+   private static ReplicationResult simulateKernel(ShopConfig config, RandomStreams streams,
+         ReplicationCounters counters) 
+   {
+      ShopKernel kernel = KERNELS.get();
+      long eventsBefore = kernel.getEventsExecuted();
+      ReplicationResult result = kernel.run(config, streams);
+      
+      counters.addEvents(kernel.getEventsExecuted() - eventsBefore);
+      counters.peaks(kernel.getPeakWaitingForMechanic(), kernel.getPeakWaitingForSpecialist());
+      return validOrNull(result);
+   }
+   
+   /**
+    * Run the ThreadedAutoBodyShop (on virtual threads) a single time.
+    * 
+    * @return : The results of the run, or null if it did not run correctly.
+    */
+   private static ReplicationResult simulateThreads(ShopConfig config, int seed, int runNumber,
+         ReplicationCounters counters) 
+   {
+      ThreadedAutoBodyShop abs = new ThreadedAutoBodyShop(config, seed, HandoffScheduler.Threads.VIRTUAL);
+      ReplicationResult result = abs.run(runNumber);
+      
+      counters.addEvents(abs.getSwitches());
+      counters.peaks(abs.getPeakWaitingForMechanic(), abs.getPeakWaitingForSpecialist());
+      return validOrNull(result);
+   }
+   
+   /**
+    * Run the process oriented AutoBodyShop a single time.
+    * 
+    * @return : The results of the run, or null if it did not run correctly.
+    */
+   private static ReplicationResult simulateProcesses(ShopConfig config, RandomStreams streams,
+         ReplicationCounters counters) 
    { 
       // Create an instance of the AutoBodyShop Model
-      AutoBodyShop abs = new AutoBodyShop(null, "Auto Body Shop", true, true);
+      AutoBodyShop abs = new AutoBodyShop(null, "Auto Body Shop", true, true, config, streams);
+      int runNumber = streams.runNumber;
+
+      if (runExperiment(abs, streams.experimentSeed(), abs.processes, 
+                        config.operationHours, () -> abs.inSystem == 0) == null)
+         return null;
+      
+      counters.add(abs.counters);
+      counters.peaks(abs.waitingForMechanic.maxLength(), abs.waitingForSpecialist.maxLength());
+      return validOrNull(processResult(abs, runNumber));
+   }
+
+   /**
+    * @return : The results of a finished run of the AutoBodyShop.
+    */
+   private static ReplicationResult processResult(AutoBodyShop abs, int runNumber)
+   {
+      ShopConfig config = abs.config;
+
+      // Get results from simulation run
+      double todaysCost = abs.todaysCost.getValue();
+      long totalCustomers = abs.totalCustomers.getValue();
+      long totalBalked = abs.totalBalked.getValue();
+      long totalLost = abs.totalLost.getValue();
+      long fullyFixed = abs.fullyFixed.getValue();
+      double responseTime = abs.responseTimes.getMean();
+      double avgCustomersWaiting = abs.waitingForMechanic.averageLength();
 
+      // Get the utilization rates.
+      double mechanicUtil = abs.idleMechanics.maxLength() - abs.idleMechanics.averageLength();
+      mechanicUtil = mechanicUtil / abs.idleMechanics.maxLength();
+      double specUtil = abs.idleSpecialists.maxLength() - abs.idleSpecialists.averageLength();
+      specUtil = specUtil / abs.idleSpecialists.maxLength();
+      
+      return new ReplicationResult(runNumber, todaysCost, 
+            totalCustomers, totalBalked, totalLost, fullyFixed, responseTime, 
+            mechanicUtil, specUtil, avgCustomersWaiting, abs.presentTime().getTimeAsDouble(),
+            abs.mechanicJobs.getValue(), abs.specialistJobs.getValue(), 
+            config.numMechanics, config.numSpecialists, config.numStalls);
+   }
+   
+   /**
+    * Run the PassiveAutoBodyShop (customers are entities) a single time.
+    * 
+    * @return : The results of the run, or null if it did not run correctly.
+    */
+   private static ReplicationResult simulatePassive(ShopConfig config, RandomStreams streams,
+         ReplicationCounters counters) 
+   { 
+      // Create an instance of the PassiveAutoBodyShop Model
+      PassiveAutoBodyShop abs = new PassiveAutoBodyShop(null, "Auto Body Shop", true, true, config, streams);
+      int runNumber = streams.runNumber;
+
+      if (runExperiment(abs, streams.experimentSeed(), abs.processes, 
+                        config.operationHours, () -> abs.inSystem == 0) == null)
+         return null;
+      
+      counters.add(abs.counters);
+      counters.peaks(abs.waitingForMechanic.maxLength(), abs.waitingForSpecialist.maxLength());
+      return validOrNull(passiveResult(abs, runNumber));
+   }
+
+   /**
+    * @return : The results of a finished run of the PassiveAutoBodyShop.
+    */
+   private static ReplicationResult passiveResult(PassiveAutoBodyShop abs, int runNumber)
+   {
+      ShopConfig config = abs.config;
+
+      // Get the utilization rates.
+      double mechanicUtil = abs.idleMechanics.maxLength() - abs.idleMechanics.averageLength();
+      mechanicUtil = mechanicUtil / abs.idleMechanics.maxLength();
+      double specUtil = abs.idleSpecialists.maxLength() - abs.idleSpecialists.averageLength();
+      specUtil = specUtil / abs.idleSpecialists.maxLength();
+      
+      return new ReplicationResult(runNumber, abs.todaysCost.getValue(), 
+            abs.totalCustomers.getValue(), abs.totalBalked.getValue(), abs.totalLost.getValue(), 
+            abs.fullyFixed.getValue(), abs.responseTimes.getMean(), mechanicUtil, specUtil, 
+            abs.waitingForMechanic.averageLength(), abs.presentTime().getTimeAsDouble(),
+            abs.mechanicJobs.getValue(), abs.specialistJobs.getValue(), 
+            config.numMechanics, config.numSpecialists, config.numStalls);
+   }
+   
+   /**
+    * Run the event oriented EventAutoBodyShop a single time.
+    * 
+    * @return : The results of the run, or null if it did not run correctly.
+    */
+   private static ReplicationResult simulateEvents(ShopConfig config, RandomStreams streams,
+         ReplicationCounters counters) 
+   { 
+      // Create an instance of the EventAutoBodyShop Model
+      EventAutoBodyShop abs = new EventAutoBodyShop(null, "Auto Body Shop", true, true, config, streams);
+      int runNumber = streams.runNumber;
+
+      // (No processes, so there is nothing to wait for after the run.)
+      if (runExperiment(abs, streams.experimentSeed(), null, 
+                        config.operationHours, () -> abs.inSystem == 0) == null)
+         return null;
+      
+      counters.add(abs.counters);
+      counters.peaks(abs.waitingForMechanic.maxLength(), abs.waitingForSpecialist.maxLength());
+      return validOrNull(eventResult(abs, runNumber));
+   }
+
+   /**
+    * @return : The results of a finished run of the EventAutoBodyShop.
+    */
+   private static ReplicationResult eventResult(EventAutoBodyShop abs, int runNumber)
+   {
+      ShopConfig config = abs.config;
+
+      // Get the utilization rates.
+      double mechanicUtil = (config.numMechanics - abs.idleMechanicCount.getMean()) / config.numMechanics;
+      double specUtil = (config.numSpecialists - abs.idleSpecialistCount.getMean()) / config.numSpecialists;
+      
+      return new ReplicationResult(runNumber, abs.todaysCost.getValue(), 
+            abs.totalCustomers.getValue(), abs.totalBalked.getValue(), abs.totalLost.getValue(), 
+            abs.fullyFixed.getValue(), abs.responseTimes.getMean(), mechanicUtil, specUtil, 
+            abs.waitingForMechanic.averageLength(), abs.presentTime().getTimeAsDouble(),
+            abs.mechanicJobs.getValue(), abs.specialistJobs.getValue(), 
+            config.numMechanics, config.numSpecialists, config.numStalls);
+   }
+   
+   /**
+    * Connect a shop model to a new experiment and run it until the 
+    * shop has closed and every customer has left (checked after every
+    * event, or with the CLOSING_TIME_EVENT, by the shop's ClosingTime).
+    * 
+    * @param shop : The model for a single day at the shop
+    * @param seed : The seed for the random number generator
+    * @param processes : The shop's processes (null if it has none)
+    * @param closingTime : When the shop stops taking new cars
+    * @param shopIsEmpty : Whether there are no more customers in the shop
+    * 
+    * @return : The finished experiment, or null if there was an error.
+    */
+   static Experiment runExperiment(Model shop, int seed, ProcessBarrier processes,
+         double closingTime, BooleanSupplier shopIsEmpty)
+   {
       Experiment exp = new Experiment("Single Run");
       
       // Set the seed for the random number generator
       // (NOTE: Do this *before* connecting the experiment to the model)
-      exp.setSeedGenerator(SEED + 2*runNumber);
+      exp.setSeedGenerator(seed);
 
       // Connect model and experiment
-      abs.connectToExperiment(exp);
+      shop.connectToExperiment(exp);
 
       // Set experiment parameters
       exp.setShowProgressBar(false);
-      
-      // ~~~~~~~~~~~~~~~ Create the custom stopping condition for the experiment ~~~~~~~~~~~~~~~ 
-      class Stop extends ModelCondition 
-      {
-
-         public Stop(Model owner, String name, boolean showInTrace) 
-         {
-            super(owner, name, showInTrace);
-         }
-
-         @Override
-         public boolean check() 
-         {
-            boolean pastClosing = abs.presentTime().getTimeAsDouble()
-                                 > AutoBodyShop.OPERATION_HOURS;
-            
-            boolean noMoreCustomers = abs.inSystem.isEmpty();
-            
-            return pastClosing && noMoreCustomers;
-         } 
-      }
-      // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ 
-
-      exp.stop(new Stop(abs, "Stopping Condition", true));
+      if (!CLOSING_TIME_EVENT)
+         exp.stop(new Stop(shop, "Stopping Condition", true, closingTime, shopIsEmpty));
       exp.traceOff(new TimeInstant(0));
       exp.debugOff(new TimeInstant(0));
       exp.setSilent(true);
@@ -163,7 +637,7 @@ public class ReplicationModel extends Model
       {
          // Return that there was an error
          exp.finish();
-         return false;
+         return null;
       }
 
       // Check for errors or problems during the run
@@ -171,75 +645,119 @@ public class ReplicationModel extends Model
       {
          // Return that there was an error
          exp.finish();
-         return false;
+         return null;
       }
 
-      // If experiment stopped without errors, sleep for a bit before
-      // generating the report and finishing things off. This 
-      // significantly reduces the occurrence of threading issues over
-      // repeated replications.
-      try 
-      {
-          Thread.sleep(10);
-      } 
-      catch (InterruptedException e)
+      // Without the barrier, sleep for a bit before generating the 
+      // report and finishing things off.  This significantly reduces
+      // the occurrence of threading issues over repeated replications.
+      if (processes != null && !TEARDOWN_BARRIER)
       {
-          // Do nothing
+         try 
+         {
+            Thread.sleep(SETTLE_MILLIS);
+         } 
+         catch (InterruptedException e)
+         {
+            Thread.currentThread().interrupt();
+         }
       }
 
       // Generate report as needed, then stop and close all output files
       exp.report();
       exp.finish();
-
-      // Get results from simulation run
-      double todaysCost = abs.todaysCost.getValue();
-      long totalCustomers = abs.totalCustomers.getValue();
-      long totalBalked = abs.totalBalked.getValue();
-      long totalLost = abs.totalLost.getValue();
-      long fullyFixed = abs.fullyFixed.getValue();
-      double responseTime = abs.responseTimes.getMean();
-      double avgCustomersWaiting = abs.waitingForMechanic.averageLength();
-
-      // Get the utilization rates.
-      double mechanicUtil = abs.idleMechanics.maxLength() - abs.idleMechanics.averageLength();
-      mechanicUtil = mechanicUtil / abs.idleMechanics.maxLength();
-      double specUtil = abs.idleSpecialists.maxLength() - abs.idleSpecialists.averageLength();
-      specUtil = specUtil / abs.idleSpecialists.maxLength();
       
-      // Lastly, check for bad values in output to prevent them from
-      // corrupting the aggregate replication results.
-      if (abs.presentTime().getTimeAsDouble() < 6   ||
-              todaysCost < 0   || totalCustomers < 0 ||
-              totalBalked < 0  || totalLost < 0       ||
-              fullyFixed < 0 || responseTime < 0  || 
-              mechanicUtil < 0    || specUtil     < 0  ||
-              avgCustomersWaiting < 0) 
+      // Wait until every process of this run (mechanics, specialists,
+      // the generator and any leftover customers) has terminated, so 
+      // nothing is still touching the model while results are read.
+      if (processes != null && TEARDOWN_BARRIER && !awaitProcesses(processes))
+         return null;
+      return exp;
+   }
+   
+   /**
+    * Wait until every process of a finished run has terminated.
+    * 
+    * @return : True if they all terminated in time.
+    */
+   private static boolean awaitProcesses(ProcessBarrier processes)
+   {
+      try 
       {
-         // Return that there was an error
+         return processes.awaitTermination(TEARDOWN_TIMEOUT_MILLIS);
+      } 
+      catch (InterruptedException e)
+      {
+         Thread.currentThread().interrupt();
          return false;
       }
+   }
+   
+   // ~~~~~~~~~~~~~~~ The custom stopping condition for a single run ~~~~~~~~~~~~~~~ 
+   private static class Stop extends ModelCondition 
+   {
+      private final double closingTime;
+      private final BooleanSupplier shopIsEmpty;
 
-      // Update the replication model statistics with replication results
-      dailyOperatingCost.update(todaysCost);
-      avgTotalCustomers.update(totalCustomers);
-      avgBalkCustomers.update(totalBalked);
-      avgLostCustomers.update(totalLost);
-      avgFullyFixedCustomers.update(fullyFixed);
-      avgResponseTime.update(responseTime);
-      avgWaitingForMechanic.update(avgCustomersWaiting);
-      mechanicUtilRate.update(mechanicUtil);
-      specialistUtilRate.update(specUtil);
-      
+      public Stop(Model owner, String name, boolean showInTrace, 
+                  double closingTime, BooleanSupplier shopIsEmpty) 
+      {
+         super(owner, name, showInTrace);
+         this.closingTime = closingTime;
+         this.shopIsEmpty = shopIsEmpty;
+      }
+
+      @Override
+      public boolean check() 
+      {
+         boolean pastClosing = presentTime().getTimeAsDouble() > closingTime;
+         
+         boolean noMoreCustomers = shopIsEmpty.getAsBoolean();
+         
+         return pastClosing && noMoreCustomers;
+      } 
+   }
+   // ~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~~ 
+   
+   /**
+    * Lastly, check for bad values in output to prevent them from
+    * corrupting the aggregate replication results.
+    * 
+    * @return : The result if it is usable, otherwise null.
+    */
+   private static ReplicationResult validOrNull(ReplicationResult result)
+   {
+      return result.isValid() ? result : null;
+   }
+   
+   /**
+    * Add the results of a single replication to the per replication
+    * output.  Only ever called from one thread, in replication order, 
+    * so the output is always the same.
+    * 
+    * @param result : The results of a replication that ran correctly
+    */
+   protected void recordResult(ReplicationResult result)
+   {
       // Update the results from simulation run to be displayed.
       if (INCLUDE_OUTPUT_PER_REPLICATION) 
       {
          repInformation += String.format("%6d: %-6.0f %-9d  %-9d  %-9d  %-14d  %-12.3f %-15.3f<br/>",
-                           runNumber, todaysCost, totalCustomers, totalBalked,
-                           totalLost, fullyFixed, responseTime, avgCustomersWaiting);
+                           result.runNumber, result.todaysCost, result.totalCustomers, result.totalBalked,
+                           result.totalLost, result.fullyFixed, result.responseTime, result.avgCustomersWaiting);
       }
+   }
 
-      // Simulation rep finished without error
-      return true;
+   /**
+    * Add an observation (a replication, or the mean of an antithetic 
+    * pair) to the replication model statistics.
+    * 
+    * @param observation : The value of each metric
+    */
+   protected void recordObservation(EnumMap<Metric, Double> observation)
+   {
+      for (Map.Entry<Metric, Double> entry : observation.entrySet())
+         calculator(entry.getKey()).update(entry.getValue());
    }
 
    @Override
@@ -276,6 +794,19 @@ public class ReplicationModel extends Model
     * of times.  
     */
    public void runFullSimulation()
+   {
+      runFullSimulation(null);
+   }
+   
+   /**
+    * This method starts the ReplicationModel which will
+    * then run the AutoBodyShop simulation the desired number
+    * of times.  It runs on the calling thread until the 
+    * campaign is over (so not on the Event Dispatch Thread).
+    * 
+    * @param listener : Told about the campaign's progress (or null)
+    */
+   public void runFullSimulation(CampaignListener listener)
    {
       // Reference time for simulation is in hours
       Experiment.setReferenceUnit(TimeUnit.HOURS);
@@ -283,6 +814,7 @@ public class ReplicationModel extends Model
       // create the model and experiment and connect them
       ReplicationModel repModel = new ReplicationModel(null,
               "Replication Model for Auto Body Shop", true, true);
+      repModel.listener = listener;
       Experiment exp = new Experiment("Auto Body Shop Exp");
       repModel.connectToExperiment(exp);
 
@@ -306,113 +838,4 @@ public class ReplicationModel extends Model
       // stop all threads still alive and close all output files
       exp.finish();
    }
-   
-   /**
-    * This method sets up a JFrame to display the information
-    * that was generated for each repetition of the AutoBodyShop
-    * simulation.  
-    */
-   private void displayRepResults()
-   {
-
-      // Set up the JFrame for displaying information
-      repResults = new JFrame("Output Per Repetition");
-      repResults.setResizable(true);
-      repResults.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-
-      // Make the frame appear in the center of the user's screen
-      Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-      repResults.setLocation((int)screenSize.getWidth() / 2 - (1000 / 2), 530);
-       
-      // Set up components to go in JFrame
-      textBox = new JLabel();
-      textBox.setHorizontalAlignment(JLabel.CENTER);
-      scrollPane = new JScrollPane(textBox, JScrollPane.VERTICAL_SCROLLBAR_ALWAYS, 
-                                             JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED );
-      scrollPane.setPreferredSize(new Dimension(1000, 400));
-      
-      textBox.setText(repInformation);
-      repResults.add(scrollPane);
-      repResults.pack();
-      repResults.setVisible(true);
-   }
-   
-   /**
-    * This method sets up a JFrame to display the final results
-    * of the simulation across all repetitions of the AutoBodyShop model.
-    */
-   private void displayFinalResults()
-   {
-      // Set up JFrame for displaying final results
-      finalResults = new JFrame("Output Across Repetitions");
-      finalResults.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE); 
-      finalResults.setResizable(false);
-
-      // Make the frame appear in the center of the user's screen 
-      Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
-      finalResults.setLocation((int)screenSize.getWidth() / 2 - (1030 / 2), 0);
-     
-      // Set up container to hold the grid of information
-      JPanel container = new JPanel();
-      container.setLayout(null);
-      container.setPreferredSize(new Dimension(1030, 430));
-     
-      // Set up containers for the columns of information
-      JPanel namePane = new JPanel();
-      namePane.setLayout(new GridLayout(10, 1));
-      namePane.setBounds(15, 15, 200, 400);
-      JPanel numberPane = new JPanel();
-      numberPane.setLayout(new GridLayout(10, 8));
-      numberPane.setBounds(215, 15, 800, 400);
-     
-      // Add the labels for the columns 
-      namePane.add(new JLabel("TITLE"));
-      numberPane.add(new JLabel("OBS"));
-      numberPane.add(new JLabel("MEAN"));
-      numberPane.add(new JLabel("STD. DEV"));
-      numberPane.add(new JLabel("MIN"));
-      numberPane.add(new JLabel("MAX"));
-      numberPane.add(new JLabel("CONF. LEVEL"));
-      numberPane.add(new JLabel("CONF. LOWER"));
-      numberPane.add(new JLabel("CONF. UPPER"));
-      
-      // Add the information to the columns 
-      displayRow(dailyOperatingCost, namePane, numberPane);
-      displayRow(avgTotalCustomers, namePane, numberPane);
-      displayRow(avgBalkCustomers, namePane, numberPane);
-      displayRow(avgLostCustomers, namePane, numberPane);
-      displayRow(avgFullyFixedCustomers, namePane, numberPane);
-      displayRow(avgResponseTime, namePane, numberPane);
-      displayRow(mechanicUtilRate, namePane, numberPane);
-      displayRow(specialistUtilRate, namePane, numberPane);
-      displayRow(avgWaitingForMechanic, namePane, numberPane);
-
-      // Display all of the elements
-      container.add(namePane);
-      container.add(numberPane);
-      finalResults.add(container);
-      finalResults.pack();
-      finalResults.setVisible(true);
-   }
-   
-   /**
-    * Helper method to add a row of information to the final 
-    * results window.  This reduces repeated code.
-    * 
-    * @param cc : The source of the statistics for this row
-    * @param name : The container that holds the name of the row
-    * @param numbers : The container that holds the statistics for the row
-    */
-   private void displayRow(ConfidenceCalculator cc, JPanel name, JPanel numbers)
-   {
-      name.add(new JLabel(cc.getName()));
-      numbers.add(new JLabel("" + cc.getObservations()));
-      numbers.add(new JLabel("" + cc.getMean()));
-      numbers.add(new JLabel("" + cc.getStdDev()));
-      numbers.add(new JLabel("" + cc.getMinimum()));
-      numbers.add(new JLabel("" + cc.getMaximum()));
-      numbers.add(new JLabel("" + cc.getConfidenceLevel()));
-      numbers.add(new JLabel("" + cc.getConfidenceIntervalOfMeanLowerBound()));
-      numbers.add(new JLabel("" + cc.getConfidenceIntervalOfMeanUpperBound()));
-   }
-}
\ No newline at end of file
+}
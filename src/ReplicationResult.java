@@ -0,0 +1,163 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class holds the output of a single
+ *    replication of the AutoBodyShop simulation.
+ *    Replications produce these (possibly on worker
+ *    threads) and the ReplicationModel merges them
+ *    into its confidence calculators.
+ *
+ *    The prices (salaries, commissions, stall and loss
+ *    costs) never change what happens in the shop, only
+ *    todaysCost, so the result also keeps what the cost
+ *    is made of.  costAt() prices the same day again with
+ *    other settings without simulating it.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public final class ReplicationResult
+{
+   public final int    runNumber;
+   public final double todaysCost;
+   public final long   totalCustomers;
+   public final long   totalBalked;
+   public final long   totalLost;
+   public final long   fullyFixed;
+   public final double responseTime;
+   public final double mechanicUtil;
+   public final double specUtil;
+   public final double avgCustomersWaiting;
+   public final double endTime;
+   
+   /** Cost drivers */
+   public final long   mechanicJobs;
+   public final long   specialistJobs;
+   public final int    numMechanics;
+   public final int    numSpecialists;
+   public final int    numStalls;
+
+   /**
+    * @param runNumber
+    * @param todaysCost
+    * @param totalCustomers
+    * @param totalBalked
+    * @param totalLost
+    * @param fullyFixed
+    * @param responseTime
+    * @param mechanicUtil
+    * @param specUtil
+    * @param avgCustomersWaiting
+    * @param endTime : The simulation time the replication stopped at
+    * @param mechanicJobs : Jobs a mechanic was paid commission for
+    * @param specialistJobs : Jobs a specialist was paid commission for
+    * @param numMechanics : Mechanics on salary
+    * @param numSpecialists : Specialists on salary
+    * @param numStalls : Specialist stalls paid for
+    */
+   public ReplicationResult(int runNumber, double todaysCost, long totalCustomers,
+         long totalBalked, long totalLost, long fullyFixed, double responseTime,
+         double mechanicUtil, double specUtil, double avgCustomersWaiting, double endTime,
+         long mechanicJobs, long specialistJobs, int numMechanics, int numSpecialists, int numStalls)
+   {
+      this.runNumber = runNumber;
+      this.todaysCost = todaysCost;
+      this.totalCustomers = totalCustomers;
+      this.totalBalked = totalBalked;
+      this.totalLost = totalLost;
+      this.fullyFixed = fullyFixed;
+      this.responseTime = responseTime;
+      this.mechanicUtil = mechanicUtil;
+      this.specUtil = specUtil;
+      this.avgCustomersWaiting = avgCustomersWaiting;
+      this.endTime = endTime;
+      this.mechanicJobs = mechanicJobs;
+      this.specialistJobs = specialistJobs;
+      this.numMechanics = numMechanics;
+      this.numSpecialists = numSpecialists;
+      this.numStalls = numStalls;
+   }
+
+   /**
+    * Price this day with other settings (only the costs of 
+    * the given config are used, the staffing is this run's).
+    *
+    * @param prices : The salaries, commissions and costs to use
+    *
+    * @return : What the day would have cost.
+    */
+   public double costAt(ShopConfig prices)
+   {
+      return numMechanics * prices.mechanicSalary
+           + numSpecialists * prices.specialistSalary
+           + numStalls * prices.stallCost
+           + (totalBalked + totalLost) * prices.lossCost
+           + mechanicJobs * prices.mechanicCommission
+           + specialistJobs * prices.specialistCommission;
+   }
+
+   /**
+    * @return : This result with todaysCost priced at the given settings.
+    */
+   public ReplicationResult withPrices(ShopConfig prices)
+   {
+      return new ReplicationResult(runNumber, costAt(prices), totalCustomers, totalBalked,
+            totalLost, fullyFixed, responseTime, mechanicUtil, specUtil, avgCustomersWaiting,
+            endTime, mechanicJobs, specialistJobs, numMechanics, numSpecialists, numStalls);
+   }
+
+   /**
+    * Write this result (eg. from a worker process or to a checkpoint).
+    */
+   public void writeTo(DataOutput out) throws IOException
+   {
+      out.writeInt(runNumber);
+      out.writeDouble(todaysCost);
+      out.writeLong(totalCustomers);
+      out.writeLong(totalBalked);
+      out.writeLong(totalLost);
+      out.writeLong(fullyFixed);
+      out.writeDouble(responseTime);
+      out.writeDouble(mechanicUtil);
+      out.writeDouble(specUtil);
+      out.writeDouble(avgCustomersWaiting);
+      out.writeDouble(endTime);
+      out.writeLong(mechanicJobs);
+      out.writeLong(specialistJobs);
+      out.writeInt(numMechanics);
+      out.writeInt(numSpecialists);
+      out.writeInt(numStalls);
+   }
+
+   /**
+    * @return : A result written by writeTo().
+    */
+   public static ReplicationResult readFrom(DataInput in) throws IOException
+   {
+      return new ReplicationResult(in.readInt(), in.readDouble(), in.readLong(),
+            in.readLong(), in.readLong(), in.readLong(), in.readDouble(),
+            in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+            in.readLong(), in.readLong(), in.readInt(), in.readInt(), in.readInt());
+   }
+
+   /**
+    * Check for bad values in output to prevent them from
+    * corrupting the aggregate replication results.
+    *
+    * @return : True if every value is usable.
+    */
+   public boolean isValid()
+   {
+      return !(endTime < 6   ||
+               todaysCost < 0   || totalCustomers < 0 ||
+               totalBalked < 0  || totalLost < 0       ||
+               fullyFixed < 0 || responseTime < 0  ||
+               mechanicUtil < 0    || specUtil     < 0  ||
+               avgCustomersWaiting < 0);
+   }
+}
@@ -0,0 +1,110 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    The main class of a worker process started by a
+ *    ReplicationCoordinator.  It connects back to the
+ *    coordinator over a local socket, then runs one work
+ *    unit (a configuration and a range of replications) at
+ *    a time, sending every result back as soon as it is
+ *    done.  All of the settings come with the unit, so
+ *    nothing depends on the static settings of this JVM.
+ *
+ *       java ReplicationWorker <port> <token>
+ *
+ *    The worker exits as soon as the coordinator closes
+ *    the connection (or goes away).
+ *
+ * Last Edited: October 2026
+ */
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+public class ReplicationWorker
+{
+   /** Coordinator -> worker */
+   static final byte UNIT = 1;
+
+   /** Worker -> coordinator */
+   static final byte RESULT = 1;
+   static final byte FAILED = 2;
+   static final byte DONE = 3;
+
+   public static void main(String[] args)
+   {
+      // Never let anything start up a display.
+      System.setProperty("java.awt.headless", "true");
+
+      try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0])))
+      {
+         socket.setTcpNoDelay(true);
+         DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+         DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+         // Prove this is the process the coordinator started.
+         out.writeLong(Long.parseLong(args[1]));
+         out.flush();
+
+         while (in.readByte() == UNIT)
+            runUnit(in, out);
+      }
+      catch (EOFException e)
+      {
+         // The coordinator is gone, so there is nobody to work for.
+      }
+      catch (IOException | RuntimeException e)
+      {
+         System.err.println("ReplicationWorker: " + e);
+         System.exit(1);
+      }
+   }
+
+   /**
+    * Run a single work unit, sending each result as soon as it is done.
+    */
+   private static void runUnit(DataInputStream in, DataOutputStream out) throws IOException
+   {
+      ReplicationModel.Engine engine = ReplicationModel.Engine.values()[in.readByte()];
+      ShopConfig config = ShopConfig.readFrom(in);
+      int seed = in.readInt();
+      boolean common = in.readBoolean();
+      boolean antithetic = in.readBoolean();
+      int first = in.readInt();
+      int last = in.readInt();
+
+      for (int runNumber = first; runNumber <= last; runNumber++)
+      {
+         ReplicationResult result;
+         try
+         {
+            result = ReplicationModel.simulate(engine, config, new RandomStreams(seed, runNumber, common, antithetic));
+         }
+         catch (RuntimeException e)
+         {
+            result = null;
+         }
+
+         if (result == null)
+         {
+            out.writeByte(FAILED);
+            out.writeInt(runNumber);
+         }
+         else
+         {
+            out.writeByte(RESULT);
+            result.writeTo(out);
+         }
+         out.flush();
+      }
+
+      out.writeByte(DONE);
+      out.flush();
+   }
+}
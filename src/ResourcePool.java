@@ -0,0 +1,285 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class is a pool of workers (or stalls) for
+ *    ShopKernel, in place of counting the idle ones.  Each
+ *    resource is an int handle with a set of skills (a bit
+ *    mask) and a speed, and the pool keeps how long each
+ *    one has been busy.
+ *
+ *    Idle resources are kept in one heap per skill set,
+ *    fastest first and then the one idle the longest, so
+ *    acquire() only compares the top of each heap that has
+ *    the skills it needs, and release() is a heap insert:
+ *    O(skill sets + log n) instead of a scan of every
+ *    worker.  Nothing is allocated after the pool is built.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class ResourcePool
+{
+   /** Every resource's skills and speed */
+   private final long[]   skills;
+   private final double[] speeds;
+
+   /** Resources grouped by skill set: each group's skills and heap of idle resources */
+   private final long[]  groupSkills;
+   private final int[]   groupOf;
+   private final int[][] idle;
+   private final int[]   idleSize;
+   private int           idleCount;
+   private long          allSkills;
+
+   /** When each resource went idle or busy, and how long it has been busy */
+   private final boolean[] busy;
+   private final double[] idleSince;
+   private final double[] busySince;
+   private final double[] busyTime;
+
+   /**
+    * A pool of identical resources (speed 1, one skill).
+    *
+    * @param size : The number of resources
+    */
+   public ResourcePool(int size)
+   {
+      this(filled(new long[size], 1L), filled(new double[size], 1.0));
+   }
+
+   /**
+    * @param skills : Each resource's skills (bit i = skill i)
+    * @param speeds : Each resource's speed (work takes 1 / speed as long)
+    */
+   public ResourcePool(long[] skills, double[] speeds)
+   {
+      if (skills.length != speeds.length)
+         throw new IllegalArgumentException("every resource needs a skill set and a speed");
+
+      this.skills = skills.clone();
+      this.speeds = speeds.clone();
+      this.groupOf = new int[skills.length];
+      this.busy = new boolean[skills.length];
+      this.idleSince = new double[skills.length];
+      this.busySince = new double[skills.length];
+      this.busyTime = new double[skills.length];
+
+      // One group per distinct skill set.
+      List<Long> distinct = new ArrayList<>();
+      for (int r = 0; r < skills.length; r++)
+      {
+         if (!(speeds[r] > 0))
+            throw new IllegalArgumentException("speeds must be positive");
+
+         int group = distinct.indexOf(skills[r]);
+         if (group < 0)
+         {
+            group = distinct.size();
+            distinct.add(skills[r]);
+         }
+         groupOf[r] = group;
+         allSkills |= skills[r];
+      }
+
+      this.groupSkills = new long[distinct.size()];
+      this.idle = new int[distinct.size()][];
+      this.idleSize = new int[distinct.size()];
+      int[] groupSizes = new int[distinct.size()];
+      for (int r = 0; r < skills.length; r++)
+         groupSizes[groupOf[r]]++;
+      for (int g = 0; g < groupSkills.length; g++)
+      {
+         groupSkills[g] = distinct.get(g);
+         idle[g] = new int[groupSizes[g]];
+      }
+
+      reset(0);
+   }
+
+   /**
+    * Make every resource idle as of time now, with no busy time.
+    */
+   public void reset(double now)
+   {
+      Arrays.fill(idleSize, 0);
+      Arrays.fill(busy, false);
+      Arrays.fill(busyTime, 0);
+      Arrays.fill(idleSince, now);
+      for (int r = 0; r < skills.length; r++)
+      {
+         int g = groupOf[r];
+         idle[g][idleSize[g]++] = r;
+      }
+
+      for (int g = 0; g < idle.length; g++)
+         for (int i = idleSize[g] / 2 - 1; i >= 0; i--)
+            siftDown(g, i);
+
+      idleCount = skills.length;
+   }
+
+   /**
+    * Start the busy times over at time now (the resources stay as they are).
+    */
+   public void restartStatistics(double now)
+   {
+      Arrays.fill(busyTime, 0);
+      Arrays.fill(busySince, now);
+   }
+
+   public int size()
+   {
+      return skills.length;
+   }
+
+   public int idleCount()
+   {
+      return idleCount;
+   }
+
+   /**
+    * @return : True if any resource (idle or not) has all of the given skills.
+    */
+   public boolean canServe(long required)
+   {
+      for (long group : groupSkills)
+         if ((group & required) == required)
+            return true;
+      return false;
+   }
+
+   /**
+    * @return : Every skill some resource has.
+    */
+   public long allSkills()
+   {
+      return allSkills;
+   }
+
+   /**
+    * Take the fastest idle resource with all of the given skills
+    * (the one idle the longest of those).
+    *
+    * @return : Its handle, or -1 if none of them is idle.
+    */
+   public int acquire(long required, double now)
+   {
+      int best = -1;
+      for (int g = 0; g < groupSkills.length; g++)
+      {
+         if (idleSize[g] > 0 && (groupSkills[g] & required) == required
+               && (best < 0 || before(idle[g][0], idle[best][0])))
+            best = g;
+      }
+
+      if (best < 0)
+         return -1;
+
+      int r = idle[best][0];
+      idle[best][0] = idle[best][--idleSize[best]];
+      siftDown(best, 0);
+
+      idleCount--;
+      busy[r] = true;
+      busySince[r] = now;
+      return r;
+   }
+
+   /**
+    * Hand a resource back.
+    */
+   public void release(int r, double now)
+   {
+      busy[r] = false;
+      busyTime[r] += now - busySince[r];
+      idleSince[r] = now;
+
+      int g = groupOf[r];
+      idle[g][idleSize[g]] = r;
+      siftUp(g, idleSize[g]++);
+      idleCount++;
+   }
+
+   public long getSkills(int r)
+   {
+      return skills[r];
+   }
+
+   public double getSpeed(int r)
+   {
+      return speeds[r];
+   }
+
+   /**
+    * @return : How long the resource has been busy since the
+    *           last reset (including a job it is on at time now).
+    */
+   public double getBusyTime(int r, double now)
+   {
+      return busy[r] ? busyTime[r] + now - busySince[r] : busyTime[r];
+   }
+
+   /**
+    * @return : True if resource a should be taken before resource b.
+    */
+   private boolean before(int a, int b)
+   {
+      if (speeds[a] != speeds[b])
+         return speeds[a] > speeds[b];
+      if (idleSince[a] != idleSince[b])
+         return idleSince[a] < idleSince[b];
+      return a < b;
+   }
+
+   private void siftUp(int g, int i)
+   {
+      int[] heap = idle[g];
+      int r = heap[i];
+      while (i > 0)
+      {
+         int parent = (i - 1) >>> 1;
+         if (!before(r, heap[parent]))
+            break;
+         heap[i] = heap[parent];
+         i = parent;
+      }
+      heap[i] = r;
+   }
+
+   private void siftDown(int g, int i)
+   {
+      int[] heap = idle[g];
+      int size = idleSize[g];
+      int r = heap[i];
+      while (true)
+      {
+         int child = 2 * i + 1;
+         if (child >= size)
+            break;
+         if (child + 1 < size && before(heap[child + 1], heap[child]))
+            child++;
+         if (!before(heap[child], r))
+            break;
+         heap[i] = heap[child];
+         i = child;
+      }
+      heap[i] = r;
+   }
+
+   private static long[] filled(long[] array, long value)
+   {
+      Arrays.fill(array, value);
+      return array;
+   }
+
+   private static double[] filled(double[] array, double value)
+   {
+      Arrays.fill(array, value);
+      return array;
+   }
+}
@@ -0,0 +1,469 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class is an on-disk store of replication results.
+ *    A replication is fully determined by its engine, its
+ *    hours and staffing, its random streams (seed, replication
+ *    number, CRN / antithetic) and the code of the engine's
+ *    model (and ReplicationModel.modelSwitches()), so its
+ *    result is stored under a hash of those and never has to
+ *    be simulated again.  The code goes in as a fingerprint
+ *    of the engine's class files, so a rebuilt model never
+ *    reads results from an older one.  The prices are not part of
+ *    the key: what the cost is made of is stored instead, and
+ *    the cost is worked out again for the prices asked for.
+ *
+ *    The store is a single memory-mapped, open addressing
+ *    hash table of fixed size records, so a lookup is a
+ *    couple of reads from mapped memory.  When it gets half
+ *    full it is rebuilt at twice the size.  Writers (threads
+ *    or processes, eg. worker JVMs) take a lock on a file next
+ *    to the table first, so they never write the same slot or
+ *    grow it at the same time.
+ *
+ *    Record layout (RECORD_SIZE bytes):
+ *       key (2 longs, 0 = empty slot), runNumber, numMechanics,
+ *       numSpecialists, numStalls (ints), totalCustomers,
+ *       totalBalked, totalLost, fullyFixed, mechanicJobs,
+ *       specialistJobs (longs), responseTime, mechanicUtil,
+ *       specUtil, avgCustomersWaiting, endTime (doubles)
+ *
+ * Last Edited: October 2026
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+
+public final class ResultCache
+{
+   /** Where the Driver keeps its cache */
+   public static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("user.home"), ".autobodyshop-cache");
+
+   private static final String INDEX_FILE = "results.idx";
+   private static final String LOCK_FILE = "results.lock";
+   private static final int  MAGIC = 0x41425343;
+   private static final int  FORMAT = 3;
+   private static final int  HEADER_SIZE = 32;
+   private static final int  RECORD_SIZE = 120;
+   private static final int  INITIAL_CAPACITY = 1 << 14;
+   private static final int  MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+
+   /** Fingerprint of each engine's classes (worked out when first needed) */
+   private static final EnumMap<ReplicationModel.Engine, Long> FINGERPRINTS = 
+         new EnumMap<>(ReplicationModel.Engine.class);
+
+   private final Path directory;
+   private final FileChannel lockChannel;
+   private MappedByteBuffer index;
+   private int capacity;
+   private int size;
+   private long hits;
+   private long misses;
+
+   /**
+    * Open (or create) the cache in the given directory.  Only 
+    * one ResultCache per directory should be open in a JVM 
+    * (file locks are held by the whole process).
+    */
+   public ResultCache(Path directory) throws IOException
+   {
+      this.directory = directory;
+      Files.createDirectories(directory);
+      lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+      FileLock lock = lockChannel.lock();
+      try
+      {
+         Path file = directory.resolve(INDEX_FILE);
+         if (Files.exists(file))
+         {
+            index = map(file, Files.size(file));
+            if (index.getInt(0) == MAGIC && index.getInt(4) == FORMAT
+                  && Files.size(file) == HEADER_SIZE + (long)index.getInt(8) * RECORD_SIZE)
+            {
+               capacity = index.getInt(8);
+               size = index.getInt(12);
+               return;
+            }
+         }
+
+         // Missing or from an older format: start again.
+         index = create(file, INITIAL_CAPACITY);
+         capacity = INITIAL_CAPACITY;
+      }
+      finally
+      {
+         lock.release();
+      }
+   }
+
+   /**
+    * @return : The stored result (priced with config's costs), or null if 
+    *           this replication has not been run.
+    */
+   public synchronized ReplicationResult get(ReplicationModel.Engine engine, ShopConfig config, RandomStreams streams)
+   {
+      long key1 = key(engine, config, streams, 0x5851F42D4C957F2DL);
+      long key2 = key(engine, config, streams, 0x14057B7EF767814FL);
+
+      int slot = find(key1, key2);
+      if (slot < 0)
+      {
+         misses++;
+         return null;
+      }
+
+      hits++;
+      int at = offset(slot);
+
+      // Price the stored day with the costs asked for.
+      ReplicationResult stored = new ReplicationResult(index.getInt(at + 16), Double.NaN,
+            index.getLong(at + 32),   index.getLong(at + 40),   index.getLong(at + 48),
+            index.getLong(at + 56),   index.getDouble(at + 80), index.getDouble(at + 88),
+            index.getDouble(at + 96), index.getDouble(at + 104), index.getDouble(at + 112),
+            index.getLong(at + 64),   index.getLong(at + 72),
+            index.getInt(at + 20),    index.getInt(at + 24),    index.getInt(at + 28));
+      return stored.withPrices(config);
+   }
+
+   /**
+    * Store the result of a replication that ran correctly.
+    */
+   public synchronized void put(ReplicationModel.Engine engine, ShopConfig config, RandomStreams streams,
+         ReplicationResult result) throws IOException
+   {
+      long key1 = key(engine, config, streams, 0x5851F42D4C957F2DL);
+      long key2 = key(engine, config, streams, 0x14057B7EF767814FL);
+
+      // Another process may be writing (or growing) the same table.
+      FileLock lock = lockChannel.lock();
+      try
+      {
+         refresh();
+         if (find(key1, key2) >= 0)
+            return;
+
+         // Keep the table at most half full so probes stay short.
+         if (2L * (size + 1) > capacity)
+         {
+            if (capacity * 2L > MAX_CAPACITY)
+               return;
+            grow();
+         }
+
+         write(index, capacity, key1, key2, result);
+         size++;
+         index.putInt(12, size);
+      }
+      finally
+      {
+         lock.release();
+      }
+   }
+
+   /**
+    * Simulate a replication only if it is not already in the cache.
+    *
+    * @return : The results of the run, or null if it did not run correctly.
+    */
+   public ReplicationResult simulate(ReplicationModel.Engine engine, ShopConfig config, RandomStreams streams)
+   {
+      ReplicationResult result = get(engine, config, streams);
+      if (result != null)
+         return result;
+
+      result = ReplicationModel.simulate(engine, config, streams);
+      if (result != null)
+      {
+         try
+         {
+            put(engine, config, streams, result);
+         }
+         catch (IOException e)
+         {
+            // The result is still good, it just will not be cached.
+            System.err.println("Could not cache replication " + streams.runNumber + ": " + e.getMessage());
+         }
+      }
+      return result;
+   }
+
+   /**
+    * Write everything stored so far to disk.
+    */
+   public synchronized void flush()
+   {
+      index.force();
+   }
+
+   public synchronized int getSize()
+   {
+      return size;
+   }
+
+   public synchronized long getHits()
+   {
+      return hits;
+   }
+
+   public synchronized long getMisses()
+   {
+      return misses;
+   }
+
+   /**
+    * @return : The slot holding the key, or -1 if it is not stored.
+    */
+   private int find(long key1, long key2)
+   {
+      int slot = (int)(key1 & 0x7FFFFFFF) % capacity;
+      while (true)
+      {
+         int at = offset(slot);
+         long stored1 = index.getLong(at);
+         if (stored1 == 0)
+            return -1;
+         if (stored1 == key1 && index.getLong(at + 8) == key2)
+            return slot;
+
+         slot = slot + 1 == capacity ? 0 : slot + 1;
+      }
+   }
+
+   /**
+    * Catch up with what other processes wrote (call with the lock held).  
+    * If one of them grew the table, the file was replaced, so map the new one.
+    */
+   private void refresh() throws IOException
+   {
+      Path file = directory.resolve(INDEX_FILE);
+      if (Files.size(file) != HEADER_SIZE + (long)capacity * RECORD_SIZE)
+      {
+         index = map(file, Files.size(file));
+         capacity = index.getInt(8);
+      }
+      size = index.getInt(12);
+   }
+
+   /**
+    * Rebuild the table at twice the size, then swap it in 
+    * (call with the lock held).
+    */
+   private void grow() throws IOException
+   {
+      Path file = directory.resolve(INDEX_FILE);
+      Path temp = directory.resolve(INDEX_FILE + ".tmp");
+      int newCapacity = capacity * 2;
+      MappedByteBuffer bigger = create(temp, newCapacity);
+
+      for (int slot = 0; slot < capacity; slot++)
+      {
+         int at = offset(slot);
+         long key1 = index.getLong(at);
+         if (key1 == 0)
+            continue;
+
+         int to = (int)(key1 & 0x7FFFFFFF) % newCapacity;
+         while (bigger.getLong(offset(to)) != 0)
+            to = to + 1 == newCapacity ? 0 : to + 1;
+
+         for (int i = 0; i < RECORD_SIZE; i += 8)
+            bigger.putLong(offset(to) + i, index.getLong(at + i));
+      }
+
+      bigger.putInt(12, size);
+      bigger.force();
+      Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+      index = bigger;
+      capacity = newCapacity;
+   }
+
+   /**
+    * Store a result in the first free slot for its key.
+    */
+   private static void write(MappedByteBuffer table, int capacity, long key1, long key2, ReplicationResult r)
+   {
+      int slot = (int)(key1 & 0x7FFFFFFF) % capacity;
+      while (table.getLong(offset(slot)) != 0)
+         slot = slot + 1 == capacity ? 0 : slot + 1;
+
+      // The key goes in last so a half written record is never found.
+      int at = offset(slot);
+      table.putLong(at + 8, key2);
+      table.putInt(at + 16, r.runNumber);
+      table.putInt(at + 20, r.numMechanics);
+      table.putInt(at + 24, r.numSpecialists);
+      table.putInt(at + 28, r.numStalls);
+      table.putLong(at + 32, r.totalCustomers);
+      table.putLong(at + 40, r.totalBalked);
+      table.putLong(at + 48, r.totalLost);
+      table.putLong(at + 56, r.fullyFixed);
+      table.putLong(at + 64, r.mechanicJobs);
+      table.putLong(at + 72, r.specialistJobs);
+      table.putDouble(at + 80, r.responseTime);
+      table.putDouble(at + 88, r.mechanicUtil);
+      table.putDouble(at + 96, r.specUtil);
+      table.putDouble(at + 104, r.avgCustomersWaiting);
+      table.putDouble(at + 112, r.endTime);
+      table.putLong(at, key1);
+   }
+
+   private static int offset(int slot)
+   {
+      return HEADER_SIZE + slot * RECORD_SIZE;
+   }
+
+   /**
+    * A 64 bit hash of everything that determines what happens in a 
+    * replication (not the prices).  Two of these (with different 
+    * salts) make up a key.
+    */
+   private static long key(ReplicationModel.Engine engine, ShopConfig config, RandomStreams streams, long salt)
+   {
+      long h = RandomStreams.mix(salt ^ fingerprint(engine));
+      for (int i = 0; i < engine.name().length(); i++)
+         h = RandomStreams.mix(h ^ engine.name().charAt(i));
+      h = RandomStreams.mix(h ^ config.operationHours);
+      h = RandomStreams.mix(h ^ config.numMechanics);
+      h = RandomStreams.mix(h ^ config.numSpecialists);
+      h = RandomStreams.mix(h ^ config.numStalls);
+      h = RandomStreams.mix(h ^ streams.baseSeed);
+      h = RandomStreams.mix(h ^ streams.runNumber);
+      h = RandomStreams.mix(h ^ (streams.common ? 1 : 0) ^ (streams.antithetic ? 2 : 0));
+      h = RandomStreams.mix(h ^ ReplicationModel.modelSwitches());
+
+      // 0 marks an empty slot.
+      return h == 0 ? 1 : h;
+   }
+
+   /**
+    * A hash of the class files of everything the engine runs, so 
+    * changing (and rebuilding) the model changes every key.
+    */
+   private static synchronized long fingerprint(ReplicationModel.Engine engine)
+   {
+      Long known = FINGERPRINTS.get(engine);
+      if (known != null)
+         return known;
+
+      long fingerprint;
+      try
+      {
+         MessageDigest digest = MessageDigest.getInstance("SHA-256");
+         for (Class<?> c : modelClasses(engine))
+         {
+            try (InputStream in = c.getResourceAsStream(c.getName() + ".class"))
+            {
+               if (in == null)
+                  throw new IOException("no class file for " + c.getName());
+
+               byte[] buffer = new byte[8192];
+               for (int n; (n = in.read(buffer)) > 0; )
+                  digest.update(buffer, 0, n);
+            }
+         }
+
+         byte[] hash = digest.digest();
+         fingerprint = 0;
+         for (int i = 0; i < 8; i++)
+            fingerprint = (fingerprint << 8) | (hash[i] & 0xFF);
+      }
+      catch (IOException | NoSuchAlgorithmException e)
+      {
+         // Only this JVM will ever find what it stores.
+         System.err.println("Result cache: cannot fingerprint " + engine + ": " + e.getMessage());
+         fingerprint = RandomStreams.mix(System.nanoTime());
+      }
+
+      FINGERPRINTS.put(engine, fingerprint);
+      return fingerprint;
+   }
+
+   /**
+    * @return : Every class whose code decides a result of the engine 
+    *           (with the classes nested in them).
+    */
+   private static List<Class<?>> modelClasses(ReplicationModel.Engine engine)
+   {
+      List<Class<?>> classes = new ArrayList<>();
+      Class<?>[] shared = { ReplicationModel.class, ReplicationResult.class, RandomStreams.class, 
+            ShopConfig.class, ShopRules.class };
+      Class<?>[] model;
+
+      switch (engine)
+      {
+         case EVENT:
+            model = new Class<?>[]{ EventAutoBodyShop.class, Car.class, CarArrival.class, 
+                  MechanicFinished.class, SpecialistFinished.class, ClosingTime.class };
+            break;
+         case KERNEL:
+            model = new Class<?>[]{ ShopKernel.class, EventHeap.class, IntQueue.class, 
+                  ResourcePool.class, Workforce.class, TimeAverage.class };
+            break;
+         case VIRTUAL_THREADS:
+            model = new Class<?>[]{ ThreadedAutoBodyShop.class, HandoffScheduler.class, 
+                  HandoffProcess.class, EventHeap.class, TimeAverage.class };
+            break;
+         case PASSIVE_CUSTOMERS:
+            model = new Class<?>[]{ PassiveAutoBodyShop.class, Car.class, ClosingTime.class };
+            break;
+         default:
+            model = new Class<?>[]{ AutoBodyShop.class, Customer.class, Mechanic.class, 
+                  Specialist.class, Generator.class, CustomerQueue.class, ClosingTime.class };
+            break;
+      }
+
+      for (Class<?> c : shared)
+         addWithNested(classes, c);
+      for (Class<?> c : model)
+         addWithNested(classes, c);
+      return classes;
+   }
+
+   private static void addWithNested(List<Class<?>> classes, Class<?> c)
+   {
+      classes.add(c);
+      Class<?>[] nested = c.getDeclaredClasses();
+      Arrays.sort(nested, Comparator.comparing(Class::getName));
+      for (Class<?> inner : nested)
+         addWithNested(classes, inner);
+   }
+
+   private static MappedByteBuffer create(Path file, int capacity) throws IOException
+   {
+      Files.deleteIfExists(file);
+      MappedByteBuffer table = map(file, HEADER_SIZE + (long)capacity * RECORD_SIZE);
+      table.putInt(0, MAGIC);
+      table.putInt(4, FORMAT);
+      table.putInt(8, capacity);
+      table.putInt(12, 0);
+      return table;
+   }
+
+   private static MappedByteBuffer map(Path file, long length) throws IOException
+   {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE))
+      {
+         return channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+      }
+   }
+}
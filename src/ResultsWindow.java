@@ -0,0 +1,207 @@
+/**
+ * @author Riley Radle
+ * 
+ * Description: 
+ *    This class holds the windows and dialogs that show
+ *    the results of the ReplicationModel.  Everything
+ *    that needs Swing lives here, so the simulation itself
+ *    can run without loading any of java.awt (see
+ *    BatchRunner).  The campaign runs off the Event
+ *    Dispatch Thread, so every method here hands its work
+ *    over to it.
+ * 
+ * Last Edited: October 2026
+ */
+
+import desmoj.core.statistic.ConfidenceCalculator;
+import java.awt.*;
+import javax.swing.*;
+
+public final class ResultsWindow
+{
+   private ResultsWindow()
+   {
+   }
+   
+   /**
+    * Let the user know a replication did not run correctly.
+    */
+   public static void showError()
+   {
+      onEventThread(() -> JOptionPane.showMessageDialog(null, 
+                                    "Error running simulation. \n Please Rerun simulation.", 
+                                    "Error", JOptionPane.ERROR_MESSAGE));
+   }
+   
+   /**
+    * Let the user know the campaign was cancelled, so the 
+    * results are only for the replications that finished.
+    * 
+    * @param replications : The replications that finished
+    */
+   public static void showCancelled(int replications)
+   {
+      onEventThread(() -> JOptionPane.showMessageDialog(null, "The simulation was cancelled after \n" 
+                                    + replications + " replications.", 
+                                    "Cancelled", JOptionPane.INFORMATION_MESSAGE));
+   }
+   
+   /**
+    * Let the user know the replication limit was hit before
+    * the confidence intervals were tight enough.
+    * 
+    * @param replications : The most replications that could run
+    */
+   public static void showReplicationLimit(int replications)
+   {
+      onEventThread(() -> JOptionPane.showMessageDialog(null, 
+                                    "The confidence intervals were not tight enough after \n" 
+                                    + replications + " replications.", 
+                                    "Replication Limit Reached", JOptionPane.INFORMATION_MESSAGE));
+   }
+   
+   /**
+    * This method sets up a JFrame to display the information
+    * that was generated for each repetition of the AutoBodyShop
+    * simulation.  
+    * 
+    * @param repInformation : The per replication output (html)
+    */
+   public static void showRepResults(String repInformation)
+   {
+      onEventThread(() ->
+      {
+         // Set up the JFrame for displaying information
+         JFrame repResults = new JFrame("Output Per Repetition");
+         repResults.setResizable(true);
+         repResults.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+         // Make the frame appear in the center of the user's screen
+         Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+         repResults.setLocation((int)screenSize.getWidth() / 2 - (1000 / 2), 530);
+       
+         // Set up components to go in JFrame
+         JLabel textBox = new JLabel();
+         textBox.setHorizontalAlignment(JLabel.CENTER);
+         JScrollPane scrollPane = new JScrollPane(textBox, JScrollPane.VERTICAL_SCROLLBAR_ALWAYS, 
+                                                JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED );
+         scrollPane.setPreferredSize(new Dimension(1000, 400));
+      
+         textBox.setText(repInformation);
+         repResults.add(scrollPane);
+         repResults.pack();
+         repResults.setVisible(true);
+      });
+   }
+   
+   /**
+    * This method sets up a JFrame to display how much the
+    * antithetic pairs reduced the variance of each statistic.
+    * 
+    * @param report : The AntitheticPairs report
+    */
+   public static void showVarianceReduction(String report)
+   {
+      onEventThread(() ->
+      {
+         JFrame frame = new JFrame("Variance Reduction");
+         frame.setResizable(false);
+         frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+      
+         JLabel text = new JLabel("<html><pre>" + report.replace("\n", "<br/>") + "</pre></html>");
+         text.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+         frame.add(text);
+         frame.pack();
+         frame.setVisible(true);
+      });
+   }
+   
+   /**
+    * This method sets up a JFrame to display the final results
+    * of the simulation across all repetitions of the AutoBodyShop model.
+    * 
+    * @param rows : The statistics to display, one row each
+    */
+   public static void showFinalResults(ConfidenceCalculator... rows)
+   {
+      onEventThread(() ->
+      {
+         // Set up JFrame for displaying final results
+         JFrame finalResults = new JFrame("Output Across Repetitions");
+         finalResults.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE); 
+         finalResults.setResizable(false);
+
+         // Make the frame appear in the center of the user's screen 
+         Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
+         finalResults.setLocation((int)screenSize.getWidth() / 2 - (1030 / 2), 0);
+     
+         // Set up container to hold the grid of information
+         JPanel container = new JPanel();
+         container.setLayout(null);
+         container.setPreferredSize(new Dimension(1030, 430));
+     
+         // Set up containers for the columns of information
+         JPanel namePane = new JPanel();
+         namePane.setLayout(new GridLayout(10, 1));
+         namePane.setBounds(15, 15, 200, 400);
+         JPanel numberPane = new JPanel();
+         numberPane.setLayout(new GridLayout(10, 8));
+         numberPane.setBounds(215, 15, 800, 400);
+     
+         // Add the labels for the columns 
+         namePane.add(new JLabel("TITLE"));
+         numberPane.add(new JLabel("OBS"));
+         numberPane.add(new JLabel("MEAN"));
+         numberPane.add(new JLabel("STD. DEV"));
+         numberPane.add(new JLabel("MIN"));
+         numberPane.add(new JLabel("MAX"));
+         numberPane.add(new JLabel("CONF. LEVEL"));
+         numberPane.add(new JLabel("CONF. LOWER"));
+         numberPane.add(new JLabel("CONF. UPPER"));
+      
+         // Add the information to the columns 
+         for (ConfidenceCalculator row : rows)
+            displayRow(row, namePane, numberPane);
+
+         // Display all of the elements
+         container.add(namePane);
+         container.add(numberPane);
+         finalResults.add(container);
+         finalResults.pack();
+         finalResults.setVisible(true);
+      });
+   }
+   
+   /**
+    * Run a piece of Swing code on the Event Dispatch Thread
+    * (right away if this is it).
+    */
+   private static void onEventThread(Runnable show)
+   {
+      if (SwingUtilities.isEventDispatchThread())
+         show.run();
+      else
+         SwingUtilities.invokeLater(show);
+   }
+   
+   /**
+    * Helper method to add a row of information to the final 
+    * results window.  This reduces repeated code.
+    * 
+    * @param cc : The source of the statistics for this row
+    * @param name : The container that holds the name of the row
+    * @param numbers : The container that holds the statistics for the row
+    */
+   private static void displayRow(ConfidenceCalculator cc, JPanel name, JPanel numbers)
+   {
+      name.add(new JLabel(cc.getName()));
+      numbers.add(new JLabel("" + cc.getObservations()));
+      numbers.add(new JLabel("" + cc.getMean()));
+      numbers.add(new JLabel("" + cc.getStdDev()));
+      numbers.add(new JLabel("" + cc.getMinimum()));
+      numbers.add(new JLabel("" + cc.getMaximum()));
+      numbers.add(new JLabel("" + cc.getConfidenceLevel()));
+      numbers.add(new JLabel("" + cc.getConfidenceIntervalOfMeanLowerBound()));
+      numbers.add(new JLabel("" + cc.getConfidenceIntervalOfMeanUpperBound()));
+   }
+}
@@ -0,0 +1,208 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class keeps running statistics (observations,
+ *    mean, standard deviation, min, max) and a Student-t
+ *    confidence interval for the mean, like DESMO-J's
+ *    ConfidenceCalculator, but without needing a model or
+ *    experiment.  Used where replications are summarized
+ *    outside of the ReplicationModel (eg. sweeps).
+ *
+ * Last Edited: October 2026
+ */
+
+public final class SampleStatistics
+{
+   /** Same default as DESMO-J's ConfidenceCalculator */
+   public static final double DEFAULT_CONFIDENCE_LEVEL = 0.95;
+
+   private long   observations;
+   private double mean;
+   private double sumSquares;
+   private double min = Double.POSITIVE_INFINITY;
+   private double max = Double.NEGATIVE_INFINITY;
+
+   /**
+    * Add an observation (Welford's method).
+    */
+   public void update(double value)
+   {
+      observations++;
+      double delta = value - mean;
+      mean += delta / observations;
+      sumSquares += delta * (value - mean);
+
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+   }
+
+   public long getObservations()
+   {
+      return observations;
+   }
+
+   public double getMean()
+   {
+      return mean;
+   }
+
+   /**
+    * @return : The sample variance (0 with fewer than 2 observations).
+    */
+   public double getVariance()
+   {
+      return observations < 2 ? 0 : sumSquares / (observations - 1);
+   }
+
+   public double getStdDev()
+   {
+      return Math.sqrt(getVariance());
+   }
+
+   public double getMinimum()
+   {
+      return min;
+   }
+
+   public double getMaximum()
+   {
+      return max;
+   }
+
+   /**
+    * @return : The half-width of the confidence interval for the mean
+    *           (infinite with fewer than 2 observations).
+    */
+   public double getHalfWidth(double confidenceLevel)
+   {
+      if (observations < 2)
+         return Double.POSITIVE_INFINITY;
+
+      double t = tQuantile(1 - (1 - confidenceLevel) / 2, observations - 1);
+      return t * getStdDev() / Math.sqrt(observations);
+   }
+
+   public double getHalfWidth()
+   {
+      return getHalfWidth(DEFAULT_CONFIDENCE_LEVEL);
+   }
+
+   public double getConfidenceIntervalOfMeanLowerBound()
+   {
+      return mean - getHalfWidth();
+   }
+
+   public double getConfidenceIntervalOfMeanUpperBound()
+   {
+      return mean + getHalfWidth();
+   }
+
+   /**
+    * The p-quantile of Student's t distribution (found by bisection).
+    *
+    * @param p : Probability in (0.5, 1)
+    * @param df : Degrees of freedom
+    */
+   public static double tQuantile(double p, double df)
+   {
+      double low = 0;
+      double high = 1;
+      while (tCdf(high, df) < p)
+         high *= 2;
+
+      for (int i = 0; i < 100; i++)
+      {
+         double middle = (low + high) / 2;
+         if (tCdf(middle, df) < p)
+            low = middle;
+         else
+            high = middle;
+      }
+      return (low + high) / 2;
+   }
+
+   /**
+    * P(T <= t) for t >= 0.
+    */
+   private static double tCdf(double t, double df)
+   {
+      double x = df / (df + t * t);
+      return 1 - 0.5 * regularizedBeta(x, df / 2, 0.5);
+   }
+
+   /**
+    * The regularized incomplete beta function I_x(a, b).
+    */
+   private static double regularizedBeta(double x, double a, double b)
+   {
+      if (x <= 0)
+         return 0;
+      if (x >= 1)
+         return 1;
+
+      double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b)
+                              + a * Math.log(x) + b * Math.log(1 - x));
+
+      // The continued fraction converges quickly on this side.
+      if (x < (a + 1) / (a + b + 2))
+         return front * betaFraction(x, a, b) / a;
+
+      return 1 - front * betaFraction(1 - x, b, a) / b;
+   }
+
+   /**
+    * Continued fraction for the incomplete beta function (Lentz's method).
+    */
+   private static double betaFraction(double x, double a, double b)
+   {
+      final double tiny = 1e-300;
+      double c = 1;
+      double d = 1 - (a + b) * x / (a + 1);
+      d = 1 / (Math.abs(d) < tiny ? tiny : d);
+      double result = d;
+
+      for (int m = 1; m <= 300; m++)
+      {
+         int m2 = 2 * m;
+
+         double step = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+         d = 1 / nonZero(1 + step * d, tiny);
+         c = nonZero(1 + step / c, tiny);
+         result *= d * c;
+
+         step = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+         d = 1 / nonZero(1 + step * d, tiny);
+         c = nonZero(1 + step / c, tiny);
+         double change = d * c;
+         result *= change;
+
+         if (Math.abs(change - 1) < 1e-15)
+            break;
+      }
+      return result;
+   }
+
+   private static double nonZero(double value, double tiny)
+   {
+      return Math.abs(value) < tiny ? tiny : value;
+   }
+
+   /**
+    * log(Gamma(x)) (Lanczos approximation).
+    */
+   private static double logGamma(double x)
+   {
+      final double[] coefficients = { 76.18009172947146, -86.50532032941677,
+            24.01409824083091, -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5 };
+
+      double y = x;
+      double tmp = x + 5.5;
+      tmp -= (x + 0.5) * Math.log(tmp);
+      double series = 1.000000000190015;
+      for (double coefficient : coefficients)
+         series += coefficient / ++y;
+
+      return -tmp + Math.log(2.5066282746310005 * series / x);
+   }
+}
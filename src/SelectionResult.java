@@ -0,0 +1,64 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    The outcome of a StaffingOptimizer run: the
+ *    configuration it selected, its daily operating
+ *    cost, and what it took to get there.
+ *
+ * Last Edited: October 2026
+ */
+
+public final class SelectionResult
+{
+   public final ShopConfig selected;
+   public final SampleStatistics cost;
+
+   /** Probability of correct selection guaranteed (0 if the budget ran out first) */
+   public final double guaranteedPcs;
+   public final double indifferenceZone;
+
+   public final long totalReplications;
+   public final int  configurations;
+   public final int  stages;
+
+   /**
+    * @param selected : The configuration with the lowest cost
+    * @param cost : Its daily operating cost over its replications
+    * @param guaranteedPcs : 1 - alpha, or 0 if the budget ran out before one was left
+    * @param indifferenceZone : Cost differences smaller than this are not told apart
+    * @param totalReplications : Replications run across every configuration
+    * @param configurations : Configurations that were considered
+    * @param stages : Replications of the selected configuration
+    */
+   public SelectionResult(ShopConfig selected, SampleStatistics cost, double guaranteedPcs,
+         double indifferenceZone, long totalReplications, int configurations, int stages)
+   {
+      this.selected = selected;
+      this.cost = cost;
+      this.guaranteedPcs = guaranteedPcs;
+      this.indifferenceZone = indifferenceZone;
+      this.totalReplications = totalReplications;
+      this.configurations = configurations;
+      this.stages = stages;
+   }
+
+   @Override
+   public String toString()
+   {
+      StringBuilder report = new StringBuilder();
+      report.append("Selected: ").append(selected).append('\n')
+            .append(String.format("Daily operating cost: %.2f [%.2f, %.2f]%n", cost.getMean(),
+                  cost.getConfidenceIntervalOfMeanLowerBound(), cost.getConfidenceIntervalOfMeanUpperBound()));
+
+      if (guaranteedPcs > 0)
+         report.append(String.format("P(correct selection) >= %.3f when the best is at least %.2f cheaper%n",
+               guaranteedPcs, indifferenceZone));
+      else
+         report.append("No guarantee: the replication budget ran out before a single configuration was left\n");
+
+      report.append(String.format("%d replications over %d configurations (%.1f per configuration, %d stages)",
+            totalReplications, configurations, (double)totalReplications / configurations, stages));
+      return report.toString();
+   }
+}
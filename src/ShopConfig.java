@@ -0,0 +1,135 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class is an immutable snapshot of the
+ *    configurable Auto Body Shop settings.  The Driver
+ *    still changes the static fields in AutoBodyShop,
+ *    but every replication reads its settings from a
+ *    snapshot so that replications can run on
+ *    several threads at the same time.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public final class ShopConfig
+{
+   /** Model settings */
+   public final int operationHours;
+   public final int stallCost;
+   public final int lossCost;
+
+   /** Mechanic settings */
+   public final int    numMechanics;
+   public final double mechanicSalary;
+   public final double mechanicCommission;
+
+   /** Specialist settings */
+   public final int    numSpecialists;
+   public final int    numStalls;
+   public final double specialistSalary;
+   public final double specialistCommission;
+
+   /**
+    * @param operationHours
+    * @param stallCost
+    * @param lossCost
+    * @param numMechanics
+    * @param mechanicSalary
+    * @param mechanicCommission
+    * @param numSpecialists
+    * @param numStalls
+    * @param specialistSalary
+    * @param specialistCommission
+    */
+   public ShopConfig(int operationHours, int stallCost, int lossCost,
+         int numMechanics, double mechanicSalary, double mechanicCommission,
+         int numSpecialists, int numStalls, double specialistSalary, double specialistCommission)
+   {
+      this.operationHours = operationHours;
+      this.stallCost = stallCost;
+      this.lossCost = lossCost;
+      this.numMechanics = numMechanics;
+      this.mechanicSalary = mechanicSalary;
+      this.mechanicCommission = mechanicCommission;
+      this.numSpecialists = numSpecialists;
+      this.numStalls = numStalls;
+      this.specialistSalary = specialistSalary;
+      this.specialistCommission = specialistCommission;
+   }
+
+   /**
+    * Take a snapshot of the current settings in AutoBodyShop
+    * (ie. whatever the user selected in the Driver).
+    *
+    * @return : A config that will not change if the Driver does.
+    */
+   public static ShopConfig snapshot()
+   {
+      return new ShopConfig(
+            AutoBodyShop.OPERATION_HOURS,
+            AutoBodyShop.STALL_COST,
+            AutoBodyShop.LOSS_COST,
+            AutoBodyShop.NUM_MECHANICS,
+            AutoBodyShop.MECHANIC_SALARY,
+            AutoBodyShop.MECHANIC_COMMISSION,
+            AutoBodyShop.NUM_SPECIALISTS,
+            AutoBodyShop.NUM_STALLS,
+            AutoBodyShop.SPECIALIST_SALARY,
+            AutoBodyShop.SPECIALIST_COMMISSION);
+   }
+
+   /**
+    * @param prices : Where to take the salaries, commissions and costs from
+    * 
+    * @return : These hours and staffing levels at the given prices.
+    */
+   public ShopConfig withPrices(ShopConfig prices)
+   {
+      return new ShopConfig(operationHours, prices.stallCost, prices.lossCost,
+            numMechanics, prices.mechanicSalary, prices.mechanicCommission,
+            numSpecialists, numStalls, prices.specialistSalary, prices.specialistCommission);
+   }
+
+   /**
+    * Write these settings (eg. to a worker process or a checkpoint).
+    */
+   public void writeTo(DataOutput out) throws IOException
+   {
+      out.writeInt(operationHours);
+      out.writeInt(stallCost);
+      out.writeInt(lossCost);
+      out.writeInt(numMechanics);
+      out.writeDouble(mechanicSalary);
+      out.writeDouble(mechanicCommission);
+      out.writeInt(numSpecialists);
+      out.writeInt(numStalls);
+      out.writeDouble(specialistSalary);
+      out.writeDouble(specialistCommission);
+   }
+
+   /**
+    * @return : Settings written by writeTo().
+    */
+   public static ShopConfig readFrom(DataInput in) throws IOException
+   {
+      return new ShopConfig(in.readInt(), in.readInt(), in.readInt(),
+            in.readInt(), in.readDouble(), in.readDouble(),
+            in.readInt(), in.readInt(), in.readDouble(), in.readDouble());
+   }
+
+   @Override
+   public String toString()
+   {
+      return String.format("hours=%d mechanics=%d specialists=%d stalls=%d "
+                         + "stallCost=%d lossCost=%d mechanicSalary=%.1f mechanicCommission=%.1f "
+                         + "specialistSalary=%.1f specialistCommission=%.1f",
+                         operationHours, numMechanics, numSpecialists, numStalls,
+                         stallCost, lossCost, mechanicSalary, mechanicCommission,
+                         specialistSalary, specialistCommission);
+   }
+}
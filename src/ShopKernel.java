@@ -0,0 +1,847 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class is a purpose built simulation kernel
+ *    for the Auto Body Shop.  It runs the same day as
+ *    EventAutoBodyShop, but without DESMO-J: events live
+ *    in an EventHeap, cars are int handles into primitive
+ *    arrays and random numbers come from an inline
+ *    generator.  A kernel is reused for replication after
+ *    replication, so once its arrays have grown to fit the
+ *    busiest day it does not allocate anything per event.
+ *
+ *    With common random numbers each source of randomness
+ *    has its own stream (see RandomStreams) and each car's
+ *    job is drawn when it arrives.  The second run of an
+ *    antithetic pair uses 1-U in place of every uniform U.
+ *
+ *    runSteadyState() runs the shop without ever closing
+ *    (the arrival pattern of a day repeats every
+ *    operationHours) and reports its totals in batches of
+ *    whole days, for the batch means method (see
+ *    SteadyStateRun).  Nothing is kept per customer, so
+ *    its memory does not grow with the horizon.
+ *
+ *    Mechanics, specialists and stalls are ResourcePools,
+ *    so a shop can have thousands of workers with their own
+ *    speeds and skills (see Workforce); a referred car
+ *    waits in the line of the skill it needs.  With just a
+ *    ShopConfig every worker is the same, as before.
+ *
+ *    In a ShopNetwork each site is a kernel that is run a
+ *    window at a time (start, advance, finish); customers
+ *    it turns away are handed to its Overflow and may come
+ *    in from other sites (transferIn).
+ *
+ *    A kernel is not thread safe; use one per thread.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+public final class ShopKernel
+{
+   /** Event types */
+   private static final int ARRIVAL         = 0;
+   private static final int MECHANIC_DONE   = 1;
+   private static final int SPECIALIST_DONE = 2;
+   private static final int TRANSFER        = 3;
+
+
+   /** Event list and waiting structures */
+   private final EventHeap heap = new EventHeap(64);
+   private final IntQueue  waitingForMechanic = new IntQueue(64);
+   private IntQueue[]      waitingForSpecialist = { new IntQueue(16) };
+
+   /** Cars in the shop (handle -> arrival time) and recycled handles */
+   private double[] arrivalTimes = new double[64];
+   private int[]    freeCars = new int[64];
+   private int      numFree;
+   private int      numCars;
+
+   /** Each car's job, drawn on arrival (common random numbers only) */
+   private long[]    balkDraws = new long[64];
+   private double[]  mechanicTimes = new double[64];
+   private boolean[] referrals = new boolean[64];
+   private double[]  specialistTimes = new double[64];
+
+   /** Shops each car was turned away from before this one (ShopNetwork only) */
+   private int[]     carHops = new int[64];
+
+   /** Who is working on each car, its stall, the skill it needs and when it was referred */
+   private int[]     carWorker = new int[64];
+   private int[]     carStall = new int[64];
+   private int[]     carSkill = new int[64];
+   private double[]  referredAt = new double[64];
+
+   /** The workers and stalls (rebuilt only when the staffing changes) */
+   private Workforce    workforce;
+   private Workforce    uniform;
+   private ResourcePool mechanics;
+   private ResourcePool specialists;
+   private ResourcePool stalls;
+   private int          numSkills;
+
+   /** Settings and state of the current run */
+   private ShopConfig config;
+   private double     now;
+   private long       random;
+   private boolean    common;
+   private boolean    mirrored;
+   private boolean    continuous;
+   private final long[] streams = new long[RandomStreams.Source.values().length];
+   private int        inSystem;
+   private final TimeAverage idleMechanicCount = new TimeAverage();
+   private final TimeAverage idleSpecialistCount = new TimeAverage();
+
+   /** Trackers */
+   private long   totalCustomers;
+   private long   totalBalked;
+   private long   totalLost;
+   private long   fullyFixed;
+   private long   mechanicJobs;
+   private long   specialistJobs;
+   private double responseTimeSum;
+   private double todaysCost;
+   private long   eventsExecuted;
+
+   /** ShopNetwork: where turned away customers go, and the ones that came here */
+   private Overflow overflow;
+   private long     transfersIn;
+   private long     transfersServed;
+
+   /**
+    * Receives the customers a site of a ShopNetwork turns away.
+    */
+   public interface Overflow
+   {
+      /**
+       * @param time : When the customer left
+       * @param hops : The number of shops that have turned the customer away
+       */
+      void turnedAway(double time, int hops);
+   }
+
+   /**
+    * Run the shop for a single day.
+    *
+    * @param config : The settings to run the shop with
+    * @param seed : The seed for the random number generator
+    * @param runNumber : The replication number (for the result)
+    *
+    * @return : The results of the run.
+    */
+   public ReplicationResult run(ShopConfig config, long seed, int runNumber)
+   {
+      return run(config, uniform(config), seed, runNumber, null, false);
+   }
+
+   /**
+    * Run the shop for a single day.
+    *
+    * @param config : The settings to run the shop with
+    * @param streams : Where the replication gets its random numbers
+    *
+    * @return : The results of the run.
+    */
+   public ReplicationResult run(ShopConfig config, RandomStreams streams)
+   {
+      return run(config, uniform(config), streams);
+   }
+
+   /**
+    * Run a shop with its own workforce for a single day.
+    *
+    * @param config : The settings to run the shop with (the costs and stalls)
+    * @param workforce : Its mechanics and specialists (as many as in config)
+    * @param streams : Where the replication gets its random numbers
+    *
+    * @return : The results of the run.
+    */
+   public ReplicationResult run(ShopConfig config, Workforce workforce, RandomStreams streams)
+   {
+      if (!workforce.fits(config))
+         throw new IllegalArgumentException("the workforce does not have the config's staff");
+
+      return run(config, workforce, streams.experimentSeed(), streams.runNumber, 
+                 streams.common ? streams : null, streams.isMirrored());
+   }
+
+   private ReplicationResult run(ShopConfig config, Workforce workforce, long seed, int runNumber, 
+         RandomStreams common, boolean mirrored)
+   {
+      reset(config, workforce, seed, common);
+      this.mirrored = mirrored;
+      todaysCost += fixedDailyCost();
+
+      scheduleNextArrival();
+
+      while (!heap.isEmpty())
+      {
+         step();
+
+         // The shop has closed and every customer has left.
+         if (ShopRules.dayIsOver(now, config.operationHours, inSystem))
+            break;
+      }
+
+      return result(runNumber);
+   }
+
+   /**
+    * Run the shop without ever closing: each day is operationHours
+    * long and the next one starts right after it, with whatever
+    * customers are still in the shop.
+    *
+    * @param config : The settings to run the shop with
+    * @param streams : Where the run gets its random numbers
+    * @param warmupDays : Days to run before anything is counted
+    * @param batchDays : Days in each batch
+    * @param numBatches : Batches to run after the warm-up
+    * @param onBatch : Receives each batch's totals (runNumber is the batch
+    *                  number, the costs include batchDays of salaries)
+    */
+   public void runSteadyState(ShopConfig config, RandomStreams streams, int warmupDays,
+         int batchDays, int numBatches, Consumer<ReplicationResult> onBatch)
+   {
+      reset(config, uniform(config), streams.experimentSeed(), streams.common ? streams : null);
+      this.mirrored = streams.isMirrored();
+      this.continuous = true;
+
+      scheduleNextArrival();
+
+      // Batch 0 is the warm-up.
+      int batch = 0;
+      double boundary = warmupDays * (double)config.operationHours;
+      while (batch <= numBatches)
+      {
+         // There is always a next arrival, so the heap is never empty.
+         if (heap.nextTime() <= boundary)
+         {
+            step();
+            continue;
+         }
+
+         // Close the batch at its boundary and start the next one.
+         now = boundary;
+         if (batch > 0)
+            onBatch.accept(result(batch));
+
+         startBatch(batchDays);
+         batch++;
+         boundary = (warmupDays + (double)batch * batchDays) * config.operationHours;
+      }
+   }
+
+   /**
+    * Open the shop for a day in a ShopNetwork, without running it.
+    *
+    * @param config : The settings to run the shop with
+    * @param streams : Where the site gets its random numbers
+    * @param overflow : Receives the customers the shop turns away
+    */
+   public void start(ShopConfig config, RandomStreams streams, Overflow overflow)
+   {
+      reset(config, uniform(config), streams.experimentSeed(), streams.common ? streams : null);
+      this.mirrored = streams.isMirrored();
+      this.overflow = overflow;
+      todaysCost += fixedDailyCost();
+
+      scheduleNextArrival();
+   }
+
+   /**
+    * Run every event before the given time (this shop's part of a window).
+    */
+   public void advance(double until)
+   {
+      while (!heap.isEmpty() && heap.nextTime() < until)
+      {
+         step();
+
+         // The shop has closed and every customer has left, so nothing
+         // still to come (an arrival or a transfer) will get in.
+         if (ShopRules.dayIsOver(now, config.operationHours, inSystem))
+            closeDoors();
+      }
+   }
+
+   /**
+    * Drop the events still to come once the day is over.  Transfers
+    * on their way are turned away at the door, as in transferIn(), 
+    * so they still count as transferred in.
+    */
+   private void closeDoors()
+   {
+      while (!heap.isEmpty())
+      {
+         if (heap.nextType() == TRANSFER)
+            transfersIn++;
+         heap.removeNext();
+      }
+   }
+
+   /**
+    * A customer turned away by another shop will arrive here.
+    *
+    * @param time : When the customer arrives
+    * @param hops : The number of shops that have turned the customer away
+    */
+   public void transferIn(double time, int hops)
+   {
+      // A shop that is done for the day turns them away at the door.
+      if (isFinished())
+         transfersIn++;
+      else
+         heap.schedule(time, TRANSFER, hops);
+   }
+
+   /**
+    * @return : True once the shop has closed and every customer has left.
+    */
+   public boolean isFinished()
+   {
+      return heap.isEmpty();
+   }
+
+   /**
+    * @return : The time of the next event (infinite once the shop is finished).
+    */
+   public double nextEventTime()
+   {
+      return heap.isEmpty() ? Double.POSITIVE_INFINITY : heap.nextTime();
+   }
+
+   /**
+    * @return : The results of the day started by start().
+    */
+   public ReplicationResult finish(int runNumber)
+   {
+      overflow = null;
+      return result(runNumber);
+   }
+
+   /**
+    * @return : Customers transferred in from other shops in the last run.
+    */
+   public long getTransfersIn()
+   {
+      return transfersIn;
+   }
+
+   /**
+    * @return : Transferred customers that were fully fixed here in the last run.
+    */
+   public long getTransfersServed()
+   {
+      return transfersServed;
+   }
+
+   /**
+    * Run the next event.
+    */
+   private void step()
+   {
+      // Advance the clock to the next event.
+      now = heap.nextTime();
+      int type = heap.nextType();
+      int car = heap.nextHandle();
+      heap.removeNext();
+      eventsExecuted++;
+
+      switch (type)
+      {
+         case ARRIVAL:
+            carArrives(0);
+            break;
+         case MECHANIC_DONE:
+            mechanicDone(car);
+            break;
+         case SPECIALIST_DONE:
+            specialistDone(car);
+            break;
+         case TRANSFER:
+            carArrives(car);
+            break;
+      }
+   }
+
+   /**
+    * @return : The number of events run by this kernel so far (all runs).
+    */
+   public long getEventsExecuted()
+   {
+      return eventsExecuted;
+   }
+
+   /**
+    * @return : The longest the mechanic line got in the last run (or batch).
+    */
+   public int getPeakWaitingForMechanic()
+   {
+      return waitingForMechanic.maxLength();
+   }
+
+   /**
+    * @return : The longest the specialist line got in the last run (or batch).
+    */
+   public int getPeakWaitingForSpecialist()
+   {
+      int peak = 0;
+      for (int skill = 0; skill < numSkills; skill++)
+         peak = Math.max(peak, waitingForSpecialist[skill].maxLength());
+      return peak;
+   }
+
+   /**
+    * @return : The mechanics of the last run (eg. for each one's busy time).
+    */
+   public ResourcePool getMechanics()
+   {
+      return mechanics;
+   }
+
+   public ResourcePool getSpecialists()
+   {
+      return specialists;
+   }
+
+   public ResourcePool getStalls()
+   {
+      return stalls;
+   }
+
+   /**
+    * @return : Identical workers for the config (the same one as long as its staff does not change).
+    */
+   private Workforce uniform(ShopConfig config)
+   {
+      if (uniform == null || !uniform.fits(config))
+         uniform = Workforce.uniform(config);
+      return uniform;
+   }
+
+   /**
+    * Start a new day, reusing all of the arrays from the last one.
+    */
+   private void reset(ShopConfig config, Workforce workforce, long seed, RandomStreams common)
+   {
+      this.config = config;
+      this.now = 0;
+      this.random = seed;
+      this.common = common != null;
+      this.continuous = false;
+      this.overflow = null;
+
+      if (this.common)
+         for (RandomStreams.Source source : RandomStreams.Source.values())
+            streams[source.ordinal()] = common.seedFor(source);
+
+      if (workforce != this.workforce)
+      {
+         this.workforce = workforce;
+         mechanics = workforce.mechanicPool();
+         specialists = workforce.specialistPool();
+         numSkills = workforce.numSkills();
+         if (waitingForSpecialist.length < numSkills)
+         {
+            waitingForSpecialist = new IntQueue[numSkills];
+            for (int skill = 0; skill < numSkills; skill++)
+               waitingForSpecialist[skill] = new IntQueue(16);
+         }
+      }
+      if (stalls == null || stalls.size() != config.numStalls)
+         stalls = new ResourcePool(config.numStalls);
+
+      heap.clear();
+      waitingForMechanic.reset(0);
+      for (int skill = 0; skill < numSkills; skill++)
+         waitingForSpecialist[skill].reset(0);
+      numFree = 0;
+      numCars = 0;
+
+      mechanics.reset(0);
+      specialists.reset(0);
+      stalls.reset(0);
+      inSystem = 0;
+      idleMechanicCount.reset(0, mechanics.idleCount());
+      idleSpecialistCount.reset(0, specialists.idleCount());
+
+      totalCustomers = 0;
+      totalBalked = 0;
+      totalLost = 0;
+      fullyFixed = 0;
+      mechanicJobs = 0;
+      specialistJobs = 0;
+      responseTimeSum = 0;
+      todaysCost = 0;
+      transfersIn = 0;
+      transfersServed = 0;
+   }
+
+   /**
+    * Start counting again (at time now) without touching the 
+    * customers, workers and events of the running shop.
+    *
+    * @param days : The days in the new batch (for the salaries)
+    */
+   private void startBatch(int days)
+   {
+      idleMechanicCount.reset(now, mechanics.idleCount());
+      idleSpecialistCount.reset(now, specialists.idleCount());
+      waitingForMechanic.restartStatistics(now);
+      for (int skill = 0; skill < numSkills; skill++)
+         waitingForSpecialist[skill].restartStatistics(now);
+      mechanics.restartStatistics(now);
+      specialists.restartStatistics(now);
+      stalls.restartStatistics(now);
+
+      totalCustomers = 0;
+      totalBalked = 0;
+      totalLost = 0;
+      fullyFixed = 0;
+      mechanicJobs = 0;
+      specialistJobs = 0;
+      responseTimeSum = 0;
+      todaysCost = days * fixedDailyCost();
+   }
+
+   /**
+    * @return : Salaries and the cost of each specialist stall (per day).
+    */
+   private double fixedDailyCost()
+   {
+      return config.numMechanics * config.mechanicSalary
+           + config.numSpecialists * config.specialistSalary
+           + config.numStalls * config.stallCost;
+   }
+
+   /**
+    * A car pulls into the shop (see CarArrival).
+    *
+    * @param hops : Shops that turned it away first (0 = a new customer)
+    */
+   private void carArrives(int hops)
+   {
+      if (hops > 0)
+         transfersIn++;
+
+      // A car that shows up after closing to an empty shop never
+      // gets in (the process model stops before it is served).
+      if (!continuous && ShopRules.dayIsOver(now, config.operationHours, inSystem))
+         return;
+
+      int car = newCar();
+      carHops[car] = hops;
+      totalCustomers++;
+      inSystem++;
+      waitingForMechanic.insert(car, now);
+
+      // There is a mechanic available.
+      int mechanic = mechanics.acquire(1L, now);
+      if (mechanic >= 0)
+      {
+         idleMechanicCount.update(now, mechanics.idleCount());
+         beginMechanicJob(mechanic);
+      }
+      // Determine if the customer will balk
+      // (subtract 1 so the customer doesn't count themself).
+      else if (ShopRules.balks(balkDraw(car), waitingForMechanic.length() - 1))
+      {
+         waitingForMechanic.removeLast(now);
+         turnAway(car);
+         freeCar(car);
+         inSystem--;
+         totalBalked++;
+         todaysCost += config.lossCost;
+      }
+
+      // Keep generating arrivals for the time the shop is open.
+      if (hops == 0 && (continuous || now < config.operationHours))
+         scheduleNextArrival();
+   }
+
+   /**
+    * A mechanic is done with a car (see MechanicFinished).
+    */
+   private void mechanicDone(int car)
+   {
+      int mechanic = carWorker[car];
+
+      // The customer needs to be referred to the specialist.
+      if (common ? referrals[car] : ShopRules.referred(uniform()))
+      {
+         // Which specialists can fix it (only drawn if there is a choice).
+         int skill = numSkills == 1 ? 0 : common ? carSkill[car] : workforce.skillFor(uniform());
+         long required = 1L << skill;
+
+         // Waited too long, all of the stalls are full or nobody has the skill.
+         if (ShopRules.waitedTooLong(now, arrivalTimes[car]) || stalls.idleCount() == 0
+               || !specialists.canServe(required))
+         {
+            turnAway(car);
+            carLeaves(car);
+            totalLost++;
+            todaysCost += config.lossCost;
+         }
+         // Else car takes a stall and is sent to specialist.
+         else
+         {
+            carStall[car] = stalls.acquire(1L, now);
+            carSkill[car] = skill;
+            referredAt[car] = now;
+            waitingForSpecialist[skill].insert(car, now);
+
+            int specialist = specialists.acquire(required, now);
+            if (specialist >= 0)
+            {
+               idleSpecialistCount.update(now, specialists.idleCount());
+               beginSpecialistJob(specialist, skill);
+            }
+         }
+      }
+      // The car does not need referral.
+      else
+      {
+         fixed(car);
+         carLeaves(car);
+      }
+
+      // Pay the mechanic's commission and move on to the next car.
+      todaysCost += config.mechanicCommission;
+      mechanicJobs++;
+
+      if (!waitingForMechanic.isEmpty())
+      {
+         beginMechanicJob(mechanic);
+      }
+      else
+      {
+         mechanics.release(mechanic, now);
+         idleMechanicCount.update(now, mechanics.idleCount());
+      }
+   }
+
+   /**
+    * A specialist is done with a car (see SpecialistFinished).
+    */
+   private void specialistDone(int car)
+   {
+      int specialist = carWorker[car];
+      fixed(car);
+      carLeaves(car);
+      stalls.release(carStall[car], now);
+
+      // Pay the specialist's commission and move on to the next car.
+      todaysCost += config.specialistCommission;
+      specialistJobs++;
+
+      int skill = nextSkill(specialist);
+      if (skill >= 0)
+      {
+         beginSpecialistJob(specialist, skill);
+      }
+      else
+      {
+         specialists.release(specialist, now);
+         idleSpecialistCount.update(now, specialists.idleCount());
+      }
+   }
+
+   /**
+    * @return : The line (skill) the specialist should take the next car
+    *           from: the car referred first of those they can fix 
+    *           (-1 if there are none).
+    */
+   private int nextSkill(int specialist)
+   {
+      if (numSkills == 1)
+         return waitingForSpecialist[0].isEmpty() ? -1 : 0;
+
+      long skills = specialists.getSkills(specialist);
+      int next = -1;
+      for (int skill = 0; skill < numSkills; skill++)
+      {
+         IntQueue line = waitingForSpecialist[skill];
+         if ((skills & (1L << skill)) != 0 && !line.isEmpty()
+               && (next < 0 || referredAt[line.first()] < referredAt[waitingForSpecialist[next].first()]))
+            next = skill;
+      }
+      return next;
+   }
+
+   /**
+    * The car leaves fully fixed.
+    */
+   private void fixed(int car)
+   {
+      fullyFixed++;
+      responseTimeSum += now - arrivalTimes[car];
+      if (carHops[car] > 0)
+         transfersServed++;
+   }
+
+   /**
+    * The car leaves without being fixed (balked or lost).  In a 
+    * ShopNetwork it may go on to another shop.
+    */
+   private void turnAway(int car)
+   {
+      if (overflow != null)
+         overflow.turnedAway(now, carHops[car] + 1);
+   }
+
+   private void beginMechanicJob(int mechanic)
+   {
+      int car = waitingForMechanic.removeFirst(now);
+      double time = common ? mechanicTimes[car] : exponential(ShopRules.MECHANIC_FIX_TIME);
+      carWorker[car] = mechanic;
+      heap.schedule(now + time / mechanics.getSpeed(mechanic), MECHANIC_DONE, car);
+   }
+
+   private void beginSpecialistJob(int specialist, int skill)
+   {
+      int car = waitingForSpecialist[skill].removeFirst(now);
+      double time = common ? specialistTimes[car] : exponential(ShopRules.SPECIALIST_FIX_TIME);
+      carWorker[car] = specialist;
+      heap.schedule(now + time / specialists.getSpeed(specialist), SPECIALIST_DONE, car);
+   }
+
+   /**
+    * Schedule the next car arrival.  The distribution of the
+    * interarrival time changes as the day goes on.
+    */
+   private void scheduleNextArrival()
+   {
+      double hour = continuous ? now % config.operationHours : now;
+      RandomStreams.Source source = ShopRules.arrivalPeriod(hour);
+      double mean = ShopRules.interarrivalMean(source);
+
+      double time = common ? exponential(mean, source) : exponential(mean);
+      heap.schedule(now + time, ARRIVAL, -1);
+   }
+
+   /**
+    * @return : A handle for a new car that arrived now.
+    */
+   private int newCar()
+   {
+      int car;
+      if (numFree > 0)
+      {
+         car = freeCars[--numFree];
+      }
+      else
+      {
+         if (numCars == arrivalTimes.length)
+         {
+            arrivalTimes = Arrays.copyOf(arrivalTimes, numCars * 2);
+            freeCars = Arrays.copyOf(freeCars, numCars * 2);
+            balkDraws = Arrays.copyOf(balkDraws, numCars * 2);
+            mechanicTimes = Arrays.copyOf(mechanicTimes, numCars * 2);
+            referrals = Arrays.copyOf(referrals, numCars * 2);
+            specialistTimes = Arrays.copyOf(specialistTimes, numCars * 2);
+            carHops = Arrays.copyOf(carHops, numCars * 2);
+            carWorker = Arrays.copyOf(carWorker, numCars * 2);
+            carStall = Arrays.copyOf(carStall, numCars * 2);
+            carSkill = Arrays.copyOf(carSkill, numCars * 2);
+            referredAt = Arrays.copyOf(referredAt, numCars * 2);
+         }
+         car = numCars++;
+      }
+
+      arrivalTimes[car] = now;
+
+      // Common random numbers: the n-th car gets the same job
+      // no matter how the shop is staffed.
+      if (common)
+      {
+         balkDraws[car] = ShopRules.balkDraw(uniform(RandomStreams.Source.BALKS));
+         mechanicTimes[car] = exponential(ShopRules.MECHANIC_FIX_TIME, RandomStreams.Source.MECHANIC_FIX_TIMES);
+         referrals[car] = ShopRules.referred(uniform(RandomStreams.Source.REFERRALS));
+         specialistTimes[car] = exponential(ShopRules.SPECIALIST_FIX_TIME, RandomStreams.Source.SPECIALIST_FIX_TIMES);
+         if (numSkills > 1)
+            carSkill[car] = workforce.skillFor(uniform(RandomStreams.Source.REFERRALS));
+      }
+      return car;
+   }
+
+   /**
+    * @return : How many cars in line will make this car balk (see ShopRules).
+    */
+   private long balkDraw(int car)
+   {
+      return common ? balkDraws[car] : ShopRules.balkDraw(uniform());
+   }
+
+   private void freeCar(int car)
+   {
+      freeCars[numFree++] = car;
+   }
+
+   private void carLeaves(int car)
+   {
+      freeCar(car);
+      inSystem--;
+   }
+
+   /**
+    * @return : A uniform random number in [0, 1) (SplitMix64).
+    */
+   private double uniform()
+   {
+      return toUniform(RandomStreams.mix(random += 0x9E3779B97F4A7C15L));
+   }
+
+   /**
+    * @return : A uniform random number in [0, 1) from the source's own stream.
+    */
+   private double uniform(RandomStreams.Source source)
+   {
+      int i = source.ordinal();
+      return toUniform(RandomStreams.mix(streams[i] += 0x9E3779B97F4A7C15L));
+   }
+
+   /**
+    * The top 53 bits as a double in [0, 1).  A mirrored run flips
+    * them, which is 1-U on the same grid (and never reaches 1).
+    */
+   private double toUniform(long bits)
+   {
+      long k = bits >>> 11;
+      if (mirrored)
+         k ^= (1L << 53) - 1;
+      return k * 0x1.0p-53;
+   }
+
+   /**
+    * @return : An exponential random number with the given mean.
+    */
+   private double exponential(double mean)
+   {
+      return -mean * Math.log(1.0 - uniform());
+   }
+
+   private double exponential(double mean, RandomStreams.Source source)
+   {
+      return -mean * Math.log(1.0 - uniform(source));
+   }
+
+   /**
+    * Package the end of day statistics.
+    */
+   private ReplicationResult result(int runNumber)
+   {
+      double mechanicUtil = (config.numMechanics - idleMechanicCount.mean(now)) / config.numMechanics;
+      double specUtil = (config.numSpecialists - idleSpecialistCount.mean(now)) / config.numSpecialists;
+      double responseTime = fullyFixed == 0 ? 0 : responseTimeSum / fullyFixed;
+
+      return new ReplicationResult(runNumber, todaysCost, totalCustomers,
+            totalBalked, totalLost, fullyFixed, responseTime,
+            mechanicUtil, specUtil, waitingForMechanic.averageLength(now), now,
+            mechanicJobs, specialistJobs, config.numMechanics, config.numSpecialists, config.numStalls);
+   }
+}
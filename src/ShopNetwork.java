@@ -0,0 +1,383 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class simulates a chain of shops that send the
+ *    customers they turn away (balked or lost) to a
+ *    neighbouring site instead of the competitor, where
+ *    they arrive transferDelay hours later.  Each site is
+ *    a ShopKernel, the same shop as the AutoBodyShop
+ *    without DESMO-J, so sites can run on different
+ *    threads at the same time.
+ *
+ *    It is a conservative parallel simulation: nothing can
+ *    reach a site sooner than transferDelay after it was
+ *    sent (the lookahead), so every site runs the window
+ *    [T, T + transferDelay) on its own, with T the earliest
+ *    pending event of any site.  At the end of a window the
+ *    transfers are handed over, site by site in the order
+ *    they were sent.  The sites are split into one block
+ *    per thread, and the windows and hand-overs do not
+ *    depend on the threads, so the results are the same
+ *    with any number of them.  The threads are started by
+ *    the first run and kept for the next ones until the
+ *    network is closed.
+ *
+ *    A customer is transferred at most MAX_TRANSFERS times
+ *    (then they go to the competitor, as before).  Run it
+ *    on its own to replicate a ring of identical sites with
+ *    the Driver's settings:
+ *
+ *       java ShopNetwork [sites] [replications] [threads] [transferDelay]
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+public class ShopNetwork implements AutoCloseable
+{
+   /** Hours it takes a customer to get to another site */
+   public static final double DEFAULT_TRANSFER_DELAY = 0.25;
+
+   /** Times a customer is sent on to another site */
+   public static final int MAX_TRANSFERS = 1;
+
+   private final ShopConfig[] sites;
+   private final int[][] neighbours;
+   private final double transferDelay;
+   private final int numThreads;
+   private final int seed;
+   private final boolean common;
+
+   /** Reused from run to run (a kernel per site) */
+   private final ShopKernel[] kernels;
+   private final Outbox[] outboxes;
+
+   /** The current window (set between windows, read by every thread) */
+   private volatile double windowEnd;
+   private volatile boolean done;
+   private volatile Throwable failure;
+   private long windows;
+
+   /** The threads that run blocks 1, 2, ... (block 0 is the caller's), kept between runs */
+   private Thread[] threads;
+   private CyclicBarrier barrier;
+   private volatile boolean closed;
+
+   /**
+    * @param sites : The settings of every site
+    * @param neighbours : Where each site sends its customers (in turn)
+    * @param transferDelay : Hours it takes to get to another site (the lookahead)
+    * @param numThreads : Threads to split the sites across
+    * @param seed : The seed the user entered
+    * @param common : Common random numbers (a dedicated stream per source, per site)
+    */
+   public ShopNetwork(ShopConfig[] sites, int[][] neighbours, double transferDelay, int numThreads,
+         int seed, boolean common)
+   {
+      if (!(transferDelay > 0))
+         throw new IllegalArgumentException("the transfer delay must be positive");
+      if (neighbours.length != sites.length)
+         throw new IllegalArgumentException("every site needs a list of neighbours");
+
+      this.sites = sites;
+      this.neighbours = neighbours;
+      this.transferDelay = transferDelay;
+      this.numThreads = Math.max(1, Math.min(numThreads, sites.length));
+      this.seed = seed;
+      this.common = common;
+
+      this.kernels = new ShopKernel[sites.length];
+      this.outboxes = new Outbox[sites.length];
+      for (int site = 0; site < sites.length; site++)
+      {
+         kernels[site] = new ShopKernel();
+         outboxes[site] = new Outbox(neighbours[site]);
+      }
+   }
+
+   /**
+    * @return : Each of the given number of sites next to the one before and after it.
+    */
+   public static int[][] ring(int numSites)
+   {
+      int[][] neighbours = new int[numSites][];
+      for (int site = 0; site < numSites; site++)
+      {
+         if (numSites == 1)
+            neighbours[site] = new int[0];
+         else if (numSites == 2)
+            neighbours[site] = new int[]{ 1 - site };
+         else
+            neighbours[site] = new int[]{ (site + 1) % numSites, (site + numSites - 1) % numSites };
+      }
+      return neighbours;
+   }
+
+   /**
+    * Run one day of every site.  Site s of replication r uses the
+    * random numbers of replication (r - 1) * sites + s + 1, so no two
+    * sites (or replications) share them.
+    *
+    * @param runNumber : The replication number
+    *
+    * @return : The results of the run.
+    */
+   public NetworkResult run(int runNumber)
+   {
+      if (closed)
+         throw new IllegalStateException("the network is closed");
+
+      int numSites = sites.length;
+      for (int site = 0; site < numSites; site++)
+      {
+         outboxes[site].reset();
+         RandomStreams streams = new RandomStreams(seed, (runNumber - 1) * numSites + site + 1, common);
+         kernels[site].start(sites[site], streams, outboxes[site]);
+      }
+
+      if (threads == null)
+         startThreads();
+
+      // The calling thread runs the first block itself.  Meeting the
+      // block threads at the barrier finds the first window.
+      windows = 0;
+      failure = null;
+      runBlock(0, barrier);
+
+      // A broken barrier cannot be used again: start over next run.
+      if (barrier.isBroken())
+         stopThreads();
+
+      if (failure != null)
+         throw new IllegalStateException("a site did not run correctly", failure);
+
+      ReplicationResult[] results = new ReplicationResult[numSites];
+      long[] transfersOut = new long[numSites];
+      long[] transfersIn = new long[numSites];
+      long[] transfersServed = new long[numSites];
+      for (int site = 0; site < numSites; site++)
+      {
+         results[site] = kernels[site].finish(runNumber);
+         transfersOut[site] = outboxes[site].sent;
+         transfersIn[site] = kernels[site].getTransfersIn();
+         transfersServed[site] = kernels[site].getTransfersServed();
+      }
+      return new NetworkResult(runNumber, results, transfersOut, transfersIn, transfersServed, windows);
+   }
+
+   /**
+    * Stop the block threads.
+    */
+   @Override
+   public void close()
+   {
+      closed = true;
+      stopThreads();
+   }
+
+   /**
+    * Start a thread for every block but the first, waiting for a run.
+    */
+   private void startThreads()
+   {
+      barrier = new CyclicBarrier(numThreads, this::nextWindow);
+      threads = new Thread[numThreads - 1];
+      for (int i = 1; i < numThreads; i++)
+      {
+         int block = i;
+         threads[i - 1] = new Thread(() -> blockThread(block), "Shop Network-" + i);
+         threads[i - 1].setDaemon(true);
+         threads[i - 1].start();
+      }
+   }
+
+   private void stopThreads()
+   {
+      if (threads == null)
+         return;
+
+      for (Thread thread : threads)
+         thread.interrupt();
+      for (Thread thread : threads)
+      {
+         try
+         {
+            thread.join();
+         }
+         catch (InterruptedException e)
+         {
+            Thread.currentThread().interrupt();
+            break;
+         }
+      }
+      threads = null;
+      barrier = null;
+   }
+
+   /**
+    * A block thread: run its block every run, until it is stopped.
+    */
+   private void blockThread(int block)
+   {
+      CyclicBarrier barrier = this.barrier;
+      while (!closed && !barrier.isBroken() && !Thread.currentThread().isInterrupted())
+         runBlock(block, barrier);
+   }
+
+   /**
+    * Run a thread's sites, a window at a time, until every site is done.
+    * The first barrier is the start of the run.
+    */
+   private void runBlock(int block, CyclicBarrier barrier)
+   {
+      int first = block * sites.length / numThreads;
+      int last = (block + 1) * sites.length / numThreads;
+      try
+      {
+         barrier.await();
+         while (!done)
+         {
+            // After a failure every thread still meets the others
+            // at the barrier, so the run ends after this window.
+            try
+            {
+               double until = windowEnd;
+               for (int site = first; site < last && failure == null; site++)
+                  kernels[site].advance(until);
+            }
+            catch (RuntimeException | Error e)
+            {
+               failure = e;
+            }
+
+            barrier.await();
+         }
+      }
+      catch (BrokenBarrierException | InterruptedException e)
+      {
+         if (failure == null)
+            failure = e;
+         if (e instanceof InterruptedException)
+            Thread.currentThread().interrupt();
+      }
+   }
+
+   /**
+    * Between windows (on one thread, the others are waiting): hand
+    * the transfers over and find the next window.
+    */
+   private void nextWindow()
+   {
+      for (Outbox outbox : outboxes)
+      {
+         for (int i = 0; i < outbox.size; i++)
+            kernels[outbox.to[i]].transferIn(outbox.times[i], outbox.hopCounts[i]);
+         outbox.size = 0;
+      }
+
+      double start = Double.POSITIVE_INFINITY;
+      for (ShopKernel kernel : kernels)
+         start = Math.min(start, kernel.nextEventTime());
+
+      done = failure != null || start == Double.POSITIVE_INFINITY;
+      windowEnd = start + transferDelay;
+      if (!done)
+         windows++;
+   }
+
+   /**
+    * The customers a site sent on during the current window.
+    */
+   private final class Outbox implements ShopKernel.Overflow
+   {
+      private final int[] neighbours;
+      private int next;
+      private long sent;
+
+      private double[] times = new double[16];
+      private int[] to = new int[16];
+      private int[] hopCounts = new int[16];
+      private int size;
+
+      Outbox(int[] neighbours)
+      {
+         this.neighbours = neighbours;
+      }
+
+      void reset()
+      {
+         next = 0;
+         sent = 0;
+         size = 0;
+      }
+
+      @Override
+      public void turnedAway(double time, int hops)
+      {
+         // Too many shops already, or nowhere to go: the competitor gets them.
+         if (hops > MAX_TRANSFERS || neighbours.length == 0)
+            return;
+
+         if (size == times.length)
+         {
+            times = Arrays.copyOf(times, size * 2);
+            to = Arrays.copyOf(to, size * 2);
+            hopCounts = Arrays.copyOf(hopCounts, size * 2);
+         }
+
+         // Take turns between the neighbours.
+         times[size] = time + transferDelay;
+         to[size] = neighbours[next];
+         hopCounts[size] = hops;
+         size++;
+         sent++;
+         next = (next + 1) % neighbours.length;
+      }
+   }
+
+   public static void main(String[] args)
+   {
+      int numSites = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+      int replications = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+      int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+      double delay = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_TRANSFER_DELAY;
+
+      ShopConfig[] sites = new ShopConfig[numSites];
+      Arrays.fill(sites, ShopConfig.snapshot());
+      ReplicationResult[][] results = new ReplicationResult[numSites][replications];
+      SampleStatistics[][] transfers = new SampleStatistics[numSites][3];
+      for (SampleStatistics[] site : transfers)
+         for (int i = 0; i < site.length; i++)
+            site[i] = new SampleStatistics();
+      SampleStatistics totalCost = new SampleStatistics();
+
+      try (ShopNetwork network = new ShopNetwork(sites, ring(numSites), delay, threads,
+                                    ReplicationModel.SEED, ReplicationModel.COMMON_RANDOM_NUMBERS))
+      {
+         for (int r = 0; r < replications; r++)
+         {
+            NetworkResult result = network.run(r + 1);
+            totalCost.update(result.totalCost());
+            for (int site = 0; site < numSites; site++)
+            {
+               results[site][r] = result.getSite(site);
+               transfers[site][0].update(result.getTransfersOut(site));
+               transfers[site][1].update(result.getTransfersIn(site));
+               transfers[site][2].update(result.getTransfersServed(site));
+            }
+         }
+      }
+
+      System.out.println("site," + SweepResult.header() + ",transfers_out,transfers_in,transfers_served");
+      for (int site = 0; site < numSites; site++)
+         System.out.println(site + "," + new SweepResult(sites[site], results[site]) + ","
+               + transfers[site][0].getMean() + "," + transfers[site][1].getMean() + ","
+               + transfers[site][2].getMean());
+      System.out.println(String.format("Chain operating cost: %.4f  [%.4f, %.4f]", totalCost.getMean(),
+            totalCost.getConfidenceIntervalOfMeanLowerBound(), totalCost.getConfidenceIntervalOfMeanUpperBound()));
+   }
+}
@@ -0,0 +1,275 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class holds the rules of the Auto Body Shop,
+ *    so every engine (AutoBodyShop, PassiveAutoBodyShop,
+ *    EventAutoBodyShop, ThreadedAutoBodyShop and
+ *    ShopKernel) models the same shop: the arrival and
+ *    fix time constants, when a customer balks, when a
+ *    referred car goes to the other shop and when the
+ *    day is over.
+ *
+ *    Distributions sets up the random variables of the
+ *    three DESMO-J models from a RandomStreams, so they
+ *    all use common random numbers and antithetic runs
+ *    the same way.
+ *
+ * Last Edited: October 2026
+ */
+
+import desmoj.core.dist.*;
+import desmoj.core.simulator.*;
+
+public final class ShopRules
+{
+   // Mean interarrival times (hours).
+   public static final double INTERARRIVAL_8_10 = 15.0 / 60;
+   public static final double INTERARRIVAL_10_4 = 6.0 / 60;
+   public static final double INTERARRIVAL_4_8 = 9.0 / 60;
+
+   // Mechanic constants.
+   public static final double MECHANIC_FIX_TIME = 8.0 / 60;
+   public static final double MECHANIC_REFER_RATE = .4;
+
+   // Specialist constants.
+   public static final double SPECIALIST_FIX_TIME = 25.0 / 60;
+
+   /** Longest a referred customer will have been in the shop (hours) */
+   public static final double MAX_WAIT_FOR_REFERRAL = 0.5;
+
+   /** A customer balks if at least a uniform MIN_BALK - MAX_BALK cars are ahead */
+   public static final int MIN_BALK = 1;
+   public static final int MAX_BALK = 8;
+
+   private ShopRules()
+   {
+   }
+
+   /**
+    * @param hour : Hours since the shop opened
+    *
+    * @return : The stream the interarrival time is drawn from at this time of day.
+    */
+   public static RandomStreams.Source arrivalPeriod(double hour)
+   {
+      // 8 - 10
+      if (hour < 2)
+         return RandomStreams.Source.ARRIVALS_8_10;
+
+      // 10 - 4
+      else if (hour < 8)
+         return RandomStreams.Source.ARRIVALS_10_4;
+
+      // 4 - 8
+      else
+         return RandomStreams.Source.ARRIVALS_4_8;
+   }
+
+   /**
+    * @param period : One of the arrival sources (see arrivalPeriod())
+    *
+    * @return : The mean interarrival time during that period.
+    */
+   public static double interarrivalMean(RandomStreams.Source period)
+   {
+      switch (period)
+      {
+         case ARRIVALS_8_10: return INTERARRIVAL_8_10;
+         case ARRIVALS_10_4: return INTERARRIVAL_10_4;
+         case ARRIVALS_4_8:  return INTERARRIVAL_4_8;
+         default: throw new IllegalArgumentException("Not an arrival source: " + period);
+      }
+   }
+
+   /**
+    * @param u : A uniform draw in [0, 1)
+    *
+    * @return : How many cars in line will make a customer balk.
+    */
+   public static long balkDraw(double u)
+   {
+      return MIN_BALK + (long)(u * (MAX_BALK - MIN_BALK + 1));
+   }
+
+   /**
+    * @param balkDraw : The customer's draw (see balkDraw())
+    * @param carsAhead : Cars waiting ahead of the customer
+    *
+    * @return : True if the customer leaves for the other shop.
+    */
+   public static boolean balks(long balkDraw, int carsAhead)
+   {
+      return balkDraw <= carsAhead;
+   }
+
+   /**
+    * @param u : A uniform draw in [0, 1)
+    *
+    * @return : True if the mechanic can't fix the car.
+    */
+   public static boolean referred(double u)
+   {
+      return u < MECHANIC_REFER_RATE;
+   }
+
+   /**
+    * @return : True if a referred car has been in the shop too long
+    *           to wait for a specialist.
+    */
+   public static boolean waitedTooLong(double now, double arrivalTime)
+   {
+      return now - arrivalTime > MAX_WAIT_FOR_REFERRAL;
+   }
+
+   /**
+    * @return : True once the shop has closed and the last car has left.
+    */
+   public static boolean dayIsOver(double now, double closingTime, int carsInShop)
+   {
+      return now > closingTime && carsInShop == 0;
+   }
+
+   /**
+    * Everything that will happen to one car, drawn when it
+    * arrives (only with common random numbers).
+    */
+   public static final class Job
+   {
+      public final long    balkDraw;
+      public final double  mechanicTime;
+      public final boolean referred;
+      public final double  specialistTime;
+
+      Job(long balkDraw, double mechanicTime, boolean referred, double specialistTime)
+      {
+         this.balkDraw = balkDraw;
+         this.mechanicTime = mechanicTime;
+         this.referred = referred;
+         this.specialistTime = specialistTime;
+      }
+   }
+
+   /**
+    * The sources of randomness of a DESMO-J model of the shop.
+    */
+   public static final class Distributions
+   {
+      private final ContDistExponential interarrivalTimes1; // 8-10
+      private final ContDistExponential interarrivalTimes2; // 10-4
+      private final ContDistExponential interarrivalTimes3; // 4-8
+
+      private final ContDistExponential mechanicFixTimes;
+      private final ContDistExponential specialistFixTimes;
+
+      private final BoolDistBernoulli   mechanicReferral;
+      private final DiscreteDistUniform balkDeterminer;
+
+      private final boolean common;
+
+      /**
+       * Call from the model's init() (the distributions take their
+       * seeds from the experiment in the order they are created).
+       *
+       * @param owner
+       * @param streams : Where the run gets its random numbers (null = experiment seed only)
+       */
+      public Distributions(Model owner, RandomStreams streams)
+      {
+         interarrivalTimes1 = new ContDistExponential(owner,
+               "8-10 Interarrival Times", INTERARRIVAL_8_10, true, false);
+         interarrivalTimes2 = new ContDistExponential(owner,
+               "10-4 Interarrival Times", INTERARRIVAL_10_4, true, false);
+         interarrivalTimes3 = new ContDistExponential(owner,
+               "4-8 Interarrival Times", INTERARRIVAL_4_8, true, false);
+         mechanicFixTimes = new ContDistExponential(owner,
+               "Mechanic Fix Times", MECHANIC_FIX_TIME,
+               true, false);
+         specialistFixTimes = new ContDistExponential(owner,
+               "Specialist Fix Times", SPECIALIST_FIX_TIME,
+               true, false);
+         mechanicReferral = new BoolDistBernoulli(owner, "Mechanic Referral",
+               MECHANIC_REFER_RATE, true, false);
+         balkDeterminer = new DiscreteDistUniform(owner, "Balk Determiner", MIN_BALK, MAX_BALK, true, false);
+
+         this.common = streams != null && streams.common;
+
+         // Common random numbers: each source gets its own stream,
+         // independent of the staffing levels.
+         if (common)
+         {
+            interarrivalTimes1.setSeed(streams.seedFor(RandomStreams.Source.ARRIVALS_8_10));
+            interarrivalTimes2.setSeed(streams.seedFor(RandomStreams.Source.ARRIVALS_10_4));
+            interarrivalTimes3.setSeed(streams.seedFor(RandomStreams.Source.ARRIVALS_4_8));
+            mechanicFixTimes.setSeed(streams.seedFor(RandomStreams.Source.MECHANIC_FIX_TIMES));
+            specialistFixTimes.setSeed(streams.seedFor(RandomStreams.Source.SPECIALIST_FIX_TIMES));
+            mechanicReferral.setSeed(streams.seedFor(RandomStreams.Source.REFERRALS));
+            balkDeterminer.setSeed(streams.seedFor(RandomStreams.Source.BALKS));
+         }
+
+         // The second run of an antithetic pair uses 1-U for every draw.
+         if (streams != null && streams.isMirrored())
+         {
+            interarrivalTimes1.setAntithetic(true);
+            interarrivalTimes2.setAntithetic(true);
+            interarrivalTimes3.setAntithetic(true);
+            mechanicFixTimes.setAntithetic(true);
+            specialistFixTimes.setAntithetic(true);
+            mechanicReferral.setAntithetic(true);
+            balkDeterminer.setAntithetic(true);
+         }
+      }
+
+      /**
+       * @param hour : Hours since the shop opened
+       *
+       * @return : The time until the next car arrives.
+       */
+      public double interarrivalTime(double hour)
+      {
+         switch (arrivalPeriod(hour))
+         {
+            case ARRIVALS_8_10: return interarrivalTimes1.sample();
+            case ARRIVALS_10_4: return interarrivalTimes2.sample();
+            default:            return interarrivalTimes3.sample();
+         }
+      }
+
+      /**
+       * Draw everything that will happen to a car that just
+       * arrived, each from its own stream, so the n-th car gets
+       * the same job no matter how the shop is staffed.
+       *
+       * @return : The car's job, or null without common random
+       *           numbers (each part is drawn when it is needed).
+       */
+      public Job drawJob()
+      {
+         if (!common)
+            return null;
+
+         return new Job(balkDeterminer.sample(), mechanicFixTimes.sample(),
+               mechanicReferral.sample(), specialistFixTimes.sample());
+      }
+
+      public long balkDraw(Job job)
+      {
+         return job != null ? job.balkDraw : balkDeterminer.sample();
+      }
+
+      public double mechanicTime(Job job)
+      {
+         return job != null ? job.mechanicTime : mechanicFixTimes.sample();
+      }
+
+      public boolean referred(Job job)
+      {
+         return job != null ? job.referred : mechanicReferral.sample();
+      }
+
+      public double specialistTime(Job job)
+      {
+         return job != null ? job.specialistTime : specialistFixTimes.sample();
+      }
+   }
+}
@@ -0,0 +1,99 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class is the registry of instrumentation totals
+ *    across every replication run in this program: events,
+ *    scheduling calls per kind of process, wall and CPU
+ *    time, and the longest the waiting lines got.  Every
+ *    replication adds its ReplicationCounters once, when it
+ *    is done, into striped counters (LongAdder), so worker
+ *    threads never wait on each other.  snapshot() can be
+ *    called at any time, eg. while a campaign is running.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class SimulationMetrics
+{
+   /** Every replication is recorded here */
+   public static final SimulationMetrics GLOBAL = new SimulationMetrics();
+
+   private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+   private final LongAdder replications = new LongAdder();
+   private final LongAdder failures = new LongAdder();
+   private final LongAdder events = new LongAdder();
+   private final LongAdder wallNanos = new LongAdder();
+   private final LongAdder cpuNanos = new LongAdder();
+   private final LongAdder[] calls = new LongAdder[ReplicationCounters.NUM_CALLS];
+   private final LongAccumulator slowestNanos = new LongAccumulator(Math::max, 0);
+   private final LongAccumulator peakWaitingForMechanic = new LongAccumulator(Math::max, 0);
+   private final LongAccumulator peakWaitingForSpecialist = new LongAccumulator(Math::max, 0);
+
+   public SimulationMetrics()
+   {
+      for (int i = 0; i < calls.length; i++)
+         calls[i] = new LongAdder();
+   }
+
+   /**
+    * Add a finished replication.
+    *
+    * @param counters : What it counted
+    * @param ok : False if it did not run correctly
+    * @param wall : Wall-clock time it took (ns)
+    * @param cpu : CPU time of the thread that ran it (ns)
+    */
+   public void record(ReplicationCounters counters, boolean ok, long wall, long cpu)
+   {
+      replications.increment();
+      if (!ok)
+         failures.increment();
+
+      events.add(counters.getEvents());
+      wallNanos.add(wall);
+      cpuNanos.add(cpu);
+      slowestNanos.accumulate(wall);
+
+      for (ReplicationCounters.Entity entity : ReplicationCounters.Entity.values())
+      {
+         for (ReplicationCounters.Call call : ReplicationCounters.Call.values())
+         {
+            long count = counters.getCalls(entity, call);
+            if (count != 0)
+               calls[ReplicationCounters.index(entity, call)].add(count);
+         }
+      }
+
+      peakWaitingForMechanic.accumulate(counters.getPeakWaitingForMechanic());
+      peakWaitingForSpecialist.accumulate(counters.getPeakWaitingForSpecialist());
+   }
+
+   /**
+    * @return : The totals so far (consistent enough while replications are still running).
+    */
+   public MetricsSnapshot snapshot()
+   {
+      long[] callTotals = new long[calls.length];
+      for (int i = 0; i < calls.length; i++)
+         callTotals[i] = calls[i].sum();
+
+      return new MetricsSnapshot(replications.sum(), failures.sum(), events.sum(), wallNanos.sum(),
+            cpuNanos.sum(), slowestNanos.get(), callTotals, (int)peakWaitingForMechanic.get(),
+            (int)peakWaitingForSpecialist.get());
+   }
+
+   /**
+    * @return : CPU time used by the current thread so far (ns, 0 if not supported).
+    */
+   public static long threadCpuTime()
+   {
+      return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : 0;
+   }
+}
@@ -39,41 +39,58 @@ public class Specialist extends SimProcess
    {
       // Get the model. 
       AutoBodyShop mc = (AutoBodyShop)getModel();
-      mc.todaysCost.update(AutoBodyShop.SPECIALIST_SALARY);
+      mc.processes.started();
       
-      while (true)
+      try
       {
-         // There is not another car to fix.
-         if (mc.waitingForSpecialist.isEmpty())
-         {
-            mc.idleSpecialists.insert(this);
-            this.passivate();
-         }
-         // There is another car to fix.
-         else
+         mc.todaysCost.update(mc.config.specialistSalary);
+      
+         while (true)
          {
-            // Get the next customer.
-            Customer seeingSpecialist = mc.waitingForSpecialist.removeFirst();
+            // There is not another car to fix.
+            if (mc.waitingForSpecialist.isEmpty())
+            {
+               mc.idleSpecialists.insert(this);
+               mc.transition(ReplicationCounters.Entity.SPECIALIST, ReplicationCounters.Call.PASSIVATE);
+               this.passivate();
+            }
+            // There is another car to fix.
+            else
+            {
+               // Get the next customer.
+               Customer seeingSpecialist = mc.waitingForSpecialist.removeFirst();
             
-            // Sample and hold for time t.
-            double time = mc.specialistFixTimes.sample();
-            this.hold(new TimeSpan(time));
+               // Sample and hold for time t.
+               double time = mc.distributions.specialistTime(seeingSpecialist.job);
+               mc.transition(ReplicationCounters.Entity.SPECIALIST, ReplicationCounters.Call.HOLD);
+               this.hold(new TimeSpan(time));
             
-            // SEEING SPECIALIST ...
+               // SEEING SPECIALIST ...
               
-            // Update stats 
-            mc.fullyFixed.update(); // += 1
-            mc.responseTimes.update(mc.presentTime().getTimeAsDouble() - seeingSpecialist.arrivalTime); 
-            seeingSpecialist.finished = true;
-            mc.inSystem.remove(seeingSpecialist);
+               // Update stats 
+               mc.fullyFixed.update(); // += 1
+               mc.responseTimes.update(mc.presentTime().getTimeAsDouble() - seeingSpecialist.arrivalTime); 
+               seeingSpecialist.finished = true;
+               mc.inSystem--;
                         
-            // Reactivate customer (no longer occupies a stall).
-            mc.stallsInUse.update(-1);
-            seeingSpecialist.activate(); 
+               // Reactivate customer (no longer occupies a stall).
+               mc.stallsInUse.update(-1);
+               mc.transition(ReplicationCounters.Entity.CUSTOMER, ReplicationCounters.Call.ACTIVATE);
+               seeingSpecialist.activate(); 
            
-            // Pay the specialist's commission.
-            mc.todaysCost.update(AutoBodyShop.SPECIALIST_COMMISSION);
+               // Pay the specialist's commission.
+               mc.todaysCost.update(mc.config.specialistCommission);
+               mc.specialistJobs.update();
+               
+               // The last car of the day has left.
+               mc.closing.endIfEmpty(mc.inSystem);
+            }
          }
       }
+      finally
+      {
+         // Let the replication know this process has terminated.
+         mc.processes.terminated();
+      }
    }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This event models a specialist finishing with
+ *    a car in the event oriented Auto Body Shop.
+ *
+ * Last Edited: October 2026
+ */
+
+import desmoj.core.simulator.*;
+
+public class SpecialistFinished extends Event<Car>
+{
+   /**
+    * @param owner
+    * @param name
+    * @param showInTrace
+    */
+   public SpecialistFinished(Model owner, String name, boolean showInTrace)
+   {
+      super(owner, name, showInTrace);
+   }
+
+   @Override
+   /**
+    * The specialist fixed the car:
+    *   1. The car drives away (and frees its stall)
+    *   2. The specialist moves on to the next car (or goes idle)
+    */
+   public void eventRoutine(Car car)
+   {
+      EventAutoBodyShop mc = (EventAutoBodyShop)getModel();
+      mc.counters.event();
+
+      // Update stats
+      mc.fullyFixed.update(); // += 1
+      mc.responseTimes.update(mc.presentTime().getTimeAsDouble() - car.arrivalTime);
+      car.finished = true;
+      mc.inSystem--;
+      mc.closing.endIfEmpty(mc.inSystem);
+
+      // No longer occupies a stall.
+      mc.stallsInUse--;
+
+      // Pay the specialist's commission.
+      mc.todaysCost.update(mc.config.specialistCommission);
+      mc.specialistJobs.update();
+
+      // Specialist moves on to the next car.
+      mc.specialistFree();
+   }
+}
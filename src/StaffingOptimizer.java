@@ -0,0 +1,242 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class finds the staffing (mechanics, specialists,
+ *    stalls) with the lowest daily operating cost without
+ *    replicating every configuration to the same precision.
+ *    It uses Kim and Nelson's fully sequential procedure
+ *    (KN): every configuration gets n0 replications, then
+ *    the survivors get one more replication per stage, and
+ *    a configuration is dropped as soon as its mean cost is
+ *    clearly above another survivor's.  Bad configurations
+ *    are gone after a few stages, so most replications go
+ *    to the close contenders.
+ *
+ *    All configurations use common random numbers, which
+ *    KN allows and which makes the pairwise differences it
+ *    looks at much less noisy.
+ *
+ *       java StaffingOptimizer [indifference zone] [alpha] [max replications] [workers]
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StaffingOptimizer
+{
+   private final ReplicationModel.Engine engine;
+   private final int baseSeed;
+   private final int numWorkers;
+
+   /** First stage replications per configuration (at least 2) */
+   private final int n0;
+
+   /** Cost differences smaller than this are not worth telling apart */
+   private final double indifferenceZone;
+
+   /** 1 - alpha is the probability of correct selection */
+   private final double alpha;
+
+   /** Most replications any one configuration gets */
+   private final int maxReplications;
+
+   /**
+    * @param engine : Which version of the shop model to run
+    * @param baseSeed : The seed the user entered
+    * @param n0 : First stage replications per configuration (at least 2)
+    * @param indifferenceZone : Smallest cost difference (dollars) that matters
+    * @param alpha : 1 - the probability of correct selection
+    * @param maxReplications : Most replications any one configuration gets
+    * @param numWorkers : Threads to run replications on
+    * 
+    * @throws IllegalArgumentException : If the engine can't use common random numbers.
+    */
+   public StaffingOptimizer(ReplicationModel.Engine engine, int baseSeed, int n0, double indifferenceZone,
+         double alpha, int maxReplications, int numWorkers)
+   {
+      if (!engine.usesStreams())
+         throw new IllegalArgumentException(engine + " can't use common random numbers");
+
+      this.engine = engine;
+      this.baseSeed = baseSeed;
+      this.n0 = Math.max(2, n0);
+      this.indifferenceZone = indifferenceZone;
+      this.alpha = alpha;
+      this.maxReplications = Math.max(this.n0, maxReplications);
+      this.numWorkers = numWorkers;
+   }
+
+   /**
+    * Select the configuration with the lowest daily operating cost.
+    *
+    * @param configs : The configurations to choose from
+    *
+    * @return : The selection, or null if a replication did not run correctly.
+    */
+   public SelectionResult run(List<ShopConfig> configs)
+   {
+      // Every stage runs on the same worker threads.
+      try (ReplicationExecutor executor = new ReplicationExecutor(numWorkers))
+      {
+         return run(configs, executor);
+      }
+   }
+
+   private SelectionResult run(List<ShopConfig> configs, ReplicationExecutor executor)
+   {
+      int k = configs.size();
+      SampleStatistics[] costs = new SampleStatistics[k];
+      double[][] firstStage = new double[k][n0];
+      long totalReplications;
+
+      for (int i = 0; i < k; i++)
+         costs[i] = new SampleStatistics();
+
+      // First stage: n0 replications of every configuration.
+      int[] task = { 0 };
+      boolean ok = executor.run(0, k * n0 - 1,
+            t -> replicate(configs.get(t / n0), t % n0 + 1),
+            result ->
+            {
+               int i = task[0] / n0;
+               firstStage[i][task[0] % n0] = result.todaysCost;
+               costs[i].update(result.todaysCost);
+               task[0]++;
+            });
+      if (!ok)
+         return null;
+      totalReplications = (long)k * n0;
+
+      // The variance of each pairwise difference sets how long it is kept.
+      double h2 = k == 1 ? 0 : 2 * eta(k) * (n0 - 1);
+      double[][] differenceVariance = differenceVariances(firstStage);
+
+      List<Integer> survivors = new ArrayList<>();
+      for (int i = 0; i < k; i++)
+         survivors.add(i);
+
+      int r = n0;
+      while (true)
+      {
+         survivors = eliminate(survivors, costs, differenceVariance, h2, r);
+         if (survivors.size() == 1 || r >= maxReplications)
+            break;
+
+         // One more replication of every survivor.
+         r++;
+         List<Integer> stage = survivors;
+         int replication = r;
+         int[] next = { 0 };
+         ok = executor.run(0, stage.size() - 1,
+               t -> replicate(configs.get(stage.get(t)), replication),
+               result -> costs[stage.get(next[0]++)].update(result.todaysCost));
+         if (!ok)
+            return null;
+         totalReplications += stage.size();
+      }
+
+      // Out of budget: the cheapest survivor, without the guarantee.
+      int best = survivors.get(0);
+      for (int i : survivors)
+         if (costs[i].getMean() < costs[best].getMean())
+            best = i;
+
+      double pcs = survivors.size() == 1 ? 1 - alpha : 0;
+      return new SelectionResult(configs.get(best), costs[best], pcs, indifferenceZone,
+            totalReplications, k, r);
+   }
+
+   /**
+    * Drop every survivor whose mean cost is clearly above another's.
+    *
+    * @return : The survivors of this stage.
+    */
+   private List<Integer> eliminate(List<Integer> survivors, SampleStatistics[] costs,
+         double[][] differenceVariance, double h2, int r)
+   {
+      List<Integer> kept = new ArrayList<>();
+      double delta = indifferenceZone;
+
+      for (int i : survivors)
+      {
+         boolean dominated = false;
+         for (int l : survivors)
+         {
+            if (l == i)
+               continue;
+
+            // The continuation region shrinks as r grows.
+            double w = Math.max(0, delta / (2 * r) * (h2 * differenceVariance[i][l] / (delta * delta) - r));
+            if (costs[i].getMean() > costs[l].getMean() + w)
+            {
+               dominated = true;
+               break;
+            }
+         }
+
+         if (!dominated)
+            kept.add(i);
+      }
+      return kept;
+   }
+
+   /**
+    * KN's constant for k configurations and n0 first stage replications.
+    */
+   private double eta(int k)
+   {
+      return 0.5 * (Math.pow(2 * alpha / (k - 1), -2.0 / (n0 - 1)) - 1);
+   }
+
+   /**
+    * @return : The sample variance of X_i - X_l over the first stage, for every pair.
+    */
+   private double[][] differenceVariances(double[][] firstStage)
+   {
+      int k = firstStage.length;
+      double[][] variances = new double[k][k];
+
+      for (int i = 0; i < k; i++)
+      {
+         for (int l = i + 1; l < k; l++)
+         {
+            SampleStatistics difference = new SampleStatistics();
+            for (int j = 0; j < n0; j++)
+               difference.update(firstStage[i][j] - firstStage[l][j]);
+
+            variances[i][l] = difference.getVariance();
+            variances[l][i] = variances[i][l];
+         }
+      }
+      return variances;
+   }
+
+   private ReplicationResult replicate(ShopConfig config, int runNumber)
+   {
+      return ReplicationModel.simulate(engine, config, new RandomStreams(baseSeed, runNumber, true));
+   }
+
+   public static void main(String[] args)
+   {
+      double delta = args.length > 0 ? Double.parseDouble(args[0]) : 50;
+      double alpha = args.length > 1 ? Double.parseDouble(args[1]) : 0.05;
+      int maxReplications = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+      int workers = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+      // Every staffing level the Driver offers, at the Driver's hours and costs.
+      ShopConfig base = ShopConfig.snapshot();
+      List<ShopConfig> configs = ParameterSweep.grid(base,
+            new int[]{base.operationHours},
+            new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10},
+            new int[]{1, 2, 3, 4, 5},
+            new int[]{1, 2, 3, 4, 5});
+
+      StaffingOptimizer optimizer = new StaffingOptimizer(ReplicationModel.Engine.KERNEL,
+            ReplicationModel.SEED, 20, delta, alpha, maxReplications, workers);
+      SelectionResult selection = optimizer.run(configs);
+      System.out.println(selection == null ? "A replication did not run correctly." : selection);
+   }
+}
@@ -0,0 +1,207 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class runs the shop as if it never closed, for
+ *    capacity planning over months of operation, and gives
+ *    confidence intervals by the method of batch means
+ *    instead of independent replications.  A single long
+ *    run (ShopKernel.runSteadyState) throws away a warm-up
+ *    and is then cut into batches of whole days; each
+ *    batch's per-day values are one observation of every
+ *    Metric.
+ *
+ *    Batches of a single run are not quite independent,
+ *    so the lag-1 autocorrelation of the batch means is
+ *    kept as well: if it is far from 0, use longer batches.
+ *    Only running sums are kept, so memory does not grow
+ *    with the number of days or customers.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.EnumMap;
+import java.util.function.Consumer;
+
+public class SteadyStateRun
+{
+   public static final int DEFAULT_WARMUP_DAYS = 30;
+   public static final int DEFAULT_BATCH_DAYS = 200;
+   public static final int DEFAULT_BATCHES = 30;
+
+   private final ShopConfig config;
+   private final int seed;
+   private final int warmupDays;
+   private final int batchDays;
+   private final int numBatches;
+   private boolean common;
+
+   /** Batch means of every metric, and what their lag-1 autocorrelation needs */
+   private final EnumMap<Metric, SampleStatistics> statistics = new EnumMap<>(Metric.class);
+   private final double[] firstMean = new double[Metric.values().length];
+   private final double[] lastMean = new double[Metric.values().length];
+   private final double[] sumOfProducts = new double[Metric.values().length];
+
+   private long elapsedNanos;
+   private MetricsSnapshot metrics;
+
+   /**
+    * @param config : The settings to run the shop with
+    * @param seed : The seed the user entered
+    * @param warmupDays : Days to run before anything is counted
+    * @param batchDays : Days in each batch
+    * @param numBatches : Batches to run (at least 2 for an interval)
+    */
+   public SteadyStateRun(ShopConfig config, int seed, int warmupDays, int batchDays, int numBatches)
+   {
+      this.config = config;
+      this.seed = seed;
+      this.warmupDays = Math.max(0, warmupDays);
+      this.batchDays = Math.max(1, batchDays);
+      this.numBatches = Math.max(1, numBatches);
+
+      for (Metric metric : Metric.values())
+         statistics.put(metric, new SampleStatistics());
+   }
+
+   public void setCommonRandomNumbers(boolean common)
+   {
+      this.common = common;
+   }
+
+   /**
+    * Run the shop for the warm-up and every batch.
+    *
+    * @param onBatch : Receives each batch's totals, in order
+    */
+   public void run(Consumer<ReplicationResult> onBatch)
+   {
+      ShopKernel kernel = new ShopKernel();
+      ReplicationCounters counters = new ReplicationCounters();
+      MetricsSnapshot before = SimulationMetrics.GLOBAL.snapshot();
+      long cpu = SimulationMetrics.threadCpuTime();
+      long start = System.nanoTime();
+
+      kernel.runSteadyState(config, new RandomStreams(seed, 1, common), warmupDays, batchDays, numBatches,
+            batch ->
+            {
+               counters.peaks(kernel.getPeakWaitingForMechanic(), kernel.getPeakWaitingForSpecialist());
+               observe(observation(batch));
+               onBatch.accept(batch);
+            });
+
+      elapsedNanos = System.nanoTime() - start;
+      counters.addEvents(kernel.getEventsExecuted());
+      SimulationMetrics.GLOBAL.record(counters, true, elapsedNanos, SimulationMetrics.threadCpuTime() - cpu);
+      metrics = SimulationMetrics.GLOBAL.snapshot().since(before);
+   }
+
+   /**
+    * @return : Every metric's value per day of a batch (the batch's cost and
+    *           customer counts divided by its days, the averages as they are).
+    */
+   public EnumMap<Metric, Double> observation(ReplicationResult batch)
+   {
+      EnumMap<Metric, Double> observation = ReplicationCampaign.observation(batch);
+      for (Metric metric : Metric.values())
+      {
+         switch (metric)
+         {
+            case DAILY_OPERATING_COST:
+            case TOTAL_CUSTOMERS:
+            case BALKED_CUSTOMERS:
+            case LOST_CUSTOMERS:
+            case FULLY_FIXED:
+               observation.put(metric, observation.get(metric) / batchDays);
+               break;
+            default:
+               break;
+         }
+      }
+      return observation;
+   }
+
+   private void observe(EnumMap<Metric, Double> observation)
+   {
+      observation.forEach((metric, value) ->
+      {
+         int i = metric.ordinal();
+         if (statistics.get(metric).getObservations() == 0)
+            firstMean[i] = value;
+         else
+            sumOfProducts[i] += lastMean[i] * value;
+
+         lastMean[i] = value;
+         statistics.get(metric).update(value);
+      });
+   }
+
+   /**
+    * @return : The statistics of the batch means of the given metric.
+    */
+   public SampleStatistics get(Metric metric)
+   {
+      return statistics.get(metric);
+   }
+
+   /**
+    * How much each batch mean of a metric still depends on the one
+    * before it.  Near 0 the batches are long enough for the interval
+    * to be trusted; a large positive value makes it too narrow.
+    *
+    * @return : The lag-1 autocorrelation of the batch means
+    *           (0 with fewer than 3 batches or no variance).
+    */
+   public double lag1Autocorrelation(Metric metric)
+   {
+      SampleStatistics stats = statistics.get(metric);
+      long n = stats.getObservations();
+      double variance = stats.getVariance();
+      if (n < 3 || variance == 0)
+         return 0;
+
+      // sum (x[i] - mean)(x[i+1] - mean) for i = 1 .. n-1, from the running sums.
+      int i = metric.ordinal();
+      double mean = stats.getMean();
+      double sum = n * mean;
+      double covariance = sumOfProducts[i] - mean * ((sum - lastMean[i]) + (sum - firstMean[i]))
+                        + (n - 1) * mean * mean;
+      return covariance / ((n - 1) * variance);
+   }
+
+   public ShopConfig getConfig()
+   {
+      return config;
+   }
+
+   public int getBatches()
+   {
+      return numBatches;
+   }
+
+   public int getBatchDays()
+   {
+      return batchDays;
+   }
+
+   public int getWarmupDays()
+   {
+      return warmupDays;
+   }
+
+   /**
+    * @return : Wall-clock time of the last run.
+    */
+   public long getElapsedNanos()
+   {
+      return elapsedNanos;
+   }
+
+   /**
+    * @return : What the last run did (null before it has run).
+    */
+   public MetricsSnapshot getMetrics()
+   {
+      return metrics;
+   }
+}
@@ -0,0 +1,116 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    The summary of every replication of one
+ *    configuration in a ParameterSweep: the same
+ *    statistics (and 95% confidence intervals) the
+ *    ReplicationModel reports, one per Metric.  The
+ *    replications are kept, so the same sweep can be
+ *    priced again (withPrices) without simulating it.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.EnumMap;
+import java.util.Map;
+
+public final class SweepResult
+{
+   public final ShopConfig config;
+   public final int failures;
+   private final ReplicationResult[] results;
+   private final EnumMap<Metric, SampleStatistics> statistics;
+
+   /**
+    * @param config : The configuration that was replicated
+    * @param results : Its replication results in replication order (null = failed)
+    */
+   public SweepResult(ShopConfig config, ReplicationResult[] results)
+   {
+      this.config = config;
+      this.results = results;
+      this.statistics = new EnumMap<>(Metric.class);
+
+      for (Metric metric : Metric.values())
+         statistics.put(metric, new SampleStatistics());
+
+      int failed = 0;
+      for (ReplicationResult result : results)
+      {
+         if (result == null)
+         {
+            failed++;
+            continue;
+         }
+
+         for (Map.Entry<Metric, SampleStatistics> entry : statistics.entrySet())
+            entry.getValue().update(entry.getKey().of(result));
+      }
+      this.failures = failed;
+   }
+
+   /**
+    * The same replications priced with other salaries, commissions
+    * and costs (the staffing does not change what happens in a day).
+    *
+    * @param prices : Where to take the new prices from
+    */
+   public SweepResult withPrices(ShopConfig prices)
+   {
+      ReplicationResult[] repriced = new ReplicationResult[results.length];
+      for (int i = 0; i < results.length; i++)
+         repriced[i] = results[i] == null ? null : results[i].withPrices(prices);
+
+      return new SweepResult(config.withPrices(prices), repriced);
+   }
+
+   /**
+    * @return : The statistics of the given metric across the replications.
+    */
+   public SampleStatistics get(Metric metric)
+   {
+      return statistics.get(metric);
+   }
+
+   /**
+    * @return : The column titles for toString().
+    */
+   public static String header()
+   {
+      StringBuilder header = new StringBuilder("hours,mechanics,specialists,stalls,replications,failures");
+      for (Metric metric : Metric.values())
+      {
+         String name = metric.name().toLowerCase();
+         header.append(',').append(name).append("_mean")
+               .append(',').append(name).append("_lower")
+               .append(',').append(name).append("_upper");
+      }
+      return header.toString();
+   }
+
+   @Override
+   /**
+    * One comma separated row of the results table.
+    */
+   public String toString()
+   {
+      SampleStatistics cost = statistics.get(Metric.DAILY_OPERATING_COST);
+      StringBuilder row = new StringBuilder();
+      row.append(config.operationHours).append(',')
+         .append(config.numMechanics).append(',')
+         .append(config.numSpecialists).append(',')
+         .append(config.numStalls).append(',')
+         .append(cost.getObservations()).append(',')
+         .append(failures);
+
+      for (Metric metric : Metric.values())
+      {
+         SampleStatistics stats = statistics.get(metric);
+         row.append(',').append(stats.getMean())
+            .append(',').append(stats.getConfidenceIntervalOfMeanLowerBound())
+            .append(',').append(stats.getConfidenceIntervalOfMeanUpperBound());
+      }
+      return row.toString();
+   }
+}
@@ -0,0 +1,60 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class compares running the ThreadedAutoBodyShop
+ *    processes on platform threads against virtual threads,
+ *    for a 12 hour day with 10 mechanics.  Run it with
+ *    an optional replication count:
+ *
+ *       java ThreadModeBenchmark [replications]
+ *
+ * Last Edited: October 2026
+ */
+
+public class ThreadModeBenchmark
+{
+   /** Replications run (and thrown away) before measuring */
+   private static final int WARMUP_REPLICATIONS = 200;
+
+   public static void main(String[] args)
+   {
+      int replications = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+      // 12 hour day with 10 mechanics (other settings are the Driver defaults).
+      ShopConfig config = new ShopConfig(12, 100, 400, 10, 100, 10, 1, 1, 300, 100);
+
+      System.out.println("12 hour day, 10 mechanics, " + replications + " replications");
+      if (!HandoffScheduler.virtualThreadsAvailable())
+         System.out.println("(No virtual threads before Java 21: VIRTUAL runs on platform threads)");
+      System.out.println("Threads    Reps/sec   Customers/sec   Switches/sec");
+
+      for (HandoffScheduler.Threads threads : HandoffScheduler.Threads.values())
+      {
+         run(config, threads, WARMUP_REPLICATIONS);
+         run(config, threads, replications);
+      }
+   }
+
+   /**
+    * Run the replications one after another and print the throughput.
+    */
+   private static void run(ShopConfig config, HandoffScheduler.Threads threads, int replications)
+   {
+      long customers = 0;
+      long switches = 0;
+      long start = System.nanoTime();
+
+      for (int i = 1; i <= replications; i++)
+      {
+         ThreadedAutoBodyShop shop = new ThreadedAutoBodyShop(
+               config, ReplicationModel.seedFor(ReplicationModel.SEED, i), threads);
+         customers += shop.run(i).totalCustomers;
+         switches += shop.scheduler.getSwitches();
+      }
+
+      double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.printf("%-9s  %-9.1f  %-14.0f  %-12.0f%n", threads,
+            replications / seconds, customers / seconds, switches / seconds);
+   }
+}
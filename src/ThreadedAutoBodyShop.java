@@ -0,0 +1,381 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class models the same process oriented Auto
+ *    Body Shop as AutoBodyShop, but its Customer, Mechanic,
+ *    Specialist and Generator life cycles run under the
+ *    HandoffScheduler (on virtual threads by default)
+ *    instead of DESMO-J.  The life cycles below follow
+ *    the DESMO-J versions step for step.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+
+public class ThreadedAutoBodyShop
+{
+   /** Settings and scheduler for this run */
+   protected final ShopConfig config;
+   protected final HandoffScheduler scheduler;
+   private final SplittableRandom random;
+
+   /** Structures */
+   protected final ArrayDeque<MechanicProcess> idleMechanics = new ArrayDeque<>();
+   protected final ArrayDeque<SpecialistProcess> idleSpecialists = new ArrayDeque<>();
+   protected final ArrayDeque<CustomerProcess> waitingForMechanic = new ArrayDeque<>();
+   protected final ArrayDeque<CustomerProcess> waitingForSpecialist = new ArrayDeque<>();
+   protected int inSystem;
+   protected int stallsInUse;
+
+   /** Trackers */
+   protected long   totalCustomers;
+   protected long   totalBalked;
+   protected long   totalLost;
+   protected long   fullyFixed;
+   protected long   mechanicJobs;
+   protected long   specialistJobs;
+   protected double responseTimeSum;
+   protected double todaysCost;
+   protected final TimeAverage idleMechanicCount = new TimeAverage();
+   protected final TimeAverage idleSpecialistCount = new TimeAverage();
+   protected final TimeAverage waitingForMechanicCount = new TimeAverage();
+   protected int peakWaitingForSpecialist;
+
+   /**
+    * @param config : The (immutable) settings for this run
+    * @param seed : The seed for the random number generator
+    * @param threads : What kind of thread each process runs on
+    */
+   public ThreadedAutoBodyShop(ShopConfig config, long seed, HandoffScheduler.Threads threads)
+   {
+      this.config = config;
+      this.scheduler = new HandoffScheduler(threads);
+      this.random = new SplittableRandom(seed);
+   }
+
+   /**
+    * Run the shop for a single day.
+    *
+    * @param runNumber : The replication number (for the result)
+    *
+    * @return : The results of the run.
+    */
+   public ReplicationResult run(int runNumber)
+   {
+      idleMechanicCount.reset(0, 0);
+      idleSpecialistCount.reset(0, 0);
+      waitingForMechanicCount.reset(0, 0);
+
+      // Create all mechanics and specialists, then start arrivals.
+      for (int i = 0; i < config.numMechanics; i++)
+         new MechanicProcess().activate();
+
+      for (int i = 0; i < config.numSpecialists; i++)
+         new SpecialistProcess().activate();
+
+      new GeneratorProcess().activate();
+
+      // Incur the cost of each specialist stall.
+      todaysCost += config.numStalls * config.stallCost;
+
+      // Run until the shop has closed and every customer has left.
+      scheduler.run(() -> ShopRules.dayIsOver(now(), config.operationHours, inSystem));
+
+      double now = now();
+      double mechanicUtil = (config.numMechanics - idleMechanicCount.mean(now)) / config.numMechanics;
+      double specUtil = (config.numSpecialists - idleSpecialistCount.mean(now)) / config.numSpecialists;
+      double responseTime = fullyFixed == 0 ? 0 : responseTimeSum / fullyFixed;
+
+      return new ReplicationResult(runNumber, todaysCost, totalCustomers,
+            totalBalked, totalLost, fullyFixed, responseTime,
+            mechanicUtil, specUtil, waitingForMechanicCount.mean(now), now,
+            mechanicJobs, specialistJobs, config.numMechanics, config.numSpecialists, config.numStalls);
+   }
+
+   /**
+    * @return : The number of hand-offs between processes so far.
+    */
+   public long getSwitches()
+   {
+      return scheduler.getSwitches();
+   }
+
+   /**
+    * @return : The longest the mechanic line got.
+    */
+   public int getPeakWaitingForMechanic()
+   {
+      return (int)waitingForMechanicCount.max();
+   }
+
+   /**
+    * @return : The longest the specialist line got.
+    */
+   public int getPeakWaitingForSpecialist()
+   {
+      return peakWaitingForSpecialist;
+   }
+
+   private double now()
+   {
+      return scheduler.presentTime();
+   }
+
+   private double exponential(double mean)
+   {
+      return -mean * Math.log(1.0 - random.nextDouble());
+   }
+
+   private void idleMechanicsChanged()
+   {
+      idleMechanicCount.update(now(), idleMechanics.size());
+   }
+
+   private void idleSpecialistsChanged()
+   {
+      idleSpecialistCount.update(now(), idleSpecialists.size());
+   }
+
+   private void waitingForMechanicChanged()
+   {
+      waitingForMechanicCount.update(now(), waitingForMechanic.size());
+   }
+
+   /**
+    * See Customer.
+    */
+   protected class CustomerProcess extends HandoffProcess
+   {
+      protected final double arrivalTime;
+      protected boolean finished;
+
+      CustomerProcess(double arrivalTime)
+      {
+         super(ThreadedAutoBodyShop.this.scheduler);
+         this.arrivalTime = arrivalTime;
+      }
+
+      @Override
+      protected void lifeCycle()
+      {
+         // Initializations and stat updates.
+         totalCustomers++;
+         inSystem++;
+
+         // ~~~~~~~~~~~~ Mechanic Logic ~~~~~~~~~~~~
+
+         // Place the customer into the mechanic's queue.
+         waitingForMechanic.addLast(this);
+         waitingForMechanicChanged();
+
+         // There is a mechanic available.
+         if (!idleMechanics.isEmpty())
+         {
+            idleMechanics.removeFirst().activate();
+            idleMechanicsChanged();
+         }
+         // There is not a mechanic available.
+         else
+         {
+            // Determine if the customer will balk
+            // (subtract 1 so the customer doesn't count themself).
+            int k = waitingForMechanic.size() - 1;
+            long balk = ShopRules.MIN_BALK + random.nextInt(ShopRules.MAX_BALK - ShopRules.MIN_BALK + 1);
+
+            // Customer leaves to the other shop.
+            if (ShopRules.balks(balk, k))
+            {
+               waitingForMechanic.removeLast();
+               waitingForMechanicChanged();
+               inSystem--;
+
+               // Update stats
+               totalBalked++;
+               todaysCost += config.lossCost;
+               return;
+            }
+         }
+
+         passivate();
+
+         // If customer finished their service when with mechanic -> done.
+         if (finished)
+         {
+            inSystem--;
+            return;
+         }
+
+         // ~~~~~~~~~~~~ Specialist Logic ~~~~~~~~~~~~
+
+         // All of the stalls are full.
+         if (stallsInUse >= config.numStalls)
+         {
+            waitingForSpecialist.remove(this);
+            inSystem--;
+
+            // Update stats
+            totalLost++;
+            todaysCost += config.lossCost;
+            return;
+         }
+
+         // Add car to queue (it will occupy a stall).
+         stallsInUse++;
+
+         // There is a specialist available.
+         if (!idleSpecialists.isEmpty())
+         {
+            idleSpecialists.removeFirst().activate();
+            idleSpecialistsChanged();
+         }
+
+         passivate();
+
+         // ~~~~~~~ Fully Treated at this Auto Body Shop ~~~~~~~
+      }
+   }
+
+   /**
+    * See Mechanic.
+    */
+   protected class MechanicProcess extends HandoffProcess
+   {
+      MechanicProcess()
+      {
+         super(ThreadedAutoBodyShop.this.scheduler);
+      }
+
+      @Override
+      protected void lifeCycle()
+      {
+         todaysCost += config.mechanicSalary;
+
+         while (true)
+         {
+            // There is not another car.
+            if (waitingForMechanic.isEmpty())
+            {
+               idleMechanics.addLast(this);
+               idleMechanicsChanged();
+               passivate();
+            }
+            // There is another car.
+            else
+            {
+               // Get the next car, then sample and hold for time t.
+               CustomerProcess seeingMechanic = waitingForMechanic.removeFirst();
+               waitingForMechanicChanged();
+               hold(exponential(ShopRules.MECHANIC_FIX_TIME));
+
+               // The customer needs to be referred to the specialist.
+               if (ShopRules.referred(random.nextDouble()))
+               {
+                  // Customer has been in system for > 30 minutes -> Will leave to go to other body shop
+                  if (ShopRules.waitedTooLong(presentTime(), seeingMechanic.arrivalTime))
+                  {
+                     seeingMechanic.finished = true;
+                     totalLost++;
+                     todaysCost += config.lossCost;
+                  }
+                  // Else car will be sent to specialist.
+                  else
+                  {
+                     waitingForSpecialist.addLast(seeingMechanic);
+                     peakWaitingForSpecialist = Math.max(peakWaitingForSpecialist, waitingForSpecialist.size());
+                  }
+               }
+               // The car does not need referral.
+               else
+               {
+                  seeingMechanic.finished = true;
+                  fullyFixed++;
+                  responseTimeSum += presentTime() - seeingMechanic.arrivalTime;
+               }
+
+               // Reactivate customer and pay the mechanic's commission.
+               seeingMechanic.activate();
+               todaysCost += config.mechanicCommission;
+               mechanicJobs++;
+            }
+         }
+      }
+   }
+
+   /**
+    * See Specialist.
+    */
+   protected class SpecialistProcess extends HandoffProcess
+   {
+      SpecialistProcess()
+      {
+         super(ThreadedAutoBodyShop.this.scheduler);
+      }
+
+      @Override
+      protected void lifeCycle()
+      {
+         todaysCost += config.specialistSalary;
+
+         while (true)
+         {
+            // There is not another car to fix.
+            if (waitingForSpecialist.isEmpty())
+            {
+               idleSpecialists.addLast(this);
+               idleSpecialistsChanged();
+               passivate();
+            }
+            // There is another car to fix.
+            else
+            {
+               // Get the next customer, then sample and hold for time t.
+               CustomerProcess seeingSpecialist = waitingForSpecialist.removeFirst();
+               hold(exponential(ShopRules.SPECIALIST_FIX_TIME));
+
+               // Update stats
+               fullyFixed++;
+               responseTimeSum += presentTime() - seeingSpecialist.arrivalTime;
+               seeingSpecialist.finished = true;
+               inSystem--;
+
+               // Reactivate customer (no longer occupies a stall).
+               stallsInUse--;
+               seeingSpecialist.activate();
+
+               // Pay the specialist's commission.
+               todaysCost += config.specialistCommission;
+               specialistJobs++;
+            }
+         }
+      }
+   }
+
+   /**
+    * See Generator.
+    */
+   protected class GeneratorProcess extends HandoffProcess
+   {
+      GeneratorProcess()
+      {
+         super(ThreadedAutoBodyShop.this.scheduler);
+      }
+
+      @Override
+      protected void lifeCycle()
+      {
+         // Generate new arrivals for the time the shop is open.
+         while (presentTime() < config.operationHours)
+         {
+            // Determine the next interarrival time based on the time of day.
+            double mean = ShopRules.interarrivalMean(ShopRules.arrivalPeriod(presentTime()));
+
+            // Hold for the next arrival, then the next car arrives.
+            hold(exponential(mean));
+            new CustomerProcess(presentTime()).activate();
+         }
+      }
+   }
+}
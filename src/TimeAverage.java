@@ -0,0 +1,74 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class keeps a time-weighted average of a
+ *    value that changes at discrete points in time
+ *    (queue lengths, idle workers, ...).  It is the
+ *    allocation free equivalent of DESMO-J's Accumulate
+ *    and queue length statistics for ShopKernel.
+ *
+ * Last Edited: October 2026
+ */
+
+public final class TimeAverage
+{
+   private double start;
+   private double lastTime;
+   private double value;
+   private double area;
+   private double max;
+
+   /**
+    * Start over from the given time and value.
+    */
+   public void reset(double now, double value)
+   {
+      this.start = now;
+      this.lastTime = now;
+      this.value = value;
+      this.area = 0;
+      this.max = value;
+   }
+
+   /**
+    * The value changed at time now.
+    */
+   public void update(double now, double value)
+   {
+      area += this.value * (now - lastTime);
+      lastTime = now;
+      this.value = value;
+
+      if (value > max)
+         max = value;
+   }
+
+   /**
+    * @return : The time-weighted average from the last reset until now.
+    */
+   public double mean(double now)
+   {
+      double elapsed = now - start;
+      if (elapsed <= 0)
+         return value;
+
+      return (area + value * (now - lastTime)) / elapsed;
+   }
+
+   /**
+    * @return : The largest value seen since the last reset.
+    */
+   public double max()
+   {
+      return max;
+   }
+
+   /**
+    * @return : The current value.
+    */
+   public double value()
+   {
+      return value;
+   }
+}
@@ -0,0 +1,119 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class describes who works in a (large) shop for
+ *    ShopKernel: the speed of every mechanic, the skills
+ *    and speed of every specialist, and how often a
+ *    referred car needs each skill.  A ShopConfig alone is
+ *    the same as uniform(): identical workers and a single
+ *    kind of referral, just like the AutoBodyShop.
+ *
+ *    A worker with speed 2 fixes a car in half the time.
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.Arrays;
+
+public final class Workforce
+{
+   private final double[] mechanicSpeeds;
+   private final long[]   specialistSkills;
+   private final double[] specialistSpeeds;
+   private final double[] skillMix;
+
+   /**
+    * @param mechanicSpeeds : Every mechanic's speed
+    * @param specialistSkills : Every specialist's skills (bit i = skill i)
+    * @param specialistSpeeds : Every specialist's speed
+    * @param skillMix : The chance a referred car needs skill i (adds up to 1)
+    */
+   public Workforce(double[] mechanicSpeeds, long[] specialistSkills, double[] specialistSpeeds,
+         double[] skillMix)
+   {
+      if (specialistSkills.length != specialistSpeeds.length)
+         throw new IllegalArgumentException("every specialist needs skills and a speed");
+      if (skillMix.length < 1 || skillMix.length > Long.SIZE)
+         throw new IllegalArgumentException("there must be 1 to 64 skills");
+
+      this.mechanicSpeeds = mechanicSpeeds.clone();
+      this.specialistSkills = specialistSkills.clone();
+      this.specialistSpeeds = specialistSpeeds.clone();
+
+      // Keep the running total, so a draw is a search for the first total above it.
+      this.skillMix = new double[skillMix.length];
+      double total = 0;
+      for (int i = 0; i < skillMix.length; i++)
+         this.skillMix[i] = total += skillMix[i];
+   }
+
+   /**
+    * @return : Identical workers (speed 1) and a single skill, as in the AutoBodyShop.
+    */
+   public static Workforce uniform(ShopConfig config)
+   {
+      double[] mechanics = new double[config.numMechanics];
+      double[] specialists = new double[config.numSpecialists];
+      long[] skills = new long[config.numSpecialists];
+      Arrays.fill(mechanics, 1.0);
+      Arrays.fill(specialists, 1.0);
+      Arrays.fill(skills, 1L);
+      return new Workforce(mechanics, skills, specialists, new double[]{ 1.0 });
+   }
+
+   public int numMechanics()
+   {
+      return mechanicSpeeds.length;
+   }
+
+   public int numSpecialists()
+   {
+      return specialistSpeeds.length;
+   }
+
+   public int numSkills()
+   {
+      return skillMix.length;
+   }
+
+   /**
+    * @return : A new pool of the mechanics.
+    */
+   public ResourcePool mechanicPool()
+   {
+      long[] skills = new long[mechanicSpeeds.length];
+      Arrays.fill(skills, 1L);
+      return new ResourcePool(skills, mechanicSpeeds);
+   }
+
+   /**
+    * @return : A new pool of the specialists.
+    */
+   public ResourcePool specialistPool()
+   {
+      return new ResourcePool(specialistSkills, specialistSpeeds);
+   }
+
+   /**
+    * @param u : A uniform random number in [0, 1)
+    *
+    * @return : The skill a referred car needs.
+    */
+   public int skillFor(double u)
+   {
+      double draw = u * skillMix[skillMix.length - 1];
+      for (int i = 0; i < skillMix.length - 1; i++)
+         if (draw < skillMix[i])
+            return i;
+      return skillMix.length - 1;
+   }
+
+   /**
+    * @return : True if this workforce can be used with the given shop settings.
+    */
+   public boolean fits(ShopConfig config)
+   {
+      return numMechanics() == config.numMechanics && numSpecialists() == config.numSpecialists;
+   }
+}
@@ -0,0 +1,49 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This test shows that an adaptive campaign of antithetic
+ *    pairs only stops after whole pairs: an odd batch size
+ *    is rounded up, whichever of setAdaptive() and
+ *    setAntithetic() is called first.  Without pairs the
+ *    batch size is kept as it is.
+ *
+ *       java AntitheticBatchTest
+ *
+ * Last Edited: October 2026
+ */
+
+public class AntitheticBatchTest
+{
+   private static final int BATCH = 5;
+   private static final int MAX_REPLICATIONS = 40;
+
+   /** Loose enough to be met by the first batch */
+   private static final double TARGET = 1e9;
+
+   public static void main(String[] args)
+   {
+      for (boolean adaptiveFirst : new boolean[]{ true, false })
+      {
+         ReplicationCampaign campaign = new ReplicationCampaign(ShopConfig.snapshot(),
+               ReplicationModel.Engine.KERNEL, ReplicationModel.SEED, MAX_REPLICATIONS, 1);
+         if (adaptiveFirst)
+            campaign.setAdaptive(TARGET, Metric.values(), BATCH);
+         campaign.setAntithetic(true);
+         if (!adaptiveFirst)
+            campaign.setAdaptive(TARGET, Metric.values(), BATCH);
+
+         String what = adaptiveFirst ? "adaptive first" : "antithetic first";
+         Check.that(campaign.run(result -> { }, observation -> { }), what + ": the campaign failed");
+         Check.same(BATCH + 1, campaign.getReplicationsRun(), what + ", replications run");
+      }
+
+      ReplicationCampaign single = new ReplicationCampaign(ShopConfig.snapshot(),
+            ReplicationModel.Engine.KERNEL, ReplicationModel.SEED, MAX_REPLICATIONS, 1);
+      single.setAdaptive(TARGET, Metric.values(), BATCH);
+      Check.that(single.run(result -> { }, observation -> { }), "without pairs: the campaign failed");
+      Check.same(BATCH, single.getReplicationsRun(), "without pairs, replications run");
+
+      Check.done("AntitheticBatchTest");
+   }
+}
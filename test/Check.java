@@ -0,0 +1,66 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This class holds the checks shared by the tests in
+ *    this directory.  Every test is a program of its own
+ *    that prints what it checked and exits with status 1
+ *    if anything failed, so it runs from the command line
+ *    (or a CI script) with no test framework:
+ *
+ *       javac -cp desmoj.jar -d out src/*.java test/*.java
+ *       java -cp out:desmoj.jar KernelAllocationTest
+ *
+ * Last Edited: October 2026
+ */
+
+public final class Check
+{
+   private static int checks;
+   private static int failures;
+
+   private Check()
+   {
+   }
+
+   /**
+    * Fail (and say what failed) unless the condition holds.
+    */
+   public static void that(boolean condition, String what)
+   {
+      checks++;
+      if (!condition)
+      {
+         failures++;
+         System.out.println("FAILED: " + what);
+      }
+   }
+
+   /**
+    * Fail unless the two values are exactly the same (NaN equals NaN).
+    */
+   public static void same(double expected, double actual, String what)
+   {
+      that(Double.compare(expected, actual) == 0, what + ": expected " + expected + " but was " + actual);
+   }
+
+   /**
+    * Fail unless the two values agree to within a relative tolerance
+    * (for the same statistic worked out two different ways).
+    */
+   public static void near(double expected, double actual, double tolerance, String what)
+   {
+      that(Math.abs(expected - actual) <= tolerance * Math.max(1, Math.abs(expected)),
+            what + ": expected " + expected + " but was " + actual);
+   }
+
+   /**
+    * Print the outcome and exit with status 1 if any check failed.
+    */
+   public static void done(String test)
+   {
+      System.out.println(test + ": " + (checks - failures) + " of " + checks + " checks passed");
+      if (failures > 0)
+         System.exit(1);
+   }
+}
@@ -0,0 +1,67 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This test shows that ending a day with the ClosingTime
+ *    event (CLOSING_TIME_EVENT) stops the DESMO-J models
+ *    (PROCESS, PASSIVE_CUSTOMERS and EVENT) exactly where
+ *    the stopping condition does.  Each day is run twice
+ *    with the same seed: once with the ModelCondition (past
+ *    closing time and nobody in the shop, checked after
+ *    every event) deciding when it ends, and once with the
+ *    ClosingTime event.  The end time and every Metric must
+ *    be the same, for days of 6 to 12 hours.
+ *
+ *       java ClosingTimeTest [replications]
+ *
+ * Last Edited: October 2026
+ */
+
+public class ClosingTimeTest
+{
+   private static final int MIN_HOURS = 6;
+   private static final int MAX_HOURS = 12;
+
+   private static final ReplicationModel.Engine[] ENGINES = {
+      ReplicationModel.Engine.PROCESS,
+      ReplicationModel.Engine.PASSIVE_CUSTOMERS,
+      ReplicationModel.Engine.EVENT
+   };
+
+   public static void main(String[] args)
+   {
+      int replications = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+      ShopConfig driver = ShopConfig.snapshot();
+
+      for (int hours = MIN_HOURS; hours <= MAX_HOURS; hours++)
+      {
+         ShopConfig config = new ShopConfig(hours, driver.stallCost, driver.lossCost,
+               driver.numMechanics, driver.mechanicSalary, driver.mechanicCommission,
+               driver.numSpecialists, driver.numStalls, driver.specialistSalary, driver.specialistCommission);
+
+         for (ReplicationModel.Engine engine : ENGINES)
+         {
+            for (int run = 1; run <= replications; run++)
+            {
+               RandomStreams streams = new RandomStreams(ReplicationModel.SEED, run, false);
+               String what = engine + ", " + hours + " hours, run " + run;
+
+               ReplicationModel.CLOSING_TIME_EVENT = false;
+               ReplicationResult expected = ReplicationModel.simulate(engine, config, streams);
+               ReplicationModel.CLOSING_TIME_EVENT = true;
+               ReplicationResult actual = ReplicationModel.simulate(engine, config, streams);
+               Check.that(expected != null, what + ": the stopping condition run failed");
+               Check.that(actual != null, what + ": the ClosingTime run failed");
+               if (expected == null || actual == null)
+                  continue;
+
+               Check.same(expected.endTime, actual.endTime, what + ", end time");
+               for (Metric metric : Metric.values())
+                  Check.same(metric.of(expected), metric.of(actual), what + ", " + metric.getTitle());
+            }
+         }
+      }
+
+      Check.done("ClosingTimeTest");
+   }
+}
@@ -0,0 +1,160 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This test shows that the process model's intrusive
+ *    waiting lines (INTRUSIVE_WAITING_LINES) report the
+ *    same statistics as the ProcessQueues they replace.
+ *    Each line of the AutoBodyShop is a CustomerQueue that
+ *    also does every insert and remove on a DESMO-J
+ *    ProcessQueue, and after each run the average and
+ *    maximum lengths of the two must agree (and the cars
+ *    must leave the line in the same order).  The runs are
+ *    the ones the PROCESS engine makes, so its results must
+ *    be the same with and without the intrusive lines.
+ *
+ *       java CustomerQueueTest [replications]
+ *
+ * Last Edited: October 2026
+ */
+
+import desmoj.core.simulator.*;
+
+public class CustomerQueueTest
+{
+   /** The two averages are worked out differently, so they may differ in the last bits */
+   private static final double TOLERANCE = 1e-9;
+
+   public static void main(String[] args)
+   {
+      int replications = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+      ReplicationModel.INTRUSIVE_WAITING_LINES = true;
+
+      // The Driver's settings, and a shop short of workers (long lines, lots of balking).
+      ShopConfig[] configs = {
+         ShopConfig.snapshot(),
+         new ShopConfig(12, 100, 400, 1, 100, 10, 1, 1, 300, 100),
+         new ShopConfig(8, 100, 400, 2, 100, 10, 1, 2, 300, 100)
+      };
+
+      for (ShopConfig config : configs)
+      {
+         for (boolean common : new boolean[]{ false, true })
+         {
+            for (int run = 1; run <= replications; run++)
+            {
+               RandomStreams streams = new RandomStreams(ReplicationModel.SEED, run, common);
+               String what = config.numMechanics + " mechanics, " + config.numSpecialists + " specialists, "
+                     + config.operationHours + " hours, run " + run + (common ? " (CRN)" : "");
+
+               ShadowedShop shop = new ShadowedShop(config, streams);
+               Check.that(ReplicationModel.runExperiment(shop, streams.experimentSeed(), shop.processes,
+                     config.operationHours, () -> shop.inSystem == 0) != null, what + ": the run did not finish");
+
+               ShadowedQueue mechanicLine = (ShadowedQueue)shop.waitingForMechanic;
+               ShadowedQueue specialistLine = (ShadowedQueue)shop.waitingForSpecialist;
+               compare(mechanicLine, what + ", mechanic line");
+               compare(specialistLine, what + ", specialist line");
+
+               // The same day as the PROCESS engine's, which reports the line's average.
+               ReplicationResult result = ReplicationModel.simulate(ReplicationModel.Engine.PROCESS, config, streams);
+               Check.that(result != null, what + ": the PROCESS engine's run failed");
+               if (result != null)
+               {
+                  Check.same(result.endTime, shop.presentTime().getTimeAsDouble(), what + ", end time");
+                  Check.near(mechanicLine.shadow.averageLength(), result.avgCustomersWaiting, TOLERANCE,
+                        what + ", avgCustomersWaiting");
+               }
+
+               // ... and the same results as with ProcessQueues.
+               ReplicationModel.INTRUSIVE_WAITING_LINES = false;
+               ReplicationResult queued = ReplicationModel.simulate(ReplicationModel.Engine.PROCESS, config, streams);
+               ReplicationModel.INTRUSIVE_WAITING_LINES = true;
+               Check.that(queued != null, what + ": the PROCESS engine's run with ProcessQueues failed");
+               if (result != null && queued != null)
+               {
+                  Check.same(queued.endTime, result.endTime, what + ", end time with ProcessQueues");
+                  for (Metric metric : Metric.values())
+                     Check.near(metric.of(queued), metric.of(result), TOLERANCE,
+                           what + ", " + metric.getTitle() + " with ProcessQueues");
+               }
+            }
+         }
+      }
+
+      Check.done("CustomerQueueTest");
+   }
+
+   /**
+    * The line must have the same statistics as its ProcessQueue.
+    */
+   private static void compare(ShadowedQueue line, String what)
+   {
+      Check.near(line.shadow.averageLength(), line.averageLength(), TOLERANCE, what + ", average length");
+      Check.that(line.shadow.maxLength() == line.maxLength(), what + ", max length: expected "
+            + line.shadow.maxLength() + " but was " + line.maxLength());
+      Check.that(line.shadow.length() == line.length(), what + ", cars left in line");
+      Check.that(line.outOfOrder == 0, what + ": " + line.outOfOrder + " cars left the line out of order");
+   }
+
+   /**
+    * An AutoBodyShop whose lines also keep a ProcessQueue.
+    */
+   static class ShadowedShop extends AutoBodyShop
+   {
+      ShadowedShop(ShopConfig config, RandomStreams streams)
+      {
+         super(null, "Auto Body Shop", false, false, config, streams);
+      }
+
+      @Override
+      public void init()
+      {
+         super.init();
+         waitingForMechanic = new ShadowedQueue(this, "Mechanic Waiting Queue");
+         waitingForSpecialist = new ShadowedQueue(this, "Specialist Waiting Queue");
+      }
+   }
+
+   /**
+    * A CustomerQueue that does every insert and remove on a ProcessQueue too.
+    */
+   static class ShadowedQueue extends CustomerQueue
+   {
+      final ProcessQueue<Customer> shadow;
+      int outOfOrder;
+
+      ShadowedQueue(Model owner, String name)
+      {
+         super(owner, name, false);
+         shadow = new ProcessQueue<>(owner, name + " (ProcessQueue)", false, false);
+      }
+
+      @Override
+      public void insert(Customer customer)
+      {
+         super.insert(customer);
+         shadow.insert(customer);
+      }
+
+      @Override
+      public Customer removeFirst()
+      {
+         Customer expected = shadow.first();
+         Customer customer = super.removeFirst();
+         if (customer != expected)
+            outOfOrder++;
+         return customer;
+      }
+
+      @Override
+      public boolean remove(Customer customer)
+      {
+         if (!super.remove(customer))
+            return false;
+
+         shadow.remove(customer);
+         return true;
+      }
+   }
+}
@@ -0,0 +1,83 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This test shows that a HandoffProcess whose life cycle
+ *    throws fails the run instead of quietly ending it: the
+ *    scheduler shuts the other processes down and then
+ *    rethrows what the process threw, on platform and on
+ *    virtual threads.  A run where nothing throws still
+ *    ends normally.
+ *
+ *       java HandoffSchedulerTest
+ *
+ * Last Edited: October 2026
+ */
+
+public class HandoffSchedulerTest
+{
+   public static void main(String[] args)
+   {
+      for (HandoffScheduler.Threads threads : HandoffScheduler.Threads.values())
+      {
+         // A process that throws while another one is still holding.
+         HandoffScheduler scheduler = new HandoffScheduler(threads);
+         Worker waiting = new Worker(scheduler, Double.POSITIVE_INFINITY);
+         Worker failing = new Worker(scheduler, 2);
+         waiting.activate();
+         failing.activate();
+
+         Throwable thrown = null;
+         try
+         {
+            scheduler.run(() -> scheduler.presentTime() >= 10);
+         }
+         catch (IllegalStateException e)
+         {
+            thrown = e;
+         }
+
+         Check.that(thrown != null, threads + ": the run ended normally after a process threw");
+         Check.that(thrown != null && thrown.getCause() instanceof ArithmeticException,
+               threads + ": the run did not fail with what the process threw: " + thrown);
+         Check.that(waiting.thread != null && !waiting.thread.isAlive(),
+               threads + ": the other process outlived the run");
+         Check.same(2, failing.steps, threads + ", steps before the failure");
+
+         // Nothing throws: the run ends when there is nothing left to do.
+         HandoffScheduler quiet = new HandoffScheduler(threads);
+         Worker worker = new Worker(quiet, Double.POSITIVE_INFINITY);
+         worker.activate();
+         quiet.run(() -> quiet.presentTime() >= 5);
+         Check.same(5, quiet.presentTime(), threads + ", end of a run that did not fail");
+      }
+
+      Check.done("HandoffSchedulerTest");
+   }
+
+   /**
+    * Holds for a unit of time at a time, and throws after failAfter holds.
+    */
+   static class Worker extends HandoffProcess
+   {
+      private final double failAfter;
+      int steps;
+
+      Worker(HandoffScheduler scheduler, double failAfter)
+      {
+         super(scheduler);
+         this.failAfter = failAfter;
+      }
+
+      @Override
+      protected void lifeCycle()
+      {
+         while (true)
+         {
+            hold(1);
+            if (++steps >= failAfter)
+               throw new ArithmeticException("failed on purpose");
+         }
+      }
+   }
+}
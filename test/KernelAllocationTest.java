@@ -0,0 +1,109 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This test shows that the ShopKernel creates no garbage
+ *    per event once it is warmed up.  After a warm-up the
+ *    bytes this thread allocates are read (HotSpot's
+ *    com.sun.management.ThreadMXBean) around advance(),
+ *    which runs every event of a day, and must be 0, with
+ *    and without common random numbers.  A whole run()
+ *    only allocates its ReplicationResult, so it must
+ *    allocate the same per run for a 6 and a 12 hour day.
+ *
+ *       java KernelAllocationTest [runs]
+ *
+ * Last Edited: October 2026
+ */
+
+import java.lang.management.ManagementFactory;
+
+public class KernelAllocationTest
+{
+   private static final int WARMUP_RUNS = 20_000;
+
+   private static final com.sun.management.ThreadMXBean THREADS = 
+         (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+   public static void main(String[] args)
+   {
+      int runs = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+      Check.that(THREADS.isThreadAllocatedMemorySupported(), "this JVM cannot count allocated bytes");
+      THREADS.setThreadAllocatedMemoryEnabled(true);
+
+      for (boolean common : new boolean[]{ false, true })
+      {
+         ShopKernel kernel = new ShopKernel();
+         ShopConfig config = new ShopConfig(12, 100, 400, 3, 100, 10, 2, 2, 300, 100);
+         advance(kernel, config, common, 1, WARMUP_RUNS);
+
+         long before = kernel.getEventsExecuted();
+         long bytes = advance(kernel, config, common, WARMUP_RUNS + 1, runs);
+         long events = kernel.getEventsExecuted() - before;
+
+         Check.that(events > runs * 100L, "too few events to measure: " + events);
+         Check.that(bytes == 0, (common ? "common random numbers: " : "") + bytes 
+               + " bytes allocated over " + events + " events");
+         System.out.printf("common=%b: %d events, %d bytes%n", common, events, bytes);
+      }
+
+      // run(): the result only, however long the day.
+      ShopKernel kernel = new ShopKernel();
+      ShopConfig shortDay = new ShopConfig(6, 100, 400, 3, 100, 10, 2, 2, 300, 100);
+      ShopConfig longDay = new ShopConfig(12, 100, 400, 3, 100, 10, 2, 2, 300, 100);
+      run(kernel, shortDay, WARMUP_RUNS);
+      run(kernel, longDay, WARMUP_RUNS);
+      long shortBytes = run(kernel, shortDay, runs);
+      long longBytes = run(kernel, longDay, runs);
+      Check.that(shortBytes == longBytes, "run() allocates more for a longer day: " + shortBytes 
+            + " bytes for " + runs + " 6 hour days, " + longBytes + " for 12 hour days");
+      System.out.printf("run(): %d bytes per run%n", longBytes / runs);
+
+      Check.done("KernelAllocationTest");
+   }
+
+   /**
+    * Run the days, counting the bytes allocated by advance() only.
+    */
+   private static long advance(ShopKernel kernel, ShopConfig config, boolean common, int firstRun, int runs)
+   {
+      RandomStreams[] streams = new RandomStreams[runs];
+      for (int i = 0; i < runs; i++)
+         streams[i] = new RandomStreams(ReplicationModel.SEED, firstRun + i, common);
+
+      long bytes = 0;
+      for (int i = 0; i < runs; i++)
+      {
+         kernel.start(config, streams[i], null);
+         long before = allocatedBytes();
+         kernel.advance(Double.POSITIVE_INFINITY);
+         bytes += allocatedBytes() - before;
+         kernel.finish(firstRun + i);
+      }
+      return bytes;
+   }
+
+   /**
+    * Run the days with run(), counting the bytes allocated by it.
+    */
+   private static long run(ShopKernel kernel, ShopConfig config, int runs)
+   {
+      RandomStreams[] streams = new RandomStreams[runs];
+      for (int i = 0; i < runs; i++)
+         streams[i] = new RandomStreams(ReplicationModel.SEED, i + 1, false);
+
+      long bytes = 0;
+      for (int i = 0; i < runs; i++)
+      {
+         long before = allocatedBytes();
+         kernel.run(config, streams[i]);
+         bytes += allocatedBytes() - before;
+      }
+      return bytes;
+   }
+
+   private static long allocatedBytes()
+   {
+      return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+   }
+}
@@ -0,0 +1,68 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This test shows that the ReplicationExecutor treats a
+ *    replication that throws the same way with one worker
+ *    and with several: the run returns false, the results
+ *    before it are merged in order, and nothing is thrown
+ *    to the caller.  It also runs a campaign that goes
+ *    through without a failure.
+ *
+ *       java ReplicationExecutorTest
+ *
+ * Last Edited: October 2026
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReplicationExecutorTest
+{
+   private static final int REPLICATIONS = 40;
+   private static final int FAILS = 17;
+
+   public static void main(String[] args)
+   {
+      ShopConfig config = ShopConfig.snapshot();
+
+      for (int workers : new int[]{ 1, 4 })
+      {
+         try (ReplicationExecutor executor = new ReplicationExecutor(workers))
+         {
+            List<Integer> merged = new ArrayList<>();
+            boolean ok;
+            try
+            {
+               ok = executor.run(1, REPLICATIONS, runNumber ->
+               {
+                  if (runNumber == FAILS)
+                     throw new IllegalStateException("replication " + runNumber + " failed on purpose");
+                  return ReplicationModel.simulate(ReplicationModel.Engine.KERNEL, config,
+                                                   ReplicationModel.SEED, runNumber);
+               }, result -> merged.add(result.runNumber));
+            }
+            catch (RuntimeException e)
+            {
+               Check.that(false, workers + " workers: the failure was thrown to the caller: " + e);
+               continue;
+            }
+
+            Check.that(!ok, workers + " workers: a run with a failed replication returned true");
+            Check.same(FAILS - 1, merged.size(), workers + " workers, replications merged before the failure");
+            for (int i = 0; i < merged.size(); i++)
+               Check.same(i + 1, merged.get(i), workers + " workers, merge order");
+
+            // The executor keeps working after a failed run.
+            List<Integer> again = new ArrayList<>();
+            boolean allOk = executor.run(1, REPLICATIONS, runNumber -> ReplicationModel.simulate(
+                  ReplicationModel.Engine.KERNEL, config, ReplicationModel.SEED, runNumber),
+                  result -> again.add(result.runNumber));
+            Check.that(allOk, workers + " workers: a run without failures returned false");
+            Check.same(REPLICATIONS, again.size(), workers + " workers, replications merged");
+         }
+      }
+
+      Check.done("ReplicationExecutorTest");
+   }
+}
@@ -0,0 +1,121 @@
+/**
+ * @author Riley Radle
+ *
+ * Description:
+ *    This test runs the process model (PROCESS engine) for
+ *    100,000 replications in a row, to show that waiting
+ *    on the ProcessBarrier after each experiment is enough
+ *    to tear it down: no replication fails, no process
+ *    thread is left behind, and the replication thread
+ *    never sleeps (its stack is sampled every millisecond
+ *    while the test runs).  It turns the TEARDOWN_BARRIER
+ *    on (the engine pauses instead unless it is asked for);
+ *    once this passes against DESMO-J the barrier can be
+ *    the default.  It takes a while, so it is only run
+ *    on purpose, with an optional replication count:
+ *
+ *       java TeardownStressTest [replications]
+ *
+ * Last Edited: October 2026
+ */
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+
+public class TeardownStressTest
+{
+   /** Threads that may come and go besides the replication's (eg. JIT, GC, the sampler) */
+   private static final int THREAD_SLACK = 16;
+
+   public static void main(String[] args) throws InterruptedException
+   {
+      int replications = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+      ReplicationModel.TEARDOWN_BARRIER = true;
+      ShopConfig config = ShopConfig.snapshot();
+      ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+      int threadsBefore = threads.getThreadCount();
+
+      Sampler sampler = new Sampler(Thread.currentThread().getId());
+      sampler.start();
+
+      long errors = 0;
+      long start = System.nanoTime();
+      for (int i = 1; i <= replications; i++)
+      {
+         try
+         {
+            if (ReplicationModel.simulate(ReplicationModel.Engine.PROCESS, config, ReplicationModel.SEED, i) == null)
+               errors++;
+         }
+         catch (RuntimeException e)
+         {
+            errors++;
+         }
+
+         if (i % 10_000 == 0)
+            System.out.printf("%d replications, %d errors, %.1f s%n", i, errors, (System.nanoTime() - start) / 1e9);
+      }
+      double millisPerReplication = (System.nanoTime() - start) / 1e6 / replications;
+
+      sampler.interrupt();
+      sampler.join();
+
+      Check.that(errors == 0, errors + " of " + replications + " replications failed");
+      Check.that(sampler.sleeping == 0, "the replication thread was seen sleeping " + sampler.sleeping 
+            + " times in " + sampler.samples + " samples");
+      Check.that(threads.getThreadCount() <= threadsBefore + THREAD_SLACK, 
+            "process threads were left behind: " + threadsBefore + " threads before, " 
+            + threads.getThreadCount() + " after");
+      System.out.printf("%.3f ms per replication, %d stack samples%n", millisPerReplication, sampler.samples);
+      Check.done("TeardownStressTest");
+   }
+
+   /**
+    * Samples the replication thread's stack, counting the times it is in Thread.sleep.
+    */
+   private static final class Sampler extends Thread
+   {
+      private final long threadId;
+      private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+      private volatile long samples;
+      private volatile long sleeping;
+
+      Sampler(long threadId)
+      {
+         super("Sleep Sampler");
+         this.threadId = threadId;
+         setDaemon(true);
+      }
+
+      @Override
+      public void run()
+      {
+         while (!isInterrupted())
+         {
+            ThreadInfo info = threads.getThreadInfo(threadId, 8);
+            if (info != null)
+            {
+               samples++;
+               for (StackTraceElement frame : info.getStackTrace())
+               {
+                  if (frame.getClassName().equals("java.lang.Thread") && frame.getMethodName().startsWith("sleep"))
+                  {
+                     sleeping++;
+                     break;
+                  }
+               }
+            }
+
+            try
+            {
+               Thread.sleep(1);
+            }
+            catch (InterruptedException e)
+            {
+               return;
+            }
+         }
+      }
+   }
+}